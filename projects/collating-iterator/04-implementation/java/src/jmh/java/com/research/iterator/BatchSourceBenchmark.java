@@ -0,0 +1,151 @@
+package com.research.iterator;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-element source calls vs chunked refills, for cheap keys.
+ *
+ * - loserTree: LoserTreeIterator, hasNext()/next() on a source per element
+ * - batchAdapted: BatchLoserTree over BatchSource.of(cursor); the same
+ *   per-element calls, moved inside the adapter
+ * - batchNative: BatchLoserTree over sources that fill a chunk with one
+ *   System.arraycopy, about N / B source calls in total
+ * - intBatch: IntArrayLoserTree over int chunk sources, unboxed
+ * - intArray: IntArrayLoserTree over the arrays themselves (no refills)
+ * - intBlockMergeTree: IntBlockMergeTree over the same arrays, branch-free
+ *   two-way mergers instead of a tournament
+ *
+ * One full merge of n elements per invocation. Data is uniform random.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 2, timeUnit = TimeUnit.SECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Thread)
+public class BatchSourceBenchmark {
+
+    @Param({"8", "64"})
+    int k;
+
+    @Param({"1000000"})
+    int n;
+
+    private TestDataGenerator generator;
+    private Integer[][] boxedData;
+    private int[][] intData;
+
+    @Setup(Level.Trial)
+    public void generateTestData() {
+        generator = new TestDataGenerator();
+        boxedData = generator.toArrays(generator.generate(k, n, "uniform", "random"));
+        intData = new int[k][];
+        for (int i = 0; i < k; i++) {
+            intData[i] = Arrays.stream(boxedData[i]).mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    @Benchmark
+    public int loserTree(Blackhole bh) {
+        return drain(new LoserTreeIterator<>(generator.toCursors(boxedData)), bh);
+    }
+
+    @Benchmark
+    public int batchAdapted(Blackhole bh) {
+        List<BatchSource<Integer>> sources = new ArrayList<>(k);
+        for (Iterator<Integer> cursor : generator.toCursors(boxedData)) {
+            sources.add(BatchSource.of(cursor));
+        }
+        return drain(new BatchLoserTree<>(sources), bh);
+    }
+
+    @Benchmark
+    public int batchNative(Blackhole bh) {
+        List<BatchSource<Integer>> sources = new ArrayList<>(k);
+        for (Integer[] values : boxedData) {
+            sources.add(new ChunkSource(values));
+        }
+        return drain(new BatchLoserTree<>(sources), bh);
+    }
+
+    @Benchmark
+    public int intBatch(Blackhole bh) {
+        List<BatchSource.OfInt> sources = new ArrayList<>(k);
+        for (int[] values : intData) {
+            sources.add(new IntChunkSource(values));
+        }
+        return drain(new IntArrayLoserTree(sources), bh);
+    }
+
+    @Benchmark
+    public int intArray(Blackhole bh) {
+        return drain(new IntArrayLoserTree(intData), bh);
+    }
+
+    @Benchmark
+    public int intBlockMergeTree(Blackhole bh) {
+        return drain(new IntBlockMergeTree(intData), bh);
+    }
+
+    private static int drain(Iterator<Integer> merged, Blackhole bh) {
+        int count = 0;
+        while (merged.hasNext()) {
+            bh.consume(merged.next());
+            count++;
+        }
+        return count;
+    }
+
+    private static int drain(PrimitiveIterator.OfInt merged, Blackhole bh) {
+        int count = 0;
+        while (merged.hasNext()) {
+            bh.consume(merged.nextInt());
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Batch source standing in for a block reader: one copy per chunk.
+     */
+    static final class ChunkSource implements BatchSource<Integer> {
+        private final Integer[] values;
+        private int position;
+
+        ChunkSource(Integer[] values) {
+            this.values = values;
+        }
+
+        @Override
+        public int fill(Object[] buffer) {
+            int n = Math.min(buffer.length, values.length - position);
+            System.arraycopy(values, position, buffer, 0, n);
+            position += n;
+            return n;
+        }
+    }
+
+    /**
+     * Unboxed counterpart of {@link ChunkSource}.
+     */
+    static final class IntChunkSource implements BatchSource.OfInt {
+        private final int[] values;
+        private int position;
+
+        IntChunkSource(int[] values) {
+            this.values = values;
+        }
+
+        @Override
+        public int fill(int[] buffer) {
+            int n = Math.min(buffer.length, values.length - position);
+            System.arraycopy(values, position, buffer, 0, n);
+            position += n;
+            return n;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.research.iterator;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Binary-key merge: ByteKeyLoserTree vs LoserTreeIterator over Comparable wrappers.
+ *
+ * Each source is an SSTable-like block: sorted keys packed back to back in one
+ * byte[] plus an end-offset index. Keys share an 8-byte prefix followed by
+ * random bytes, so every comparison has to scan past the prefix. The wrapped
+ * variant pays what a generic engine costs for byte[] keys:
+ * - one wrapper allocation per key
+ * - a byte-at-a-time unsigned compareTo
+ * ByteKeyLoserTree compares (block, offset, length) views in place with
+ * Arrays.compareUnsigned.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+@State(Scope.Thread)
+public class ByteKeyBenchmark {
+
+    private static final int PREFIX = 8;
+
+    @Param({"16", "256"})
+    int k;
+
+    @Param({"16", "64"})
+    int keyLength;
+
+    @Param({"100000"})
+    int n;
+
+    private byte[][] blocks;  // blocks[source] = packed keys
+    private int[][] ends;     // ends[source][i] = exclusive end of key i
+
+    @Setup(Level.Trial)
+    public void generateTestData() {
+        Random random = new Random(42);
+        blocks = new byte[k][];
+        ends = new int[k][];
+        for (int i = 0; i < k; i++) {
+            byte[][] keys = new byte[n / k][];
+            for (int j = 0; j < keys.length; j++) {
+                byte[] key = new byte[keyLength];
+                random.nextBytes(key);
+                Arrays.fill(key, 0, PREFIX, (byte) 0x42);
+                keys[j] = key;
+            }
+            Arrays.sort(keys, Arrays::compareUnsigned);
+
+            blocks[i] = new byte[keys.length * keyLength];
+            ends[i] = new int[keys.length];
+            for (int j = 0; j < keys.length; j++) {
+                System.arraycopy(keys[j], 0, blocks[i], j * keyLength, keyLength);
+                ends[i][j] = (j + 1) * keyLength;
+            }
+        }
+    }
+
+    @Benchmark
+    public int byteKeyLoserTree(Blackhole bh, ElementCounter counter) {
+        List<ByteKeySource> sources = new ArrayList<>(k);
+        for (int i = 0; i < k; i++) {
+            sources.add(ByteKeySource.ofSlices(blocks[i], ends[i]));
+        }
+        ByteKeyLoserTree tree = new ByteKeyLoserTree(sources);
+        int count = 0;
+        while (tree.advance()) {
+            bh.consume(tree.offset());
+            count++;
+        }
+        counter.elements += count;
+        return count;
+    }
+
+    @Benchmark
+    public int wrappedLoserTree(Blackhole bh, ElementCounter counter) {
+        List<Iterator<BytesKey>> sources = new ArrayList<>(k);
+        for (int i = 0; i < k; i++) {
+            sources.add(new WrappingIterator(blocks[i], ends[i]));
+        }
+        Iterator<BytesKey> merged = new LoserTreeIterator<>(sources);
+        int count = 0;
+        while (merged.hasNext()) {
+            bh.consume(merged.next());
+            count++;
+        }
+        counter.elements += count;
+        return count;
+    }
+
+    /**
+     * The usual Comparable wrapper around a key slice.
+     */
+    static final class BytesKey implements Comparable<BytesKey> {
+        final byte[] block;
+        final int from;
+        final int to;
+
+        BytesKey(byte[] block, int from, int to) {
+            this.block = block;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public int compareTo(BytesKey other) {
+            int i = from;
+            int j = other.from;
+            for (; i < to && j < other.to; i++, j++) {
+                int cmp = (block[i] & 0xFF) - (other.block[j] & 0xFF);
+                if (cmp != 0) {
+                    return cmp;
+                }
+            }
+            return (to - i) - (other.to - j);
+        }
+    }
+
+    /**
+     * Wraps each key as it is pulled, as a source of Comparable keys would.
+     */
+    private static final class WrappingIterator implements Iterator<BytesKey> {
+        private final byte[] block;
+        private final int[] ends;
+        private int position;
+
+        WrappingIterator(byte[] block, int[] ends) {
+            this.block = block;
+            this.ends = ends;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return position < ends.length;
+        }
+
+        @Override
+        public BytesKey next() {
+            int from = position == 0 ? 0 : ends[position - 1];
+            return new BytesKey(block, from, ends[position++]);
+        }
+    }
+}
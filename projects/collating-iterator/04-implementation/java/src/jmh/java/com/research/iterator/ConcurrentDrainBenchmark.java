@@ -0,0 +1,92 @@
+package com.research.iterator;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Several consumer threads draining one shared merge: per-element lock vs batch claims.
+ *
+ * - synchronizedLoserTree: the current practice, every element is a
+ *   synchronized next() on a shared LoserTreeIterator
+ * - concurrentBatches: ConcurrentCollatingIterator over the same engine, one
+ *   atomic claim per batch of {@link #BATCH} elements
+ *
+ * Sources are unbounded ascending sequences, so the shared merge never runs
+ * dry across iterations. Scores are elements/us summed over all threads; run
+ * with -t to vary the consumer count (default 4).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class ConcurrentDrainBenchmark {
+
+    private static final int BATCH = 256;
+
+    @Param({"16", "256"})
+    int k;
+
+    private Iterator<Integer> locked;
+    private ConcurrentCollatingIterator<Integer> concurrent;
+
+    @Setup(Level.Trial)
+    public void createMerges() {
+        locked = new LoserTreeIterator<>(unboundedSources(k));
+        concurrent = new ConcurrentCollatingIterator<>(new LoserTreeIterator<>(unboundedSources(k)), BATCH);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void synchronizedLoserTree(Blackhole bh) {
+        Iterator<Integer> merged = locked;
+        for (int i = 0; i < BATCH; i++) {
+            Integer value;
+            synchronized (merged) {
+                value = merged.next();
+            }
+            bh.consume(value);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void concurrentBatches(Blackhole bh) {
+        ConcurrentCollatingIterator.Batch<Integer> batch = concurrent.nextBatch();
+        for (int i = 0; i < batch.size(); i++) {
+            bh.consume(batch.get(i));
+        }
+    }
+
+    /**
+     * Source i yields i, i + k, i + 2k, ... (wrapping after Integer.MAX_VALUE
+     * is irrelevant for a few seconds of merging).
+     */
+    private static List<Iterator<Integer>> unboundedSources(int k) {
+        List<Iterator<Integer>> sources = new ArrayList<>(k);
+        for (int i = 0; i < k; i++) {
+            int first = i;
+            sources.add(new Iterator<Integer>() {
+                private int next = first;
+
+                @Override
+                public boolean hasNext() {
+                    return true;
+                }
+
+                @Override
+                public Integer next() {
+                    int value = next;
+                    next += k;
+                    return value;
+                }
+            });
+        }
+        return sources;
+    }
+}
@@ -0,0 +1,23 @@
+package com.research.iterator;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * JMH auxiliary counter for merged elements.
+ *
+ * <p>Benchmarks add the number of elements they merged to {@link #elements}.
+ * JMH normalizes OPERATIONS counters like the primary score, so in
+ * AverageTime mode the secondary "elements" result is time per element
+ * (ns/element with a NANOSECONDS output unit) next to time per merge.
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+public class ElementCounter {
+
+    public long elements;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+        elements = 0;
+    }
+}
@@ -14,16 +14,21 @@ import java.util.concurrent.TimeUnit;
  * - k=10: Crossover point (heap/tree start to win)
  * - k=50: Large k (loser tree advantage emerges)
  *
- * Time budget: ~5 minutes total
- * - 3 k values × 3 algorithms = 9 benchmarks
- * - ~30 seconds each = ~4.5 minutes
+ * Time budget: ~9 minutes total
+ * - 3 k values × 6 algorithms = 18 benchmarks
+ * - ~30 seconds each = ~9 minutes
+ *
+ * Sources are zero-copy cursors prepared outside the measured method, see
+ * CollatingIteratorBenchmark. intArray and intBlockMergeTree merge the same
+ * data as int[] arrays, unboxed: the tournament against the branch-free
+ * two-way mergers on primitive keys.
  */
 @BenchmarkMode(Mode.AverageTime)
-@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
 @Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
 @Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
 @Fork(1)
-@State(Scope.Benchmark)
+@State(Scope.Thread)
 public class FocusedBenchmark {
 
     @Param({"3", "10", "50"})
@@ -32,51 +37,73 @@ public class FocusedBenchmark {
     @Param({"10000"})
     int n;
 
-    private List<List<Integer>> testData;
+    private Integer[][] testData;
+    private int[][] intData;
     private TestDataGenerator generator;
+    private List<Iterator<Integer>> sources;
 
     @Setup(Level.Trial)
     public void generateTestData() {
         generator = new TestDataGenerator();
-        testData = generator.generate(k, n, "uniform", "random");
+        testData = generator.toArrays(generator.generate(k, n, "uniform", "random"));
+        intData = new int[k][];
+        for (int i = 0; i < k; i++) {
+            intData[i] = Arrays.stream(testData[i]).mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void prepareSources() {
+        sources = generator.toCursors(testData);
     }
 
     @Benchmark
-    public int linearScan(Blackhole bh) {
-        List<Iterator<Integer>> iterators = generator.toIterators(testData);
-        LinearScanIterator<Integer> merged = new LinearScanIterator<>(iterators);
+    public int linearScan(Blackhole bh, ElementCounter counter) {
+        return drain(new LinearScanIterator<>(sources), bh, counter);
+    }
 
-        int count = 0;
-        while (merged.hasNext()) {
-            bh.consume(merged.next());
-            count++;
-        }
-        return count;
+    @Benchmark
+    public int heapBased(Blackhole bh, ElementCounter counter) {
+        return drain(new HeapBasedIterator<>(sources), bh, counter);
     }
 
     @Benchmark
-    public int heapBased(Blackhole bh) {
-        List<Iterator<Integer>> iterators = generator.toIterators(testData);
-        HeapBasedIterator<Integer> merged = new HeapBasedIterator<>(iterators);
+    public int loserTree(Blackhole bh, ElementCounter counter) {
+        return drain(new LoserTreeIterator<>(sources), bh, counter);
+    }
 
+    @Benchmark
+    public int blockMergeTree(Blackhole bh, ElementCounter counter) {
+        return drain(new BlockMergeTree<>(sources), bh, counter);
+    }
+
+    @Benchmark
+    public int intArray(Blackhole bh, ElementCounter counter) {
+        return drain(new IntArrayLoserTree(intData), bh, counter);
+    }
+
+    @Benchmark
+    public int intBlockMergeTree(Blackhole bh, ElementCounter counter) {
+        return drain(new IntBlockMergeTree(intData), bh, counter);
+    }
+
+    private static int drain(Iterator<Integer> merged, Blackhole bh, ElementCounter counter) {
         int count = 0;
         while (merged.hasNext()) {
             bh.consume(merged.next());
             count++;
         }
+        counter.elements += count;
         return count;
     }
 
-    @Benchmark
-    public int loserTree(Blackhole bh) {
-        List<Iterator<Integer>> iterators = generator.toIterators(testData);
-        LoserTreeIterator<Integer> merged = new LoserTreeIterator<>(iterators);
-
+    private static int drain(PrimitiveIterator.OfInt merged, Blackhole bh, ElementCounter counter) {
         int count = 0;
         while (merged.hasNext()) {
-            bh.consume(merged.next());
+            bh.consume(merged.nextInt());
             count++;
         }
+        counter.elements += count;
         return count;
     }
 }
@@ -0,0 +1,106 @@
+package com.research.iterator;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Large-scale matrix: thousands of sources and up to 10^8 elements.
+ *
+ * Not part of the default `gradle jmh` run (hours, 4 GB heap); run it with
+ * `gradle jmhLargeScale`.
+ *
+ * Data is generated into primitive arrays (4 bytes/element), cached on disk
+ * under -Dtestdata.cache (default build/test-data) so later forks load it
+ * instead of regenerating, and read through zero-copy IntArrayCursor
+ * sources, so only in-flight heads are boxed. Two modes expose different costs:
+ * - fullMerge (SingleShotTime): one cold merge of all N elements including
+ *   construction, dominated by cache misses once k heads exceed cache
+ * - streaming (Throughput): elements/ms pulled from a long-lived merge,
+ *   isolating the per-element replay cost and its growth with tree depth
+ *
+ * LinearScanIterator is excluded: k comparisons per element makes a single
+ * merge at k=10,000, N=10^8 take hours.
+ */
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Thread)
+public class LargeScaleBenchmark {
+
+    private static final int BATCH = 4096;
+
+    @Param({"256", "1024", "4096", "10000"})
+    int k;
+
+    @Param({"1000000", "10000000", "100000000"})
+    int n;
+
+    @Param({"heapBased", "loserTree", "funnel"})
+    String engine;
+
+    @Param({"simultaneous"})
+    String exhaustion;  // Override with -p exhaustion=sequential,early,random
+
+    private TestDataGenerator generator;
+    private int[][] testData;
+    private Iterator<Integer> stream;
+
+    @Setup(Level.Trial)
+    public void generateTestData() {
+        generator = new TestDataGenerator();
+        testData = generator.generateArrays(k, n, "uniform", "random", exhaustion,
+            Paths.get(System.getProperty("testdata.cache", "build/test-data")));
+    }
+
+    @Setup(Level.Iteration)
+    public void startStream() {
+        stream = newMerge();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public int fullMerge(Blackhole bh) {
+        Iterator<Integer> merged = newMerge();
+        int count = 0;
+        while (merged.hasNext()) {
+            bh.consume(merged.next());
+            count++;
+        }
+        return count;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 2, time = 5, timeUnit = TimeUnit.SECONDS)
+    @Measurement(iterations = 3, time = 10, timeUnit = TimeUnit.SECONDS)
+    @OperationsPerInvocation(BATCH)
+    public void streaming(Blackhole bh) {
+        Iterator<Integer> merged = stream;
+        for (int i = 0; i < BATCH; i++) {
+            if (!merged.hasNext()) {
+                // Restart; construction is amortized over all N elements
+                merged = stream = newMerge();
+            }
+            bh.consume(merged.next());
+        }
+    }
+
+    private Iterator<Integer> newMerge() {
+        List<Iterator<Integer>> sources = generator.toCursors(testData);
+        switch (engine) {
+            case "heapBased":
+                return new HeapBasedIterator<>(sources);
+            case "loserTree":
+                return new LoserTreeIterator<>(sources);
+            case "funnel":
+                return new FunnelMergeIterator<>(sources);
+            default:
+                throw new IllegalArgumentException("Unknown engine: " + engine);
+        }
+    }
+}
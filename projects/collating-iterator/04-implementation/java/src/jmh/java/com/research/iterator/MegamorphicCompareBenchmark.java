@@ -0,0 +1,106 @@
+package com.research.iterator;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Integer, Long and String merges in one fork: shared vs per-type comparison sites.
+ *
+ * - loserTree: LoserTreeIterator; its compareTo site sees three receiver
+ *   types and goes megamorphic
+ * - specialized: SpecializedMerges; one LoserTreeKernel copy per element type,
+ *   each with a monomorphic compareTo site
+ *
+ * mixed merges all three types per invocation. integers merges Integers only,
+ * after the trial setup has already run every type through the same engine,
+ * which is what a long-lived service that merged other types earlier sees.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 2, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+@State(Scope.Thread)
+public class MegamorphicCompareBenchmark {
+
+    private static final int POLLUTION_ROUNDS = 200;
+
+    @Param({"16"})
+    int k;
+
+    @Param({"100000"})
+    int n;
+
+    @Param({"loserTree", "specialized"})
+    String engine;
+
+    private Integer[][] integers;
+    private Long[][] longs;
+    private String[][] strings;
+
+    @Setup(Level.Trial)
+    public void generateTestData() {
+        Random random = new Random(50);
+        integers = new Integer[k][];
+        longs = new Long[k][];
+        strings = new String[k][];
+        for (int i = 0; i < k; i++) {
+            int[] values = random.ints(n / k, 0, Integer.MAX_VALUE).sorted().toArray();
+            integers[i] = new Integer[values.length];
+            longs[i] = new Long[values.length];
+            strings[i] = new String[values.length];
+            for (int j = 0; j < values.length; j++) {
+                integers[i][j] = values[j];
+                longs[i][j] = values[j] + (1L << 40);
+                strings[i][j] = String.format("%010d", values[j]);
+            }
+        }
+
+        // Profile every type through the engine before anything is measured
+        Blackhole bh = new Blackhole(
+            "Today's password is swordfish. I understand instantiating Blackholes directly is dangerous.");
+        for (int round = 0; round < POLLUTION_ROUNDS; round++) {
+            mixed(bh);
+        }
+        bh.evaporate("Yes, I am Stephen Hawking, and know a thing or two about black holes.");
+    }
+
+    @Benchmark
+    public int mixed(Blackhole bh) {
+        return drain(merge(Long.class, longs), bh)
+            + drain(merge(String.class, strings), bh)
+            + drain(merge(Integer.class, integers), bh);
+    }
+
+    @Benchmark
+    public int integers(Blackhole bh) {
+        return drain(merge(Integer.class, integers), bh);
+    }
+
+    private <T extends Comparable<? super T>> Iterator<T> merge(Class<T> type, T[][] data) {
+        List<Iterator<T>> sources = new ArrayList<>(data.length);
+        for (T[] values : data) {
+            sources.add(new ArrayCursor<>(values));
+        }
+        switch (engine) {
+            case "loserTree":
+                return new LoserTreeIterator<>(sources);
+            case "specialized":
+                return SpecializedMerges.merge(type, sources);
+            default:
+                throw new IllegalArgumentException("Unknown engine: " + engine);
+        }
+    }
+
+    private static int drain(Iterator<?> merged, Blackhole bh) {
+        int count = 0;
+        while (merged.hasNext()) {
+            bh.consume(merged.next());
+            count++;
+        }
+        return count;
+    }
+}
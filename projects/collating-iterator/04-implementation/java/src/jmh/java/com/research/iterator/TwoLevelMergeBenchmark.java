@@ -0,0 +1,77 @@
+package com.research.iterator;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache-conscious and cache-oblivious merges vs the flat loser tree at k beyond cache capacity.
+ *
+ * - loserTree: LoserTreeIterator, log k cold tree levels per replay at large k
+ * - twoLevel: TwoLevelMergeIterator, groups of 64 sources drained in bursts of
+ *   256 elements, merged by a top tree over k / 64 buffers
+ * - funnel: FunnelMergeIterator, the untuned cache-oblivious alternative
+ *
+ * Streaming throughput (elements/us) from a long-lived merge, as in
+ * LargeScaleBenchmark: construction is amortized over all N elements. Data is
+ * uniform random in int arrays read through IntArrayCursor, so only the
+ * in-flight heads are boxed.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 2, timeUnit = TimeUnit.SECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Thread)
+public class TwoLevelMergeBenchmark {
+
+    private static final int BATCH = 4096;
+
+    @Param({"1024", "4096", "16384"})
+    int k;
+
+    @Param({"4000000"})
+    int n;
+
+    @Param({"loserTree", "twoLevel", "funnel"})
+    String engine;
+
+    private TestDataGenerator generator;
+    private int[][] testData;
+    private Iterator<Integer> stream;
+
+    @Setup(Level.Trial)
+    public void generateTestData() {
+        generator = new TestDataGenerator();
+        testData = generator.generateArrays(k, n, "uniform", "random");
+        stream = newMerge();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void streaming(Blackhole bh) {
+        Iterator<Integer> merged = stream;
+        for (int i = 0; i < BATCH; i++) {
+            if (!merged.hasNext()) {
+                merged = stream = newMerge();
+            }
+            bh.consume(merged.next());
+        }
+    }
+
+    private Iterator<Integer> newMerge() {
+        List<Iterator<Integer>> sources = generator.toCursors(testData);
+        switch (engine) {
+            case "loserTree":
+                return new LoserTreeIterator<>(sources);
+            case "twoLevel":
+                return new TwoLevelMergeIterator<>(sources);
+            case "funnel":
+                return new FunnelMergeIterator<>(sources);
+            default:
+                throw new IllegalArgumentException("Unknown engine: " + engine);
+        }
+    }
+}
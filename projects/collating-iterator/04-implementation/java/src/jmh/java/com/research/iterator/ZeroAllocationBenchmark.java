@@ -0,0 +1,215 @@
+package com.research.iterator;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.runner.IterationType;
+
+import java.lang.management.ManagementFactory;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Steady-state zero-allocation check for engines that should not allocate per element.
+ *
+ * Runs in a fork with Epsilon GC (no collection), so any per-element
+ * allocation exhausts the 1 GB heap within a few iterations and fails the
+ * run. Each iteration also measures the benchmark thread's allocated bytes
+ * and fails with a readable message above {@link #MAX_BYTES_PER_ELEMENT};
+ * only per-merge construction (O(k) objects) is allowed. The per-iteration
+ * check skips warmup, where not-yet-compiled code may still allocate.
+ *
+ * HeapBasedIterator is excluded: it allocates one Entry per element by design.
+ * Record merges (key/value cursors, flyweight holders) and the cursor-based
+ * array engines (int[], long[] unboxed; Integer[] via RandomAccessLoserTree)
+ * are checked alongside the Iterator engines.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(value = 1, jvmArgsAppend = {
+    "-XX:+UnlockExperimentalVMOptions", "-XX:+UseEpsilonGC", "-Xms1g", "-Xmx1g"
+})
+@State(Scope.Thread)
+public class ZeroAllocationBenchmark {
+
+    private static final double MAX_BYTES_PER_ELEMENT = 0.5;
+    private static final Comparator<IntRecord> BY_KEY = Comparator.comparingInt(r -> r.key);
+
+    @Param({"8", "64"})
+    int k;
+
+    @Param({"1000000"})
+    int n;
+
+    private Integer[][] testData;
+    private int[][] intData;
+    private long[][] longData;
+    private TestDataGenerator generator;
+    private List<Iterator<Integer>> sources;
+
+    private com.sun.management.ThreadMXBean threads;
+    private long startBytes;
+    private long elements;
+
+    @Setup(Level.Trial)
+    public void generateTestData() {
+        generator = new TestDataGenerator();
+        testData = generator.toArrays(generator.generate(k, n, "uniform", "random"));
+        intData = new int[k][];
+        longData = new long[k][];
+        for (int i = 0; i < k; i++) {
+            intData[i] = Arrays.stream(testData[i]).mapToInt(Integer::intValue).toArray();
+            longData[i] = Arrays.stream(testData[i]).mapToLong(Integer::longValue).toArray();
+        }
+        threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    }
+
+    @Setup(Level.Iteration)
+    public void startIteration() {
+        elements = 0;
+        startBytes = threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    @Setup(Level.Invocation)
+    public void prepareSources() {
+        sources = generator.toCursors(testData);
+    }
+
+    @TearDown(Level.Iteration)
+    public void checkAllocation(IterationParams iteration) {
+        if (iteration.getType() != IterationType.MEASUREMENT) {
+            return;  // Interpreter and C1 code may still allocate during warmup
+        }
+        long allocated = threads.getThreadAllocatedBytes(Thread.currentThread().getId()) - startBytes;
+        double perElement = (double) allocated / Math.max(1, elements);
+        if (perElement > MAX_BYTES_PER_ELEMENT) {
+            throw new IllegalStateException(String.format(
+                "Allocated %.2f bytes/element (%,d bytes for %,d elements), limit %.2f",
+                perElement, allocated, elements, MAX_BYTES_PER_ELEMENT));
+        }
+    }
+
+    @Benchmark
+    public int linearScan(Blackhole bh) {
+        return drain(new LinearScanIterator<>(sources), bh);
+    }
+
+    @Benchmark
+    public int loserTree(Blackhole bh) {
+        return drain(new LoserTreeIterator<>(sources), bh);
+    }
+
+    @Benchmark
+    public int randomAccessLoserTree(Blackhole bh) {
+        return drain(Merges.merge(testData), bh);
+    }
+
+    @Benchmark
+    public int intArrayLoserTree(Blackhole bh) {
+        PrimitiveIterator.OfInt merged = Merges.merge(intData);
+        int count = 0;
+        while (merged.hasNext()) {
+            bh.consume(merged.nextInt());
+            count++;
+        }
+        elements += count;
+        return count;
+    }
+
+    @Benchmark
+    public int longArrayLoserTree(Blackhole bh) {
+        PrimitiveIterator.OfLong merged = Merges.merge(longData);
+        int count = 0;
+        while (merged.hasNext()) {
+            bh.consume(merged.nextLong());
+            count++;
+        }
+        elements += count;
+        return count;
+    }
+
+    @Benchmark
+    public int keyValueLoserTree(Blackhole bh) {
+        // Each source's values are its keys; only the cursors are per-merge objects
+        List<KeyValueCursor<Integer, Integer>> cursors = new ArrayList<>(k);
+        for (Integer[] source : testData) {
+            cursors.add(KeyValueCursor.of(source, source));
+        }
+        KeyValueLoserTree<Integer, Integer> merged = new KeyValueLoserTree<>(cursors);
+        int count = 0;
+        while (merged.advance()) {
+            bh.consume(merged.key());
+            bh.consume(merged.value());
+            count++;
+        }
+        elements += count;
+        return count;
+    }
+
+    @Benchmark
+    public int flyweightLoserTree(Blackhole bh) {
+        List<IntRecordSource> records = new ArrayList<>(k);
+        for (Integer[] source : testData) {
+            records.add(new IntRecordSource(source));
+        }
+        FlyweightLoserTreeIterator<IntRecord> merged = new FlyweightLoserTreeIterator<>(records, BY_KEY);
+        int count = 0;
+        while (merged.hasNext()) {
+            IntRecord record = merged.next();
+            bh.consume(record.key);
+            bh.consume(record.position);
+            count++;
+        }
+        elements += count;
+        return count;
+    }
+
+    private int drain(Iterator<Integer> merged, Blackhole bh) {
+        int count = 0;
+        while (merged.hasNext()) {
+            bh.consume(merged.next());
+            count++;
+        }
+        elements += count;
+        return count;
+    }
+
+    /**
+     * Structured record filled in place by its source.
+     */
+    static final class IntRecord {
+        int key;
+        int position;
+    }
+
+    /**
+     * Record source over one source's values, reusing a single holder.
+     */
+    static final class IntRecordSource implements RecordSource<IntRecord> {
+        private final Integer[] values;
+        private final IntRecord holder = new IntRecord();
+        private int position = -1;
+
+        IntRecordSource(Integer[] values) {
+            this.values = values;
+        }
+
+        @Override
+        public boolean advance() {
+            if (position + 1 >= values.length) {
+                return false;
+            }
+            position++;
+            holder.key = values[position];
+            holder.position = position;
+            return true;
+        }
+
+        @Override
+        public IntRecord holder() {
+            return holder;
+        }
+    }
+}
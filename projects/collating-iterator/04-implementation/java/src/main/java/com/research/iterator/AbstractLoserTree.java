@@ -0,0 +1,120 @@
+package com.research.iterator;
+
+import java.util.*;
+
+/**
+ * Flat loser tree over source indices, shared by the loser-tree engines.
+ *
+ * <p>Layout: {@code tree[1..k-1]} holds the source index of the loser at each
+ * internal node. Source i is the implicit leaf k + i, and node n's parent is
+ * n / 2, so a replay walks from leaf to root without touching any node objects.
+ *
+ * <p>The tree never sees an element. Engines own their heads (boxed, primitive,
+ * off-heap, in a buffer) and order two sources through {@link #beats(int, int)};
+ * this class only builds the tournament and replays paths. Engines override
+ * {@code beats} as a final method and call {@link #replay(int)} from their own
+ * next(), so once the JIT inlines the replay there the receiver's class is
+ * exact and the comparison is a direct call per engine, not one call site
+ * shared by all of them.
+ *
+ * <p>{@link LoserTreeKernel} is the one engine that keeps its own copy of this
+ * code: its per-type copies are defined in another runtime package and cannot
+ * extend a package-private class.
+ */
+abstract class AbstractLoserTree {
+
+    final int[] tree;              // tree[n] = source index of the loser at node n (n >= 1)
+    final int k;                   // Number of sources (leaves)
+    final MergeMetrics metrics;
+    int winnerIndex;               // Overall winner
+
+    AbstractLoserTree(int k, MergeMetrics metrics) {
+        this.metrics = Objects.requireNonNull(metrics, "metrics must not be null");
+        this.k = k;
+        // Internal nodes 1..k-1 store losers (index 0 unused)
+        this.tree = new int[k];
+    }
+
+    /**
+     * Validates an engine's source list and returns its size, for the super call.
+     *
+     * @param name parameter name used in exception messages
+     * @throws IllegalArgumentException if sources is empty or contains nulls
+     */
+    static int checkSources(List<?> sources, String name) {
+        Objects.requireNonNull(sources, name + " must not be null");
+        if (sources.isEmpty()) {
+            throw new IllegalArgumentException(name + " must not be empty");
+        }
+        if (sources.contains(null)) {
+            throw new IllegalArgumentException(name + " must not contain null");
+        }
+        return sources.size();
+    }
+
+    /**
+     * Builds the initial loser tournament in place, in O(k) comparisons, once
+     * every source's first head is loaded.
+     *
+     * Algorithm:
+     * 1. Bottom-up (node k-1 down to 1): store the winner of each subtree in tree[node]
+     * 2. Top-down (node 1 up to k-1): replace each subtree winner by the loser of
+     *    the match at that node, i.e. the child winner that is not the node's winner.
+     *    Children are visited after their parent, so their winners are still intact.
+     * 3. The winner of node 1 is the overall winner (source 0 when k == 1)
+     */
+    final void buildTree() {
+        for (int node = k - 1; node >= 1; node--) {
+            int left = subtreeWinner(2 * node);
+            int right = subtreeWinner(2 * node + 1);
+            tree[node] = beats(right, left) ? right : left;
+        }
+
+        winnerIndex = k == 1 ? 0 : tree[1];
+
+        for (int node = 1; node < k; node++) {
+            int left = subtreeWinner(2 * node);
+            int right = subtreeWinner(2 * node + 1);
+            tree[node] = (tree[node] == left) ? right : left;
+        }
+    }
+
+    /**
+     * During build: the winner of the subtree rooted at node (a leaf if node >= k).
+     */
+    private int subtreeWinner(int node) {
+        return node >= k ? node - k : tree[node];
+    }
+
+    /**
+     * Replays the path from a source's leaf to the root after its head changed,
+     * and returns the new overall winner.
+     *
+     * Loser tree advantage: the candidate is only compared against the losers
+     * on its path; no sibling access is required. At each node, if the stored
+     * loser wins, the two swap: the loser advances and the candidate stays.
+     * The candidate that leaves the root becomes the new winner.
+     */
+    final int replay(int source) {
+        int candidate = source;
+        metrics.onReplay();
+
+        for (int node = (k + candidate) >>> 1; node >= 1; node >>>= 1) {
+            int loser = tree[node];
+            if (beats(loser, candidate)) {
+                tree[node] = candidate;
+                candidate = loser;
+            }
+        }
+
+        winnerIndex = candidate;
+        return candidate;
+    }
+
+    /**
+     * Returns true if source a's head is strictly smaller than source b's.
+     * Exhausted sources must lose to everything. Implementations report the
+     * comparison to {@link #metrics}.
+     */
+    abstract boolean beats(int a, int b);
+}
@@ -0,0 +1,51 @@
+package com.research.iterator;
+
+import java.util.*;
+
+/**
+ * Zero-copy iterator over a slice of an array.
+ *
+ * <p>Lets benchmarks and callers hand pre-built arrays to the merge engines
+ * without copying them into collections: creating a cursor allocates one
+ * small object regardless of the slice length.
+ *
+ * @param <T> element type
+ */
+public class ArrayCursor<T> implements Iterator<T> {
+
+    private final T[] values;
+    private final int end;
+    private int position;
+
+    /**
+     * Creates a cursor over the whole array.
+     */
+    public ArrayCursor(T[] values) {
+        this(values, 0, values.length);
+    }
+
+    /**
+     * Creates a cursor over values[from, to).
+     *
+     * @throws IndexOutOfBoundsException if the range is outside the array
+     */
+    public ArrayCursor(T[] values, int from, int to) {
+        Objects.checkFromToIndex(from, to, values.length);
+        this.values = values;
+        this.position = from;
+        this.end = to;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return position < end;
+    }
+
+    @Override
+    public T next() {
+        if (position >= end) {
+            throw new NoSuchElementException("Cursor exhausted");
+        }
+        return values[position++];
+    }
+}
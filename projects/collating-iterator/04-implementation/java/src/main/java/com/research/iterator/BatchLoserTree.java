@@ -0,0 +1,126 @@
+package com.research.iterator;
+
+import java.util.*;
+
+/**
+ * BatchLoserTree merges k sorted {@link BatchSource}s, refilling a local
+ * buffer per source in chunks instead of calling the source per element.
+ *
+ * <p>Same flat-array tournament as {@link LoserTreeIterator}, but each leaf is
+ * a buffer of batchSize elements read in place through an integer cursor:
+ * - a refill is one {@link BatchSource#fill(Object[])} call per batchSize (B)
+ *   elements, so a merge of N elements makes about N / B fill calls in total
+ *   (plus one per source to see it exhausted) rather than 2N
+ * - between refills, advancing a source is an index increment and exhaustion
+ *   an index comparison
+ * - plain iterators are accepted through {@link BatchSource#of(Iterator)}
+ *
+ * <p>Each source is read up to batchSize elements ahead of consumption.
+ *
+ * <p>Complexity: O(N log k) time, O(k * batchSize) space
+ *
+ * @param <T> element type, must be Comparable
+ */
+public class BatchLoserTree<T extends Comparable<? super T>> extends CursorLoserTree implements Iterator<T> {
+
+    private static final String ENGINE = "BatchLoserTree";
+
+    private final BatchSource<? extends T>[] sources;
+    private final Object[][] buffers;   // buffers[i] = source i's unconsumed chunk, read in place
+
+    /**
+     * Constructs a BatchLoserTree with the default batch size.
+     *
+     * @param sources sorted batch sources (must not be null or contain nulls)
+     * @throws IllegalArgumentException if sources is empty or contains nulls
+     */
+    public BatchLoserTree(List<? extends BatchSource<? extends T>> sources) {
+        this(sources, BatchSource.DEFAULT_BATCH_SIZE, MergeMetrics.NONE);
+    }
+
+    /**
+     * Constructs an instrumented BatchLoserTree.
+     *
+     * <p>Pulls are reported as elements leave a source's buffer, not when it is filled.
+     *
+     * @param sources sorted batch sources (must not be null or contain nulls)
+     * @param batchSize elements per source buffer
+     * @param metrics instrumentation hook (use {@link MergeMetrics#NONE} to disable)
+     * @throws IllegalArgumentException if sources is empty or contains nulls,
+     *         or batchSize is not positive
+     */
+    @SuppressWarnings("unchecked")
+    public BatchLoserTree(List<? extends BatchSource<? extends T>> sources, int batchSize, MergeMetrics metrics) {
+        super(ENGINE, checkSources(sources, "sources"), metrics);
+        long start = System.nanoTime();
+        MergeBuildEvent build = MergeEvents.beginBuild();
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+        }
+
+        this.sources = sources.toArray(new BatchSource[0]);
+        this.buffers = new Object[k][batchSize];
+
+        start();
+
+        MergeEvents.endBuild(build, ENGINE, k);
+        metrics.onBuild(k, System.nanoTime() - start);
+    }
+
+    @Override
+    public boolean hasNext() {
+        // Winner is exhausted only when every source is
+        return !isExhausted(winnerIndex);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("Iterator exhausted");
+        }
+        int candidate = winnerIndex;
+        Object[] buffer = buffers[candidate];
+        T result = (T) buffer[positions[candidate]];
+        buffer[positions[candidate]] = null;
+        pull(candidate);
+        replay(candidate);
+        return result;
+    }
+
+    /**
+     * Returns true if source a's head is strictly smaller than source b's.
+     * Exhausted sources lose to everything.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    final boolean beats(int a, int b) {
+        metrics.onComparison();
+        if (isExhausted(a)) return false;
+        if (isExhausted(b)) return true;
+        return ((T) buffers[a][positions[a]]).compareTo((T) buffers[b][positions[b]]) < 0;
+    }
+
+    /**
+     * Refills a source's buffer with one call.
+     */
+    @Override
+    final int fill(int source) {
+        SourceStallEvent fetch = MergeEvents.beginFetch();
+        int n = sources[source].fill(buffers[source]);
+        MergeEvents.endFetch(fetch, ENGINE, source);
+        return n;
+    }
+
+    /**
+     * Heads are read from the buffers in place; nothing to cache.
+     */
+    @Override
+    final void load(int source, int position) {
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException("remove() not supported");
+    }
+}
@@ -0,0 +1,104 @@
+package com.research.iterator;
+
+import java.util.*;
+
+/**
+ * Sorted source that delivers elements in chunks, for {@link BatchLoserTree}.
+ *
+ * <p>An engine keeps one local buffer per source and refills it with a single
+ * {@link #fill(Object[])} call, so a merge of N elements makes about N / B
+ * interface calls per source instead of 2N {@code hasNext()}/{@code next()}
+ * calls. Primitive sources ({@link OfInt}, {@link OfLong}) fill int and long
+ * buffers and are consumed unboxed by {@link IntArrayLoserTree} and
+ * {@link LongArrayLoserTree}.
+ *
+ * <p>Contract for every fill method: write elements in ascending order from
+ * index 0 and return how many were written. Return 0 only once the source is
+ * exhausted; 0 is final.
+ *
+ * <p>The buffer is an {@code Object[]} owned by the engine, not a {@code T[]}:
+ * an implementation typed on {@code T[]} would fail its bridge-method cast on
+ * the engine's buffer.
+ *
+ * @param <T> element type
+ */
+public interface BatchSource<T> {
+
+    /** Buffer length engines use when none is given. */
+    int DEFAULT_BATCH_SIZE = 256;
+
+    /**
+     * Writes up to buffer.length elements of type T into buffer, from index 0.
+     *
+     * @return the number written, 0 once the source is exhausted
+     */
+    int fill(Object[] buffer);
+
+    /**
+     * Adapts an iterator, one hasNext()/next() pair per element inside the adapter.
+     */
+    static <T> BatchSource<T> of(Iterator<? extends T> iterator) {
+        Objects.requireNonNull(iterator, "iterator must not be null");
+        return buffer -> {
+            int n = 0;
+            while (n < buffer.length && iterator.hasNext()) {
+                buffer[n++] = iterator.next();
+            }
+            return n;
+        };
+    }
+
+    /**
+     * Sorted source of int chunks.
+     */
+    interface OfInt {
+
+        /**
+         * Writes up to buffer.length ints into buffer, from index 0.
+         *
+         * @return the number written, 0 once the source is exhausted
+         */
+        int fill(int[] buffer);
+
+        /**
+         * Adapts a primitive iterator without boxing.
+         */
+        static OfInt of(PrimitiveIterator.OfInt iterator) {
+            Objects.requireNonNull(iterator, "iterator must not be null");
+            return buffer -> {
+                int n = 0;
+                while (n < buffer.length && iterator.hasNext()) {
+                    buffer[n++] = iterator.nextInt();
+                }
+                return n;
+            };
+        }
+    }
+
+    /**
+     * Sorted source of long chunks.
+     */
+    interface OfLong {
+
+        /**
+         * Writes up to buffer.length longs into buffer, from index 0.
+         *
+         * @return the number written, 0 once the source is exhausted
+         */
+        int fill(long[] buffer);
+
+        /**
+         * Adapts a primitive iterator without boxing.
+         */
+        static OfLong of(PrimitiveIterator.OfLong iterator) {
+            Objects.requireNonNull(iterator, "iterator must not be null");
+            return buffer -> {
+                int n = 0;
+                while (n < buffer.length && iterator.hasNext()) {
+                    buffer[n++] = iterator.nextLong();
+                }
+                return n;
+            };
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.research.iterator;
+
+import java.nio.ByteBuffer;
+import java.util.*;
+
+/**
+ * Sorted source of variable-length binary keys for {@link ByteKeyLoserTree}.
+ *
+ * <p>A cursor that exposes each key as an (array, offset, length) view, so
+ * SSTable-style blocks can be merged without copying keys out or wrapping them
+ * in Comparable objects. The view returned after {@link #advance()} must stay
+ * unchanged until the next {@code advance()} call. Keys must be produced in
+ * ascending unsigned lexicographic order.
+ */
+public interface ByteKeySource {
+
+    /**
+     * Moves to the next key.
+     *
+     * @return true if a key is available, false if the source is exhausted
+     */
+    boolean advance();
+
+    /**
+     * Returns the array holding the current key.
+     */
+    byte[] array();
+
+    /**
+     * Returns the start of the current key within {@link #array()}.
+     */
+    int offset();
+
+    /**
+     * Returns the length of the current key in bytes.
+     */
+    int length();
+
+    /**
+     * Adapts an iterator of whole-array keys.
+     *
+     * @throws NullPointerException from {@code advance()} if the iterator yields a null key
+     */
+    static ByteKeySource ofArrays(Iterator<byte[]> keys) {
+        Objects.requireNonNull(keys, "keys must not be null");
+        return new ByteKeySource() {
+            private byte[] current;
+
+            @Override
+            public boolean advance() {
+                if (!keys.hasNext()) {
+                    current = null;
+                    return false;
+                }
+                current = Objects.requireNonNull(keys.next(), "keys must not contain null");
+                return true;
+            }
+
+            @Override
+            public byte[] array() {
+                return current;
+            }
+
+            @Override
+            public int offset() {
+                return 0;
+            }
+
+            @Override
+            public int length() {
+                return current.length;
+            }
+        };
+    }
+
+    /**
+     * Views keys packed back to back in one block, SSTable style: key i spans
+     * {@code block[ends[i - 1], ends[i])}, with the first key starting at 0.
+     * No key is copied.
+     *
+     * @param block the packed keys
+     * @param ends exclusive end offset of each key, non-decreasing
+     */
+    static ByteKeySource ofSlices(byte[] block, int[] ends) {
+        Objects.requireNonNull(block, "block must not be null");
+        Objects.requireNonNull(ends, "ends must not be null");
+        return new ByteKeySource() {
+            private int index = -1;
+
+            @Override
+            public boolean advance() {
+                if (index + 1 >= ends.length) {
+                    index = ends.length;
+                    return false;
+                }
+                index++;
+                return true;
+            }
+
+            @Override
+            public byte[] array() {
+                return block;
+            }
+
+            @Override
+            public int offset() {
+                return index == 0 ? 0 : ends[index - 1];
+            }
+
+            @Override
+            public int length() {
+                return ends[index] - offset();
+            }
+        };
+    }
+
+    /**
+     * Adapts an iterator of ByteBuffer slices; each key is the buffer's
+     * remaining bytes.
+     *
+     * <p>Heap buffers are viewed in place through their backing array. Direct
+     * and read-only buffers have no accessible array, so their bytes are copied
+     * into a reusable scratch array (one copy, no allocation once it has grown
+     * to the longest key).
+     */
+    static ByteKeySource ofBuffers(Iterator<ByteBuffer> keys) {
+        Objects.requireNonNull(keys, "keys must not be null");
+        return new ByteKeySource() {
+            private byte[] array;
+            private int offset;
+            private int length;
+            private byte[] scratch = new byte[0];
+
+            @Override
+            public boolean advance() {
+                if (!keys.hasNext()) {
+                    array = null;
+                    return false;
+                }
+                ByteBuffer key = keys.next();
+                length = key.remaining();
+                if (key.hasArray()) {
+                    array = key.array();
+                    offset = key.arrayOffset() + key.position();
+                } else {
+                    if (scratch.length < length) {
+                        scratch = new byte[Math.max(length, scratch.length * 2)];
+                    }
+                    int position = key.position();
+                    key.get(scratch, 0, length);
+                    key.position(position);
+                    array = scratch;
+                    offset = 0;
+                }
+                return true;
+            }
+
+            @Override
+            public byte[] array() {
+                return array;
+            }
+
+            @Override
+            public int offset() {
+                return offset;
+            }
+
+            @Override
+            public int length() {
+                return length;
+            }
+        };
+    }
+}
@@ -0,0 +1,182 @@
+package com.research.iterator;
+
+import java.util.*;
+
+/**
+ * CheckpointableMerge is a loser-tree merge whose position can be snapshotted
+ * and restored, so a long-running merge of many run files survives a restart.
+ *
+ * <p>Same tournament as {@link LoserTreeIterator}, on the same shared kernel;
+ * the only addition is a side array: alongside each pending head it keeps the
+ * position its {@link SeekableSource} reported before the head was read. {@link #checkpoint()} copies those k positions
+ * (O(k), no I/O, no element serialization), which is cheap enough to take every
+ * few seconds. Restoring seeks every source to its head's position and
+ * rebuilds the tree in O(k): the merge resumes with exactly the element that
+ * followed the checkpoint, so at most the work since the last checkpoint is
+ * redone.
+ *
+ * <p>Complexity: O(N log k) time, O(k) space
+ *
+ * @param <T> element type, must be Comparable
+ */
+public class CheckpointableMerge<T extends Comparable<? super T>> extends AbstractLoserTree implements Iterator<T> {
+
+    private static final String ENGINE = "CheckpointableLoserTree";
+
+    private final List<SeekableSource<T>> sources;
+    private final T[] heads;            // Current element per source (null = exhausted)
+    private final long[] positions;     // positions[i] = position of heads[i] in source i (-1 = exhausted)
+    private long emitted;
+    private int pendingPulls;
+
+    /**
+     * Starts a merge from the sources' current positions.
+     *
+     * @param sources list of sorted seekable sources (must not be null or contain nulls)
+     * @throws IllegalArgumentException if sources is empty or contains nulls
+     */
+    public CheckpointableMerge(List<? extends SeekableSource<T>> sources) {
+        this(sources, null, MergeMetrics.NONE);
+    }
+
+    /**
+     * Resumes a merge from a checkpoint.
+     *
+     * @param sources the same sources, in the same order, as when the checkpoint was taken
+     * @param checkpoint checkpoint to resume from
+     * @throws IllegalArgumentException if sources is empty or contains nulls, or the
+     *         checkpoint was taken over a different number of sources
+     */
+    public CheckpointableMerge(List<? extends SeekableSource<T>> sources, MergeCheckpoint checkpoint) {
+        this(sources, Objects.requireNonNull(checkpoint, "checkpoint must not be null"), MergeMetrics.NONE);
+    }
+
+    /**
+     * Constructs an instrumented merge, resuming from a checkpoint if one is given.
+     *
+     * @param sources list of sorted seekable sources (must not be null or contain nulls)
+     * @param checkpoint checkpoint to resume from, or null to start at the sources' current positions
+     * @param metrics instrumentation hook (use {@link MergeMetrics#NONE} to disable)
+     * @throws IllegalArgumentException if sources is empty or contains nulls, or the
+     *         checkpoint was taken over a different number of sources
+     */
+    @SuppressWarnings("unchecked")
+    public CheckpointableMerge(List<? extends SeekableSource<T>> sources, MergeCheckpoint checkpoint,
+                               MergeMetrics metrics) {
+        super(checkSources(sources, "sources"), metrics);
+        long start = System.nanoTime();
+        MergeBuildEvent build = MergeEvents.beginBuild();
+        if (checkpoint != null && checkpoint.sources() != sources.size()) {
+            throw new IllegalArgumentException(
+                "checkpoint has " + checkpoint.sources() + " sources, merge has " + sources.size());
+        }
+
+        this.sources = new ArrayList<>(sources);
+        this.heads = (T[]) new Comparable[k];
+        this.positions = new long[k];
+
+        for (int i = 0; i < k; i++) {
+            if (checkpoint == null) {
+                pull(i);
+            } else if (checkpoint.position(i) < 0) {
+                // Exhausted at the checkpoint: leave it exhausted without reading
+                positions[i] = -1;
+            } else {
+                this.sources.get(i).seek(checkpoint.position(i));
+                pull(i);
+            }
+        }
+        this.emitted = checkpoint == null ? 0 : checkpoint.emitted();
+        buildTree();
+
+        MergeEvents.endBuild(build, ENGINE, k);
+        metrics.onBuild(k, System.nanoTime() - start);
+    }
+
+    /**
+     * Snapshots the merge position: every source's pending-head position and
+     * the number of elements emitted so far. O(k); touches no source.
+     */
+    public MergeCheckpoint checkpoint() {
+        return new MergeCheckpoint(emitted, positions.clone());
+    }
+
+    /**
+     * Returns the number of elements emitted, counting those emitted before
+     * the checkpoint this merge resumed from.
+     */
+    public long emitted() {
+        return emitted;
+    }
+
+    @Override
+    public boolean hasNext() {
+        // Winner is exhausted only when every source is
+        return heads[winnerIndex] != null;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("Iterator exhausted");
+        }
+        T result = heads[winnerIndex];
+        emitted++;
+        refill();
+        return result;
+    }
+
+    /**
+     * Advances the winner's source and replays its leaf-to-root path.
+     */
+    private void refill() {
+        int candidate = winnerIndex;
+        pull(candidate);
+        replay(candidate);
+    }
+
+    /**
+     * Returns true if source a's head is strictly smaller than source b's.
+     * Exhausted sources lose to everything.
+     */
+    @Override
+    final boolean beats(int a, int b) {
+        metrics.onComparison();
+        T x = heads[a];
+        T y = heads[b];
+        if (x == null) return false;
+        if (y == null) return true;
+        return x.compareTo(y) < 0;
+    }
+
+    /**
+     * Reads a source's next element into its head, recording the position it was read from.
+     */
+    private void pull(int source) {
+        SeekableSource<T> s = sources.get(source);
+        SourceStallEvent fetch = MergeEvents.beginFetch();
+        long position = s.position();
+        if (s.hasNext()) {
+            heads[source] = s.next();
+            positions[source] = position;
+            MergeEvents.endFetch(fetch, ENGINE, source);
+            metrics.onPull(source);
+            if (++pendingPulls == MergeEvents.PULL_BATCH) {
+                MergeEvents.pulled(pendingPulls);
+                pendingPulls = 0;
+            }
+        } else {
+            heads[source] = null;
+            positions[source] = -1;
+            MergeEvents.endFetch(fetch, ENGINE, source);
+            MergeEvents.exhausted(ENGINE, source, pendingPulls);
+            pendingPulls = 0;
+            metrics.onExhausted(source);
+        }
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException("remove() not supported");
+    }
+}
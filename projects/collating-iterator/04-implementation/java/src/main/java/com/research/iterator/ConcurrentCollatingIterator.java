@@ -0,0 +1,244 @@
+package com.research.iterator;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * ConcurrentCollatingIterator lets several threads drain one globally ordered
+ * merge, in sequence-numbered batches.
+ *
+ * <p>Wrapping an engine in {@code synchronized} makes every element pay for a
+ * contended lock. Here consumers pay one {@code getAndIncrement} per batch:
+ * - {@link #nextBatch()} claims the next sequence number from an atomic counter
+ * - batch s is published in ring slot s % capacity; the claimant takes it
+ *   and frees the slot
+ * - the wrapped merge stays single-writer: a claimant whose batch is not yet
+ *   produced tries to become the producer (one CAS) and fills batches in
+ *   order, its own and any free slots ahead, while other claimants back off
+ *
+ * <p>No background thread is involved; the producer role moves between
+ * consumers. The merge is only touched by the current producer, and the
+ * producer flag's acquire/release orders its state between them.
+ *
+ * <p>Batch s holds merged elements [s * batchSize, s * batchSize + size()):
+ * every batch but the last is full. Elements are ordered within a batch and
+ * across sequence numbers; consumers that need global order downstream can
+ * reorder batches by {@link Batch#sequence()}.
+ *
+ * @param <T> element type
+ */
+public class ConcurrentCollatingIterator<T> {
+
+    private static final int DEFAULT_CAPACITY = 64;
+    private static final int SPINS_BEFORE_YIELD = 64;
+    private static final int SPINS_BEFORE_PARK = 128;
+    private static final long PARK_NANOS = 20_000;
+
+    private final Iterator<T> merge;
+    private final int batchSize;
+    private final int capacity;
+    private final AtomicLong claimed = new AtomicLong();            // Next sequence to hand out
+    private final AtomicReferenceArray<Batch<T>> slots;             // Published, not yet taken
+    private final AtomicBoolean producing = new AtomicBoolean();    // Producer role
+    private long produced;                                          // Next sequence to produce (producer only)
+    private volatile long end = Long.MAX_VALUE;                     // Number of batches, once known
+    private volatile RuntimeException failure;
+
+    /**
+     * Wraps a merge for concurrent draining.
+     *
+     * @param merge single-threaded merge (e.g. a LoserTreeIterator); not to be used directly afterwards
+     * @param batchSize elements per batch
+     * @throws IllegalArgumentException if batchSize is not positive
+     */
+    public ConcurrentCollatingIterator(Iterator<T> merge, int batchSize) {
+        this(merge, batchSize, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Wraps a merge for concurrent draining.
+     *
+     * @param merge single-threaded merge (e.g. a LoserTreeIterator); not to be used directly afterwards
+     * @param batchSize elements per batch
+     * @param capacity batches that may be produced ahead of consumers
+     * @throws IllegalArgumentException if batchSize or capacity is not positive
+     */
+    public ConcurrentCollatingIterator(Iterator<T> merge, int batchSize, int capacity) {
+        Objects.requireNonNull(merge, "merge must not be null");
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+        }
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.merge = merge;
+        this.batchSize = batchSize;
+        this.capacity = capacity;
+        this.slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    /**
+     * Claims the next batch, waiting for it to be produced if necessary.
+     *
+     * <p>Safe to call from any number of threads.
+     *
+     * @return the next batch, or null once the merge is exhausted
+     * @throws IllegalStateException if the wrapped merge threw before producing this batch
+     */
+    public Batch<T> nextBatch() {
+        long sequence = claimed.getAndIncrement();
+        int slot = (int) (sequence % capacity);
+        int spins = 0;
+        while (true) {
+            Batch<T> batch = slots.get(slot);
+            if (batch != null && batch.sequence == sequence) {
+                slots.set(slot, null);
+                return batch;
+            }
+            if (sequence >= end) {
+                RuntimeException cause = failure;
+                if (cause != null) {
+                    throw new IllegalStateException("merge failed", cause);
+                }
+                return null;
+            }
+            boolean progress = false;
+            if (producing.compareAndSet(false, true)) {
+                try {
+                    progress = produce();
+                } finally {
+                    producing.set(false);
+                }
+            }
+            if (progress) {
+                spins = 0;
+            } else {
+                backOff(++spins);
+            }
+        }
+    }
+
+    /**
+     * Waits for the producer: spin briefly, then yield, then park, so a
+     * producer that was descheduled (more consumers than cores) gets to run.
+     */
+    private static void backOff(int spins) {
+        if (spins > SPINS_BEFORE_PARK) {
+            LockSupport.parkNanos(PARK_NANOS);
+        } else if (spins > SPINS_BEFORE_YIELD) {
+            Thread.yield();
+        } else {
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Producer role: fills batches in order into free slots, up to capacity
+     * ahead of the slowest claimant. Never waits: if the next slot still holds
+     * an untaken batch (its claimant may be descheduled), it gives up the role
+     * so the caller can back off.
+     *
+     * @return true if at least one batch was produced or the end was reached
+     */
+    private boolean produce() {
+        boolean progress = false;
+        while (produced < end) {
+            int slot = (int) (produced % capacity);
+            if (slots.get(slot) != null) {
+                return progress;
+            }
+            Batch<T> batch = fill(produced);
+            if (batch == null) {
+                end = produced;
+                return true;
+            }
+            slots.set(slot, batch);
+            produced++;
+            progress = true;
+        }
+        return progress;
+    }
+
+    /**
+     * Pulls up to batchSize elements from the merge, or returns null if it is
+     * exhausted. A merge failure ends the stream at this batch; claimants of
+     * this and later batches report it, while earlier batches stay valid.
+     */
+    private Batch<T> fill(long sequence) {
+        Object[] elements = new Object[batchSize];
+        int size = 0;
+        try {
+            while (size < batchSize && merge.hasNext()) {
+                elements[size++] = merge.next();
+            }
+        } catch (RuntimeException e) {
+            failure = e;
+            return null;
+        }
+        if (size == 0) {
+            return null;
+        }
+        return new Batch<>(sequence, sequence * batchSize, elements, size);
+    }
+
+    /**
+     * Returns the configured batch size.
+     */
+    public int batchSize() {
+        return batchSize;
+    }
+
+    /**
+     * An ordered run of merged elements handed to one consumer.
+     *
+     * @param <T> element type
+     */
+    public static final class Batch<T> {
+        private final long sequence;
+        private final long firstIndex;
+        private final Object[] elements;
+        private final int size;
+
+        Batch(long sequence, long firstIndex, Object[] elements, int size) {
+            this.sequence = sequence;
+            this.firstIndex = firstIndex;
+            this.elements = elements;
+            this.size = size;
+        }
+
+        /**
+         * Returns the batch's sequence number (0, 1, 2, ... in merge order).
+         */
+        public long sequence() {
+            return sequence;
+        }
+
+        /**
+         * Returns the position of this batch's first element in the merged output.
+         */
+        public long firstIndex() {
+            return firstIndex;
+        }
+
+        /**
+         * Returns the number of elements in the batch.
+         */
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Returns element i of the batch.
+         *
+         * @throws IndexOutOfBoundsException if i is not in [0, size())
+         */
+        @SuppressWarnings("unchecked")
+        public T get(int i) {
+            Objects.checkIndex(i, size);
+            return (T) elements[i];
+        }
+    }
+}
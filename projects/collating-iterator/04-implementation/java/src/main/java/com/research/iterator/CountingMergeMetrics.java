@@ -0,0 +1,139 @@
+package com.research.iterator;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * MergeMetrics implementation that counts every event.
+ *
+ * <p>Intended for one merge at a time: the merge thread is the only writer,
+ * so counters are published with {@code lazySet} instead of atomic
+ * read-modify-write. Any other thread (e.g. a monitoring agent) may read the
+ * counters at any time and sees monotonically increasing values.
+ *
+ * <p>Counters are sized for k sources; a merge over more sources is rejected
+ * with IllegalArgumentException on its first out-of-range pull or at build.
+ */
+public class CountingMergeMetrics implements MergeMetrics {
+
+    private final int k;
+    private final AtomicLong comparisons = new AtomicLong();
+    private final AtomicLong replays = new AtomicLong();
+    private final AtomicLong exhaustions = new AtomicLong();
+    private final AtomicLong buildNanos = new AtomicLong();
+    private final AtomicLongArray pulls;
+
+    /**
+     * Creates counters for a merge over k sources.
+     *
+     * @param k number of sources the merge will be constructed with
+     * @throws IllegalArgumentException if k is not positive
+     */
+    public CountingMergeMetrics(int k) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("k must be positive");
+        }
+        this.k = k;
+        this.pulls = new AtomicLongArray(k);
+    }
+
+    @Override
+    public void onBuild(int k, long nanos) {
+        if (k > this.k) {
+            throw new IllegalArgumentException(tooManySources(k));
+        }
+        buildNanos.lazySet(nanos);
+    }
+
+    @Override
+    public void onComparison() {
+        comparisons.lazySet(comparisons.get() + 1);
+    }
+
+    @Override
+    public void onReplay() {
+        replays.lazySet(replays.get() + 1);
+    }
+
+    @Override
+    public void onPull(int source) {
+        if (source >= k) {
+            throw new IllegalArgumentException(tooManySources(source + 1));
+        }
+        pulls.lazySet(source, pulls.get(source) + 1);
+    }
+
+    private String tooManySources(int sources) {
+        return "metrics sized for k=" + k + " used by a merge over at least " + sources + " sources";
+    }
+
+    @Override
+    public void onExhausted(int source) {
+        exhaustions.lazySet(exhaustions.get() + 1);
+    }
+
+    /**
+     * @return number of sources
+     */
+    public int k() {
+        return k;
+    }
+
+    /**
+     * @return key comparisons so far
+     */
+    public long comparisons() {
+        return comparisons.get();
+    }
+
+    /**
+     * @return replays (tree replays, heap sifts, or linear scans) so far
+     */
+    public long replays() {
+        return replays.get();
+    }
+
+    /**
+     * @return sources that have reported exhaustion so far
+     */
+    public long exhaustions() {
+        return exhaustions.get();
+    }
+
+    /**
+     * @return construction time in nanoseconds (0 until construction finishes)
+     */
+    public long buildNanos() {
+        return buildNanos.get();
+    }
+
+    /**
+     * @param source index of the source in the constructor list
+     * @return elements pulled from that source so far
+     */
+    public long pulls(int source) {
+        return pulls.get(source);
+    }
+
+    /**
+     * @return elements pulled from all sources so far
+     */
+    public long totalPulls() {
+        long total = 0;
+        for (int i = 0; i < k; i++) {
+            total += pulls.get(i);
+        }
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        return "MergeMetrics{k=" + k
+            + ", comparisons=" + comparisons()
+            + ", replays=" + replays()
+            + ", pulls=" + totalPulls()
+            + ", exhaustions=" + exhaustions()
+            + ", buildNanos=" + buildNanos()
+            + "}";
+    }
+}
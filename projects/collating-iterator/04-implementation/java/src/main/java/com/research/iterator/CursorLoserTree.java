@@ -0,0 +1,84 @@
+package com.research.iterator;
+
+/**
+ * Loser tree whose sources are read through an integer cursor into a leaf
+ * (an array, a list, or a buffer refilled in chunks), shared by the
+ * in-memory and batch engines.
+ *
+ * <p>Source i is at {@code positions[i]} in its leaf, which holds
+ * {@code ends[i]} valid elements. Advancing is an index increment; when the
+ * cursor reaches the bound the engine gets one {@link #fill(int)} call to
+ * refill the leaf, and a source whose fill yields nothing stays at the bound,
+ * which is what {@link #isExhausted(int)} tests. Engines with fixed leaves
+ * set the bounds before {@link #start()} and return 0 from {@code fill}.
+ */
+abstract class CursorLoserTree extends AbstractLoserTree {
+
+    final int[] positions;         // Cursor per source
+    final int[] ends;              // Valid length per leaf; exhausted once the cursor stays there
+    private final String engine;
+    private int pendingPulls;
+
+    CursorLoserTree(String engine, int k, MergeMetrics metrics) {
+        super(k, metrics);
+        this.engine = engine;
+        this.positions = new int[k];
+        this.ends = new int[k];
+    }
+
+    /**
+     * Moves every cursor to its first element, then builds the tree.
+     */
+    final void start() {
+        for (int i = 0; i < k; i++) {
+            positions[i] = -1;
+            pull(i);
+        }
+        buildTree();
+    }
+
+    final boolean isExhausted(int source) {
+        return positions[source] == ends[source];
+    }
+
+    /**
+     * Advances a source's cursor, refilling its leaf at the bound, and loads
+     * the new head or marks the source exhausted.
+     */
+    final void pull(int source) {
+        int position = ++positions[source];
+        if (position == ends[source]) {
+            int n = fill(source);
+            if (n > 0) {
+                ends[source] = n;
+                positions[source] = 0;
+                position = 0;
+            }
+        }
+        if (position < ends[source]) {
+            load(source, position);
+            metrics.onPull(source);
+            if (++pendingPulls == MergeEvents.PULL_BATCH) {
+                MergeEvents.pulled(pendingPulls);
+                pendingPulls = 0;
+            }
+        } else {
+            MergeEvents.exhausted(engine, source, pendingPulls);
+            pendingPulls = 0;
+            metrics.onExhausted(source);
+        }
+    }
+
+    /**
+     * Refills a source's leaf from its start once the cursor reaches the bound.
+     *
+     * @return number of elements written, or 0 if the source is exhausted
+     */
+    abstract int fill(int source);
+
+    /**
+     * Caches the element at a source's new cursor position, if the engine
+     * keeps heads outside the leaf.
+     */
+    abstract void load(int source, int position);
+}
@@ -0,0 +1,129 @@
+package com.research.iterator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.function.Supplier;
+
+/**
+ * File cache for generated datasets (one sorted int array per source).
+ *
+ * <p>Lets large benchmark trials (N up to 10^8) load their data in seconds
+ * instead of regenerating it. Files are named by a caller-supplied key that
+ * must encode the generator version, the seed and every generation parameter,
+ * plus the file format version, so files written by an older format or
+ * generator are never read back.
+ *
+ * <p>Format (little-endian): magic, version, k, then for each source its
+ * length followed by its values. Files are written to a temporary name and
+ * moved into place, so a killed run never leaves a truncated dataset behind.
+ */
+public class DatasetCache {
+
+    private static final int MAGIC = 0x4B4D5247;  // "KMRG"
+    private static final int VERSION = 1;
+    private static final int CHUNK_INTS = 1 << 20;
+
+    private final Path directory;
+
+    /**
+     * Creates a cache rooted at directory (created on first write).
+     */
+    public DatasetCache(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Returns the dataset stored under key, generating and storing it first if absent.
+     *
+     * @throws IOException if the cache file cannot be read or written
+     */
+    public int[][] getOrCreate(String key, Supplier<int[][]> generator) throws IOException {
+        Path file = directory.resolve(key + ".v" + VERSION + ".bin");
+        if (Files.exists(file)) {
+            return read(file);
+        }
+        int[][] data = generator.get();
+        write(file, data);
+        return data;
+    }
+
+    private static int[][] read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = readFully(channel, 3 * Integer.BYTES);
+            if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new IOException("Not a dataset file: " + file);
+            }
+            int[][] data = new int[header.getInt()][];
+            ByteBuffer buffer = ByteBuffer.allocateDirect(CHUNK_INTS * Integer.BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN);
+            for (int i = 0; i < data.length; i++) {
+                int[] values = new int[readFully(channel, Integer.BYTES).getInt()];
+                for (int offset = 0; offset < values.length; offset += CHUNK_INTS) {
+                    int length = Math.min(CHUNK_INTS, values.length - offset);
+                    buffer.clear().limit(length * Integer.BYTES);
+                    fill(channel, buffer);
+                    buffer.flip();
+                    buffer.asIntBuffer().get(values, offset, length);
+                }
+                data[i] = values;
+            }
+            return data;
+        }
+    }
+
+    private static void write(Path file, int[][] data) throws IOException {
+        Files.createDirectories(file.getParent());
+        Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(CHUNK_INTS * Integer.BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(data.length);
+            for (int[] values : data) {
+                if (buffer.remaining() < Integer.BYTES) {
+                    drain(channel, buffer);
+                }
+                buffer.putInt(values.length);
+                for (int offset = 0; offset < values.length; ) {
+                    if (buffer.remaining() < Integer.BYTES) {
+                        drain(channel, buffer);
+                    }
+                    int length = Math.min(buffer.remaining() / Integer.BYTES, values.length - offset);
+                    buffer.asIntBuffer().put(values, offset, length);
+                    buffer.position(buffer.position() + length * Integer.BYTES);
+                    offset += length;
+                }
+            }
+            drain(channel, buffer);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, int bytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        fill(channel, buffer);
+        buffer.flip();
+        return buffer;
+    }
+
+    private static void fill(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new IOException("Truncated dataset file");
+            }
+        }
+    }
+
+    private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,27 @@
+package com.research.iterator;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Sorted source of fixed-width binary keys for {@link OffHeapLoserTree}.
+ *
+ * <p>Instead of returning a key object, the source writes its next key
+ * directly into the tree's leaf slot, so keys never exist on the GC heap.
+ * Keys must be produced in ascending unsigned lexicographic order.
+ */
+@FunctionalInterface
+public interface FixedWidthKeySource {
+
+    /**
+     * Writes the next key into {@code slots} at absolute positions
+     * {@code [offset, offset + keyWidth)}, or reports exhaustion.
+     *
+     * <p>Implementations must use absolute puts and write nothing outside the
+     * given range: the buffer holds the other sources' heads as well.
+     *
+     * @param slots the tree's key slots
+     * @param offset absolute position of this source's slot
+     * @return true if a key was written, false if the source is exhausted
+     */
+    boolean fill(ByteBuffer slots, int offset);
+}
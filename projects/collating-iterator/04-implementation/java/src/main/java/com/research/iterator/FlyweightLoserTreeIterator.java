@@ -0,0 +1,146 @@
+package com.research.iterator;
+
+import java.util.*;
+
+/**
+ * FlyweightLoserTreeIterator merges k sorted record sources that reuse one
+ * mutable holder each.
+ *
+ * <p>Same flat-array tournament as {@link LoserTreeIterator}. The heads are the
+ * sources' own holders, so steady-state merging allocates nothing, even for
+ * structured records.
+ *
+ * <p>Flyweight contract: {@link #next()} returns the winning source's holder
+ * itself, not a copy. It stays valid until the following {@code hasNext()} or
+ * {@code next()} call, which advances that source and overwrites the holder.
+ * Callers that keep a record must copy it first.
+ *
+ * <p>Complexity: O(N log k) time, O(k) space
+ *
+ * @param <R> record type
+ */
+public class FlyweightLoserTreeIterator<R> extends AbstractLoserTree implements Iterator<R> {
+
+    private static final String ENGINE = "FlyweightLoserTree";
+
+    private final List<RecordSource<R>> sources;
+    private final Comparator<? super R> comparator;
+    private final Object[] heads;       // heads[i] = holder of source i (null = exhausted)
+    private boolean refillPending;      // Winner was handed out; advance it on the next call
+    private int pendingPulls;
+
+    /**
+     * Constructs a FlyweightLoserTreeIterator over sorted record sources.
+     *
+     * @param sources list of sorted sources (must not be null or contain nulls)
+     * @param comparator record order
+     * @throws IllegalArgumentException if sources is empty or contains nulls
+     */
+    public FlyweightLoserTreeIterator(List<? extends RecordSource<R>> sources, Comparator<? super R> comparator) {
+        this(sources, comparator, MergeMetrics.NONE);
+    }
+
+    /**
+     * Constructs an instrumented FlyweightLoserTreeIterator.
+     *
+     * @param sources list of sorted sources (must not be null or contain nulls)
+     * @param comparator record order
+     * @param metrics instrumentation hook (use {@link MergeMetrics#NONE} to disable)
+     * @throws IllegalArgumentException if sources is empty or contains nulls
+     */
+    public FlyweightLoserTreeIterator(List<? extends RecordSource<R>> sources, Comparator<? super R> comparator,
+                                      MergeMetrics metrics) {
+        super(checkSources(sources, "sources"), metrics);
+        long start = System.nanoTime();
+        MergeBuildEvent build = MergeEvents.beginBuild();
+        Objects.requireNonNull(comparator, "comparator must not be null");
+
+        this.sources = new ArrayList<>(sources);
+        this.comparator = comparator;
+        this.heads = new Object[k];
+
+        for (int i = 0; i < k; i++) {
+            pull(i);
+        }
+        buildTree();
+
+        MergeEvents.endBuild(build, ENGINE, k);
+        metrics.onBuild(k, System.nanoTime() - start);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (refillPending) {
+            refillPending = false;
+            refill();
+        }
+        // Winner is exhausted only when every source is
+        return heads[winnerIndex] != null;
+    }
+
+    /**
+     * Returns the next record: the winning source's holder, valid until the
+     * next {@code hasNext()} or {@code next()} call.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public R next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("Iterator exhausted");
+        }
+        refillPending = true;
+        return (R) heads[winnerIndex];
+    }
+
+    /**
+     * Advances the previous winner's source and replays its leaf-to-root path.
+     */
+    private void refill() {
+        int candidate = winnerIndex;
+        pull(candidate);
+        replay(candidate);
+    }
+
+    /**
+     * Returns true if source a's record is strictly smaller than source b's.
+     * Exhausted sources lose to everything.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    final boolean beats(int a, int b) {
+        metrics.onComparison();
+        Object x = heads[a];
+        Object y = heads[b];
+        if (x == null) return false;
+        if (y == null) return true;
+        return comparator.compare((R) x, (R) y) < 0;
+    }
+
+    /**
+     * Advances a source, refreshing its head, or marks it exhausted.
+     */
+    private void pull(int source) {
+        RecordSource<R> s = sources.get(source);
+        SourceStallEvent fetch = MergeEvents.beginFetch();
+        boolean advanced = s.advance();
+        MergeEvents.endFetch(fetch, ENGINE, source);
+        if (advanced) {
+            heads[source] = Objects.requireNonNull(s.holder(), "source returned a null holder");
+            metrics.onPull(source);
+            if (++pendingPulls == MergeEvents.PULL_BATCH) {
+                MergeEvents.pulled(pendingPulls);
+                pendingPulls = 0;
+            }
+        } else {
+            heads[source] = null;
+            MergeEvents.exhausted(ENGINE, source, pendingPulls);
+            pendingPulls = 0;
+            metrics.onExhausted(source);
+        }
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException("remove() not supported");
+    }
+}
@@ -0,0 +1,270 @@
+package com.research.iterator;
+
+import java.util.*;
+
+/**
+ * FunnelMergeIterator merges k sorted iterators with a lazy k-funnel, the
+ * cache-oblivious merger of funnelsort (Frigo et al. 1999; lazy variant by
+ * Brodal and Fagerberg 2002). Candidate 8 in the analysis stage.
+ *
+ * <p>Structure: a balanced binary tree of two-way mergers with a FIFO buffer on
+ * every edge. Buffer sizes follow the recursive (van Emde Boas) split: a
+ * funnel of height h is cut at height h/2 into a top funnel and about √k
+ * bottom funnels, and the output buffer of a bottom funnel with d leaves holds
+ * ⌈d^{3/2}⌉ elements. Top and bottoms are split the same way. No cache size is
+ * configured anywhere: at every scale some level of the recursion fits the cache.
+ *
+ * <p>Lazy filling: a buffer is only filled when its consumer finds it empty.
+ * Filling a buffer runs its merger until the buffer is full, recursively
+ * filling the merger's empty inputs first, so each bottom funnel runs for a
+ * whole buffer's worth of output while its working set is cache-resident.
+ * Buffers are allocated on first fill.
+ *
+ * <p>Complexity: O(N log k) time (one comparison and one buffer copy per tree
+ * level per element), O(k^{5/4}) buffer space (capped per buffer at
+ * {@value #MAX_BUFFER} elements)
+ *
+ * @param <T> element type, must be Comparable
+ */
+public class FunnelMergeIterator<T extends Comparable<? super T>> implements Iterator<T> {
+
+    private static final String ENGINE = "Funnel";
+
+    /** Largest buffer allocated, bounding the root buffer at very large k. */
+    static final int MAX_BUFFER = 1 << 16;
+
+    private final List<Iterator<T>> sources;
+    private final Funnel root;
+    private final MergeMetrics metrics;
+    private int pendingPulls;
+
+    /**
+     * Constructs a FunnelMergeIterator from multiple sorted iterators.
+     *
+     * @param iterators list of sorted iterators (must not be null or contain nulls)
+     * @throws IllegalArgumentException if iterators is null, empty, or contains nulls
+     */
+    public FunnelMergeIterator(List<? extends Iterator<T>> iterators) {
+        this(iterators, MergeMetrics.NONE);
+    }
+
+    /**
+     * Constructs an instrumented FunnelMergeIterator.
+     *
+     * <p>One replay is reported per element leaving the root buffer.
+     *
+     * @param iterators list of sorted iterators (must not be null or contain nulls)
+     * @param metrics instrumentation hook (use {@link MergeMetrics#NONE} to disable)
+     * @throws IllegalArgumentException if iterators is null, empty, or contains nulls
+     */
+    public FunnelMergeIterator(List<? extends Iterator<T>> iterators, MergeMetrics metrics) {
+        long start = System.nanoTime();
+        MergeBuildEvent build = MergeEvents.beginBuild();
+        Objects.requireNonNull(metrics, "metrics must not be null");
+        Objects.requireNonNull(iterators, "iterators must not be null");
+        if (iterators.isEmpty()) {
+            throw new IllegalArgumentException("iterators must not be empty");
+        }
+        if (iterators.contains(null)) {
+            throw new IllegalArgumentException("iterators must not contain null");
+        }
+
+        this.sources = new ArrayList<>(iterators);
+        this.metrics = metrics;
+        this.root = build(0, sources.size());
+        root.capacity = capacity(root.leaves);
+        layout(root, root.height);
+
+        MergeEvents.endBuild(build, ENGINE, sources.size());
+        metrics.onBuild(sources.size(), System.nanoTime() - start);
+    }
+
+    /**
+     * Builds the balanced merger tree over sources [from, to).
+     */
+    private Funnel build(int from, int to) {
+        if (to - from == 1) {
+            return new Funnel(from);
+        }
+        int mid = (from + to) >>> 1;
+        return new Funnel(build(from, mid), build(mid, to));
+    }
+
+    /**
+     * Assigns buffer sizes by the recursive split: the subtree of the given
+     * height below node is cut at half its height, the output buffers of the
+     * bottom funnels get ⌈d^{3/2}⌉ slots, and top and bottoms are laid out alike.
+     */
+    private static void layout(Funnel node, int height) {
+        if (height <= 1) {
+            return;
+        }
+        int bottom = height / 2;
+        int top = height - bottom;
+        List<Funnel> cut = new ArrayList<>();
+        collect(node, top, cut);
+        for (Funnel funnel : cut) {
+            funnel.capacity = capacity(funnel.leaves);
+            layout(funnel, bottom);
+        }
+        layout(node, top);
+    }
+
+    /**
+     * Collects the mergers at the given depth below node (sources end a path early).
+     */
+    private static void collect(Funnel node, int depth, List<Funnel> out) {
+        if (node.source >= 0) {
+            return;
+        }
+        if (depth == 0) {
+            out.add(node);
+            return;
+        }
+        collect(node.left, depth - 1, out);
+        collect(node.right, depth - 1, out);
+    }
+
+    private static int capacity(int leaves) {
+        return (int) Math.min(MAX_BUFFER, (long) Math.ceil(Math.pow(leaves, 1.5)));
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (root.count == 0 && !root.done) {
+            fill(root);
+        }
+        return root.count > 0;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("Iterator exhausted");
+        }
+        metrics.onReplay();
+        return root.take();
+    }
+
+    /**
+     * Fills a buffer until it is full or its input is exhausted, filling the
+     * merger's empty inputs first.
+     */
+    private void fill(Funnel funnel) {
+        if (funnel.ring == null) {
+            funnel.ring = new Object[funnel.capacity];
+        }
+        if (funnel.source >= 0) {
+            fillFromSource(funnel);
+            return;
+        }
+
+        Funnel left = funnel.left;
+        Funnel right = funnel.right;
+        while (funnel.count < funnel.capacity) {
+            if (left.count == 0 && !left.done) {
+                fill(left);
+            }
+            if (right.count == 0 && !right.done) {
+                fill(right);
+            }
+            if (left.count == 0) {
+                if (right.count == 0) {
+                    funnel.done = true;
+                    return;
+                }
+                funnel.put(right.take());
+            } else if (right.count == 0) {
+                funnel.put(left.take());
+            } else {
+                metrics.onComparison();
+                T l = left.peek();
+                T r = right.peek();
+                // Ties go left, keeping equal elements in source order
+                funnel.put(r.compareTo(l) < 0 ? right.take() : left.take());
+            }
+        }
+    }
+
+    private void fillFromSource(Funnel leaf) {
+        Iterator<T> iterator = sources.get(leaf.source);
+        while (leaf.count < leaf.capacity) {
+            SourceStallEvent fetch = MergeEvents.beginFetch();
+            if (!iterator.hasNext()) {
+                MergeEvents.endFetch(fetch, ENGINE, leaf.source);
+                MergeEvents.exhausted(ENGINE, leaf.source, pendingPulls);
+                pendingPulls = 0;
+                metrics.onExhausted(leaf.source);
+                leaf.done = true;
+                return;
+            }
+            leaf.put(iterator.next());
+            MergeEvents.endFetch(fetch, ENGINE, leaf.source);
+            metrics.onPull(leaf.source);
+            if (++pendingPulls == MergeEvents.PULL_BATCH) {
+                MergeEvents.pulled(pendingPulls);
+                pendingPulls = 0;
+            }
+        }
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException("remove() not supported");
+    }
+
+    /**
+     * A merger (or a source, at the leaves) together with its output buffer,
+     * a ring of capacity slots.
+     */
+    private static final class Funnel {
+        final int source;           // Source index for a leaf, -1 for a merger
+        final Funnel left;
+        final Funnel right;
+        final int leaves;           // Sources below this funnel
+        final int height;           // Mergers on the longest path down (0 for a leaf)
+        int capacity = 1;           // Leaves keep a single look-ahead slot
+        Object[] ring;              // Allocated on first fill
+        int head;
+        int count;
+        boolean done;               // Input exhausted; ring holds what is left
+
+        Funnel(int source) {
+            this.source = source;
+            this.left = null;
+            this.right = null;
+            this.leaves = 1;
+            this.height = 0;
+        }
+
+        Funnel(Funnel left, Funnel right) {
+            this.source = -1;
+            this.left = left;
+            this.right = right;
+            this.leaves = left.leaves + right.leaves;
+            this.height = 1 + Math.max(left.height, right.height);
+        }
+
+        void put(Object value) {
+            int tail = head + count;
+            ring[tail >= capacity ? tail - capacity : tail] = value;
+            count++;
+        }
+
+        @SuppressWarnings("unchecked")
+        <T> T peek() {
+            return (T) ring[head];
+        }
+
+        @SuppressWarnings("unchecked")
+        <T> T take() {
+            T value = (T) ring[head];
+            ring[head] = null;
+            if (++head == capacity) {
+                head = 0;
+            }
+            count--;
+            return value;
+        }
+    }
+}
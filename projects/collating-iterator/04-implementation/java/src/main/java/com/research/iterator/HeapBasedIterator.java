@@ -22,16 +22,20 @@ import java.util.*;
  */
 public class HeapBasedIterator<T extends Comparable<? super T>> implements Iterator<T> {
 
+    private static final String ENGINE = "HeapBased";
+
     /**
      * Entry in the priority queue, containing a value and its source iterator.
      */
     private static class Entry<T extends Comparable<? super T>> implements Comparable<Entry<T>> {
         final T value;
         final Iterator<T> source;
+        final int sourceIndex;
 
-        Entry(T value, Iterator<T> source) {
+        Entry(T value, Iterator<T> source, int sourceIndex) {
             this.value = value;
             this.source = source;
+            this.sourceIndex = sourceIndex;
         }
 
         @Override
@@ -41,6 +45,8 @@ public class HeapBasedIterator<T extends Comparable<? super T>> implements Itera
     }
 
     private final PriorityQueue<Entry<T>> heap;
+    private final MergeMetrics metrics;
+    private int pendingPulls;  // Pulls not yet published to MergeEvents
 
     /**
      * Constructs a HeapBasedIterator from multiple sorted iterators.
@@ -49,6 +55,23 @@ public class HeapBasedIterator<T extends Comparable<? super T>> implements Itera
      * @throws IllegalArgumentException if iterators is null, empty, or contains nulls
      */
     public HeapBasedIterator(List<? extends Iterator<T>> iterators) {
+        this(iterators, MergeMetrics.NONE);
+    }
+
+    /**
+     * Constructs an instrumented HeapBasedIterator.
+     *
+     * <p>Comparisons are counted through a comparator handed to the PriorityQueue,
+     * which is only installed when metrics are enabled.
+     *
+     * @param iterators list of sorted iterators (must not be null or contain nulls)
+     * @param metrics instrumentation hook (use {@link MergeMetrics#NONE} to disable)
+     * @throws IllegalArgumentException if iterators is null, empty, or contains nulls
+     */
+    public HeapBasedIterator(List<? extends Iterator<T>> iterators, MergeMetrics metrics) {
+        long start = System.nanoTime();
+        MergeBuildEvent build = MergeEvents.beginBuild();
+        Objects.requireNonNull(metrics, "metrics must not be null");
         Objects.requireNonNull(iterators, "iterators must not be null");
         if (iterators.isEmpty()) {
             throw new IllegalArgumentException("iterators must not be empty");
@@ -57,14 +80,26 @@ public class HeapBasedIterator<T extends Comparable<? super T>> implements Itera
             throw new IllegalArgumentException("iterators must not contain null");
         }
 
-        this.heap = new PriorityQueue<>(iterators.size());
+        this.metrics = metrics;
+        if (metrics == MergeMetrics.NONE) {
+            this.heap = new PriorityQueue<>(iterators.size());
+        } else {
+            this.heap = new PriorityQueue<>(iterators.size(), (a, b) -> {
+                metrics.onComparison();
+                return a.compareTo(b);
+            });
+        }
 
         // Initialize: add first element from each iterator
-        for (Iterator<T> iterator : iterators) {
-            if (iterator.hasNext()) {
-                heap.offer(new Entry<>(iterator.next(), iterator));
+        for (int i = 0; i < iterators.size(); i++) {
+            Entry<T> entry = pull(iterators.get(i), i);
+            if (entry != null) {
+                heap.offer(entry);
             }
         }
+
+        MergeEvents.endBuild(build, ENGINE, iterators.size());
+        metrics.onBuild(iterators.size(), System.nanoTime() - start);
     }
 
     @Override
@@ -78,18 +113,42 @@ public class HeapBasedIterator<T extends Comparable<? super T>> implements Itera
             throw new NoSuchElementException("Iterator exhausted");
         }
 
-        // Extract minimum
+        // Extract minimum; poll plus refill offer count as one replay, like a tree path replay
         Entry<T> entry = heap.poll();
+        metrics.onReplay();
         T result = entry.value;
 
         // Refill from same source
-        if (entry.source.hasNext()) {
-            heap.offer(new Entry<>(entry.source.next(), entry.source));
+        Entry<T> refill = pull(entry.source, entry.sourceIndex);
+        if (refill != null) {
+            heap.offer(refill);
         }
 
         return result;
     }
 
+    /**
+     * Pulls the next element from a source as a heap entry, or returns null if it is exhausted.
+     */
+    private Entry<T> pull(Iterator<T> source, int sourceIndex) {
+        SourceStallEvent fetch = MergeEvents.beginFetch();
+        if (source.hasNext()) {
+            T value = source.next();
+            MergeEvents.endFetch(fetch, ENGINE, sourceIndex);
+            metrics.onPull(sourceIndex);
+            if (++pendingPulls == MergeEvents.PULL_BATCH) {
+                MergeEvents.pulled(pendingPulls);
+                pendingPulls = 0;
+            }
+            return new Entry<>(value, source, sourceIndex);
+        }
+        MergeEvents.endFetch(fetch, ENGINE, sourceIndex);
+        MergeEvents.exhausted(ENGINE, sourceIndex, pendingPulls);
+        pendingPulls = 0;
+        metrics.onExhausted(sourceIndex);
+        return null;
+    }
+
     @Override
     public void remove() {
         throw new UnsupportedOperationException("remove() not supported");
@@ -0,0 +1,48 @@
+package com.research.iterator;
+
+import java.util.*;
+
+/**
+ * Zero-copy iterator over a slice of an int array, boxing on {@code next()}.
+ *
+ * <p>Keeps large benchmark datasets at 4 bytes per element: only the values
+ * currently held by a merge exist as Integer objects.
+ */
+public class IntArrayCursor implements Iterator<Integer> {
+
+    private final int[] values;
+    private final int end;
+    private int position;
+
+    /**
+     * Creates a cursor over the whole array.
+     */
+    public IntArrayCursor(int[] values) {
+        this(values, 0, values.length);
+    }
+
+    /**
+     * Creates a cursor over values[from, to).
+     *
+     * @throws IndexOutOfBoundsException if the range is outside the array
+     */
+    public IntArrayCursor(int[] values, int from, int to) {
+        Objects.checkFromToIndex(from, to, values.length);
+        this.values = values;
+        this.position = from;
+        this.end = to;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return position < end;
+    }
+
+    @Override
+    public Integer next() {
+        if (position >= end) {
+            throw new NoSuchElementException("Cursor exhausted");
+        }
+        return values[position++];
+    }
+}
@@ -0,0 +1,175 @@
+package com.research.iterator;
+
+import java.util.*;
+
+/**
+ * IntArrayLoserTree merges k sorted {@code int[]} arrays, or k
+ * {@link BatchSource.OfInt} sources, without boxing or iterators.
+ *
+ * <p>Same flat-array tournament as {@link LoserTreeIterator}, with every leaf a
+ * plain {@code int[]} held inside the engine: each source is an integer cursor
+ * ({@code positions[i]}) with a length bound ({@code ends[i]}), and its head
+ * is cached in a {@code int[]}. A refill is an index increment and an array
+ * load, and exhaustion is an index comparison, so the hot loop touches no
+ * iterator objects and no call site can go megamorphic. {@link #nextInt()}
+ * returns the primitive: steady-state merging allocates nothing.
+ *
+ * <p>Leaves are either:
+ * - the caller's arrays, read in place (they must not be modified during the merge)
+ * - local buffers of batchSize elements, refilled with one
+ *   {@link BatchSource.OfInt#fill} call when the cursor reaches the bound
+ *
+ * <p>Complexity: O(N log k) time, O(k) space (O(k * batchSize) for batch sources)
+ */
+public class IntArrayLoserTree extends CursorLoserTree implements PrimitiveIterator.OfInt {
+
+    private static final String ENGINE = "IntArrayLoserTree";
+
+    private final int[][] leaves;       // The caller's arrays, or per-source batch buffers
+    private final BatchSource.OfInt[] batches;  // Refill sources, or null when merging arrays
+    private final int[] heads;          // heads[i] = leaves[i][positions[i]] while not exhausted
+
+    /**
+     * Constructs a merge of sorted arrays.
+     *
+     * @param arrays sorted arrays (must not be null or contain nulls)
+     * @throws IllegalArgumentException if arrays is empty or contains nulls
+     */
+    public IntArrayLoserTree(int[][] arrays) {
+        this(arrays, MergeMetrics.NONE);
+    }
+
+    /**
+     * Constructs an instrumented merge of sorted arrays.
+     *
+     * @param arrays sorted arrays (must not be null or contain nulls)
+     * @param metrics instrumentation hook (use {@link MergeMetrics#NONE} to disable)
+     * @throws IllegalArgumentException if arrays is empty or contains nulls
+     */
+    public IntArrayLoserTree(int[][] arrays, MergeMetrics metrics) {
+        this(checkArrays(arrays), null, metrics);
+    }
+
+    /**
+     * Constructs a merge of batch sources with the default batch size.
+     *
+     * @param sources sorted batch sources (must not be null or contain nulls)
+     * @throws IllegalArgumentException if sources is empty or contains nulls
+     */
+    public IntArrayLoserTree(List<? extends BatchSource.OfInt> sources) {
+        this(sources, BatchSource.DEFAULT_BATCH_SIZE, MergeMetrics.NONE);
+    }
+
+    /**
+     * Constructs an instrumented merge of batch sources.
+     *
+     * <p>Pulls are reported as elements leave a leaf buffer, not when it is filled.
+     *
+     * @param sources sorted batch sources (must not be null or contain nulls)
+     * @param batchSize elements per leaf buffer
+     * @param metrics instrumentation hook (use {@link MergeMetrics#NONE} to disable)
+     * @throws IllegalArgumentException if sources is empty or contains nulls,
+     *         or batchSize is not positive
+     */
+    public IntArrayLoserTree(List<? extends BatchSource.OfInt> sources, int batchSize, MergeMetrics metrics) {
+        this(new int[checkSources(sources, batchSize)][batchSize],
+            sources.toArray(new BatchSource.OfInt[0]), metrics);
+    }
+
+    private IntArrayLoserTree(int[][] leaves, BatchSource.OfInt[] batches, MergeMetrics metrics) {
+        super(ENGINE, leaves.length, metrics);
+        long start = System.nanoTime();
+        MergeBuildEvent build = MergeEvents.beginBuild();
+
+        this.leaves = leaves;
+        this.batches = batches;
+        this.heads = new int[k];
+
+        if (batches == null) {
+            for (int i = 0; i < k; i++) {
+                ends[i] = leaves[i].length;
+            }
+        }
+        start();
+
+        MergeEvents.endBuild(build, ENGINE, k);
+        metrics.onBuild(k, System.nanoTime() - start);
+    }
+
+    private static int[][] checkArrays(int[][] arrays) {
+        Objects.requireNonNull(arrays, "arrays must not be null");
+        if (arrays.length == 0) {
+            throw new IllegalArgumentException("arrays must not be empty");
+        }
+        for (int[] array : arrays) {
+            if (array == null) {
+                throw new IllegalArgumentException("arrays must not contain null");
+            }
+        }
+        return arrays.clone();
+    }
+
+    private static int checkSources(List<? extends BatchSource.OfInt> sources, int batchSize) {
+        int k = checkSources(sources, "sources");
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+        }
+        return k;
+    }
+
+    @Override
+    public boolean hasNext() {
+        // Winner is exhausted only when every source is
+        return !isExhausted(winnerIndex);
+    }
+
+    @Override
+    public int nextInt() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("Iterator exhausted");
+        }
+        int candidate = winnerIndex;
+        int result = heads[candidate];
+        pull(candidate);
+        replay(candidate);
+        return result;
+    }
+
+    /**
+     * Returns true if source a's head is strictly smaller than source b's.
+     * Exhausted sources lose to everything.
+     */
+    @Override
+    final boolean beats(int a, int b) {
+        metrics.onComparison();
+        if (isExhausted(a)) return false;
+        if (isExhausted(b)) return true;
+        return heads[a] < heads[b];
+    }
+
+    /**
+     * Refills a batch source's buffer; arrays are read in place and never
+     * refilled. An array load cannot stall, so fetch events are recorded only
+     * around batch refills.
+     */
+    @Override
+    final int fill(int source) {
+        if (batches == null) {
+            return 0;
+        }
+        SourceStallEvent fetch = MergeEvents.beginFetch();
+        int n = batches[source].fill(leaves[source]);
+        MergeEvents.endFetch(fetch, ENGINE, source);
+        return n;
+    }
+
+    @Override
+    final void load(int source, int position) {
+        heads[source] = leaves[source][position];
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException("remove() not supported");
+    }
+}
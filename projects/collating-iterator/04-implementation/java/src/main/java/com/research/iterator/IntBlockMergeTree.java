@@ -0,0 +1,310 @@
+package com.research.iterator;
+
+import java.util.*;
+
+/**
+ * IntBlockMergeTree is {@link BlockMergeTree} for {@code int} keys: a balanced
+ * binary tree of two-way mergers passing {@code int[]} blocks between levels,
+ * with a branch-free merge step.
+ *
+ * <p>Leaves are either:
+ * - the caller's arrays, read in place (they must not be modified during the merge)
+ * - local blocks of blockSize elements, refilled with one
+ *   {@link BatchSource.OfInt#fill} call when they run dry
+ *
+ * <p>The two-way step has no data-dependent branch. A run of steps is
+ * bounded by the shorter of the two inputs and the output's free space, so no
+ * input can run out inside it and the loop has no per-element exhaustion
+ * test. Each step takes the side from the sign of the widened difference,
+ * selects the value with a mask and advances both cursors arithmetically. On
+ * interleaved inputs the side taken is unpredictable, which is where a
+ * tournament, branching on every comparison of its replay, pays for
+ * mispredictions. {@link #nextInt()} returns the primitive: steady-state
+ * merging allocates nothing.
+ *
+ * <p>Complexity: O(N log k) time (one comparison and one copy per level per
+ * element), O(k * blockSize) space, allocated on first fill (array leaves
+ * are read in place)
+ */
+public class IntBlockMergeTree implements PrimitiveIterator.OfInt {
+
+    private static final String ENGINE = "IntBlockMergeTree";
+
+    private final int[][] arrays;               // The caller's arrays, or null when merging batch sources
+    private final BatchSource.OfInt[] batches;  // Refill sources, or null when merging arrays
+    private final Node root;
+    private final int blockSize;
+    private final MergeMetrics metrics;
+    private int pendingPulls;
+
+    /**
+     * Constructs a merge of sorted arrays with the default block size.
+     *
+     * @param arrays sorted arrays (must not be null or contain nulls)
+     * @throws IllegalArgumentException if arrays is empty or contains nulls
+     */
+    public IntBlockMergeTree(int[][] arrays) {
+        this(arrays, BlockMergeTree.DEFAULT_BLOCK_SIZE, MergeMetrics.NONE);
+    }
+
+    /**
+     * Constructs an instrumented merge of sorted arrays.
+     *
+     * <p>An array's elements are reported as pulled, and the array as
+     * exhausted, when its leaf is first read.
+     *
+     * @param arrays sorted arrays (must not be null or contain nulls)
+     * @param blockSize elements per inner node block
+     * @param metrics instrumentation hook (use {@link MergeMetrics#NONE} to disable)
+     * @throws IllegalArgumentException if arrays is empty or contains nulls,
+     *         or blockSize is not positive
+     */
+    public IntBlockMergeTree(int[][] arrays, int blockSize, MergeMetrics metrics) {
+        this(checkArrays(arrays), null, blockSize, metrics);
+    }
+
+    /**
+     * Constructs a merge of batch sources with the default block size.
+     *
+     * @param sources sorted batch sources (must not be null or contain nulls)
+     * @throws IllegalArgumentException if sources is empty or contains nulls
+     */
+    public IntBlockMergeTree(List<? extends BatchSource.OfInt> sources) {
+        this(sources, BlockMergeTree.DEFAULT_BLOCK_SIZE, MergeMetrics.NONE);
+    }
+
+    /**
+     * Constructs an instrumented merge of batch sources.
+     *
+     * <p>Pulls are reported as a leaf block is filled, not as elements leave it.
+     *
+     * @param sources sorted batch sources (must not be null or contain nulls)
+     * @param blockSize elements per node block
+     * @param metrics instrumentation hook (use {@link MergeMetrics#NONE} to disable)
+     * @throws IllegalArgumentException if sources is empty or contains nulls,
+     *         or blockSize is not positive
+     */
+    public IntBlockMergeTree(List<? extends BatchSource.OfInt> sources, int blockSize, MergeMetrics metrics) {
+        this(null, checkSources(sources), blockSize, metrics);
+    }
+
+    private IntBlockMergeTree(int[][] arrays, BatchSource.OfInt[] batches, int blockSize, MergeMetrics metrics) {
+        long start = System.nanoTime();
+        MergeBuildEvent build = MergeEvents.beginBuild();
+        Objects.requireNonNull(metrics, "metrics must not be null");
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("blockSize must be positive: " + blockSize);
+        }
+
+        this.arrays = arrays;
+        this.batches = batches;
+        this.blockSize = blockSize;
+        this.metrics = metrics;
+        int k = arrays != null ? arrays.length : batches.length;
+        this.root = build(0, k);
+
+        MergeEvents.endBuild(build, ENGINE, k);
+        metrics.onBuild(k, System.nanoTime() - start);
+    }
+
+    private static int[][] checkArrays(int[][] arrays) {
+        Objects.requireNonNull(arrays, "arrays must not be null");
+        if (arrays.length == 0) {
+            throw new IllegalArgumentException("arrays must not be empty");
+        }
+        for (int[] array : arrays) {
+            if (array == null) {
+                throw new IllegalArgumentException("arrays must not contain null");
+            }
+        }
+        return arrays.clone();
+    }
+
+    private static BatchSource.OfInt[] checkSources(List<? extends BatchSource.OfInt> sources) {
+        Objects.requireNonNull(sources, "sources must not be null");
+        if (sources.isEmpty()) {
+            throw new IllegalArgumentException("sources must not be empty");
+        }
+        if (sources.contains(null)) {
+            throw new IllegalArgumentException("sources must not contain null");
+        }
+        return sources.toArray(new BatchSource.OfInt[0]);
+    }
+
+    /**
+     * Builds the balanced merger tree over sources [from, to).
+     */
+    private Node build(int from, int to) {
+        if (to - from == 1) {
+            return new Node(from, null, null);
+        }
+        int mid = (from + to) >>> 1;
+        return new Node(-1, build(from, mid), build(mid, to));
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (root.position == root.size && !root.done) {
+            fill(root);
+        }
+        return root.position < root.size;
+    }
+
+    @Override
+    public int nextInt() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("Iterator exhausted");
+        }
+        metrics.onReplay();
+        return root.block[root.position++];
+    }
+
+    /**
+     * Refills an empty node block: from the source at a leaf, by a two-way
+     * block merge of the children otherwise.
+     */
+    private void fill(Node node) {
+        node.position = 0;
+        node.size = 0;
+        if (node.source < 0) {
+            if (node.block == null) {
+                node.block = new int[blockSize];
+            }
+            merge(node);
+        } else if (arrays != null) {
+            readArray(node);
+        } else {
+            fillFromSource(node);
+        }
+    }
+
+    /**
+     * Merges the children's blocks into node's block until it is full or both
+     * children are exhausted.
+     */
+    private void merge(Node node) {
+        Node left = node.left;
+        Node right = node.right;
+        int[] out = node.block;
+        int o = 0;
+
+        while (o < out.length) {
+            if (left.position == left.size && !left.done) {
+                fill(left);
+            }
+            if (right.position == right.size && !right.done) {
+                fill(right);
+            }
+            boolean leftEmpty = left.position == left.size;
+            boolean rightEmpty = right.position == right.size;
+            if (leftEmpty && rightEmpty) {
+                node.done = true;
+                break;
+            }
+            if (leftEmpty || rightEmpty) {
+                // One side is exhausted: copy the other's block through
+                Node rest = leftEmpty ? right : left;
+                int n = Math.min(out.length - o, rest.size - rest.position);
+                System.arraycopy(rest.block, rest.position, out, o, n);
+                rest.position += n;
+                o += n;
+                continue;
+            }
+
+            // Both blocks non-empty: each step consumes one input element, so
+            // this many steps cannot run past either block or the output
+            int[] a = left.block;
+            int[] b = right.block;
+            int i = left.position;
+            int j = right.position;
+            int steps = Math.min(out.length - o, Math.min(left.size - i, right.size - j));
+            for (; steps > 0; steps--) {
+                metrics.onComparison();
+                int x = a[i];
+                int y = b[j];
+                // 1 if y < x, from the sign of the difference; ties go left,
+                // keeping equal elements in source order
+                int takeRight = (int) (((long) y - x) >>> 63);
+                out[o++] = x ^ ((x ^ y) & -takeRight);
+                j += takeRight;
+                i += 1 - takeRight;
+            }
+            left.position = i;
+            right.position = j;
+        }
+        node.size = o;
+    }
+
+    /**
+     * Makes the caller's array the leaf's block: read in place, never refilled.
+     * An array load cannot stall, so no fetch event is recorded.
+     */
+    private void readArray(Node leaf) {
+        int[] array = arrays[leaf.source];
+        leaf.block = array;
+        leaf.size = array.length;
+        leaf.done = true;
+        recordPulls(leaf.source, array.length);
+        recordExhausted(leaf.source);
+    }
+
+    /**
+     * Bulk refill: one fill call for up to blockSize elements.
+     */
+    private void fillFromSource(Node leaf) {
+        if (leaf.block == null) {
+            leaf.block = new int[blockSize];
+        }
+        SourceStallEvent fetch = MergeEvents.beginFetch();
+        int n = batches[leaf.source].fill(leaf.block);
+        MergeEvents.endFetch(fetch, ENGINE, leaf.source);
+        leaf.size = n;
+        recordPulls(leaf.source, n);
+        if (n == 0) {
+            leaf.done = true;
+            recordExhausted(leaf.source);
+        }
+    }
+
+    private void recordPulls(int source, int n) {
+        for (int p = 0; p < n; p++) {
+            metrics.onPull(source);
+        }
+        pendingPulls += n;
+        if (pendingPulls >= MergeEvents.PULL_BATCH) {
+            MergeEvents.pulled(pendingPulls);
+            pendingPulls = 0;
+        }
+    }
+
+    private void recordExhausted(int source) {
+        MergeEvents.exhausted(ENGINE, source, pendingPulls);
+        pendingPulls = 0;
+        metrics.onExhausted(source);
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException("remove() not supported");
+    }
+
+    /**
+     * A two-way merger (or a source, at the leaves) and its output block;
+     * block[position, size) is not yet consumed.
+     */
+    private static final class Node {
+        final int source;           // Source index for a leaf, -1 for a merger
+        final Node left;
+        final Node right;
+        int[] block;                // Allocated on first fill; the caller's array at an array leaf
+        int position;
+        int size;
+        boolean done;               // Input exhausted; block holds what is left
+
+        Node(int source, Node left, Node right) {
+            this.source = source;
+            this.left = left;
+            this.right = right;
+        }
+    }
+}
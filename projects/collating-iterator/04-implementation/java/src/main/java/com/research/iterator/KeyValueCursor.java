@@ -0,0 +1,72 @@
+package com.research.iterator;
+
+import java.util.*;
+
+/**
+ * Sorted source of key/value records for {@link KeyValueLoserTree}.
+ *
+ * <p>A cursor rather than an iterator of pairs: the current record is read
+ * through {@link #currentKey()} and {@link #currentValue()}, so no tuple object
+ * is created per record. Only the key takes part in ordering; keys must be
+ * produced in ascending order. Both accessors must keep returning the current
+ * record until the next {@link #advance()} call.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public interface KeyValueCursor<K, V> {
+
+    /**
+     * Moves to the next record.
+     *
+     * @return true if a record is available, false if the cursor is exhausted
+     */
+    boolean advance();
+
+    /**
+     * Returns the key of the current record.
+     */
+    K currentKey();
+
+    /**
+     * Returns the value of the current record.
+     */
+    V currentValue();
+
+    /**
+     * Cursor over parallel key and value arrays; record i is (keys[i], values[i]).
+     *
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    static <K, V> KeyValueCursor<K, V> of(K[] keys, V[] values) {
+        Objects.requireNonNull(keys, "keys must not be null");
+        Objects.requireNonNull(values, "values must not be null");
+        if (keys.length != values.length) {
+            throw new IllegalArgumentException(
+                "keys and values differ in length: " + keys.length + " != " + values.length);
+        }
+        return new KeyValueCursor<K, V>() {
+            private int index = -1;
+
+            @Override
+            public boolean advance() {
+                if (index + 1 >= keys.length) {
+                    index = keys.length;
+                    return false;
+                }
+                index++;
+                return true;
+            }
+
+            @Override
+            public K currentKey() {
+                return keys[index];
+            }
+
+            @Override
+            public V currentValue() {
+                return values[index];
+            }
+        };
+    }
+}
@@ -0,0 +1,173 @@
+package com.research.iterator;
+
+import java.util.*;
+
+/**
+ * KeyValueLoserTree merges k sorted key/value cursors by key.
+ *
+ * <p>Same flat-array tournament as {@link LoserTreeIterator}, but the tree holds
+ * only each source's current key (next to its source index); values never
+ * enter the tree. {@link #value()} reads the winner's value straight from the
+ * winning cursor, so a merge of (key, payload) records costs one key comparison
+ * path per element and no per-element tuple.
+ *
+ * <p>This is a cursor rather than an {@code Iterator}: {@link #advance()} moves to
+ * the record with the next smallest key, which stays readable through
+ * {@link #key()}, {@link #value()} and {@link #source()} until the next advance.
+ * The winning cursor is advanced lazily at that point. Records with equal keys
+ * are returned one after another, in no particular source order.
+ *
+ * <p>Complexity: O(N log k) time, O(k) space
+ *
+ * @param <K> key type, must be Comparable
+ * @param <V> value type
+ */
+public class KeyValueLoserTree<K extends Comparable<? super K>, V> extends AbstractLoserTree {
+
+    private static final String ENGINE = "KeyValueLoserTree";
+
+    private final List<KeyValueCursor<K, V>> sources;
+    private final K[] keys;             // Current key per source (null = exhausted)
+    private boolean started;            // advance() has been called at least once
+    private boolean exhausted;
+    private int pendingPulls;
+
+    /**
+     * Constructs a KeyValueLoserTree over sorted cursors.
+     *
+     * @param sources list of cursors sorted by key (must not be null or contain nulls)
+     * @throws IllegalArgumentException if sources is empty or contains nulls
+     */
+    public KeyValueLoserTree(List<? extends KeyValueCursor<K, V>> sources) {
+        this(sources, MergeMetrics.NONE);
+    }
+
+    /**
+     * Constructs an instrumented KeyValueLoserTree.
+     *
+     * @param sources list of cursors sorted by key (must not be null or contain nulls)
+     * @param metrics instrumentation hook (use {@link MergeMetrics#NONE} to disable)
+     * @throws IllegalArgumentException if sources is empty or contains nulls
+     */
+    @SuppressWarnings("unchecked")
+    public KeyValueLoserTree(List<? extends KeyValueCursor<K, V>> sources, MergeMetrics metrics) {
+        super(checkSources(sources, "sources"), metrics);
+        long start = System.nanoTime();
+        MergeBuildEvent build = MergeEvents.beginBuild();
+
+        this.sources = new ArrayList<>(sources);
+        // Erasure of K is Comparable, so this array is safe to use as K[] internally
+        this.keys = (K[]) new Comparable[k];
+
+        for (int i = 0; i < k; i++) {
+            pull(i);
+        }
+        buildTree();
+
+        MergeEvents.endBuild(build, ENGINE, k);
+        metrics.onBuild(k, System.nanoTime() - start);
+    }
+
+    /**
+     * Moves to the record with the next smallest key.
+     *
+     * @return true if a record is available, false once every source is exhausted
+     */
+    public boolean advance() {
+        if (exhausted) {
+            return false;
+        }
+        if (started) {
+            refill();
+        }
+        started = true;
+        if (keys[winnerIndex] == null) {
+            // Winner is exhausted only when every source is
+            exhausted = true;
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Advances the previous winner's cursor and replays its leaf-to-root path.
+     */
+    private void refill() {
+        int candidate = winnerIndex;
+        pull(candidate);
+        replay(candidate);
+    }
+
+    /**
+     * Returns true if source a's key is strictly smaller than source b's.
+     * Exhausted sources lose to everything.
+     */
+    @Override
+    final boolean beats(int a, int b) {
+        metrics.onComparison();
+        K x = keys[a];
+        K y = keys[b];
+        if (x == null) return false;
+        if (y == null) return true;
+        return x.compareTo(y) < 0;
+    }
+
+    /**
+     * Advances a cursor and caches its key, or marks it exhausted.
+     */
+    private void pull(int source) {
+        KeyValueCursor<K, V> cursor = sources.get(source);
+        SourceStallEvent fetch = MergeEvents.beginFetch();
+        boolean advanced = cursor.advance();
+        MergeEvents.endFetch(fetch, ENGINE, source);
+        if (advanced) {
+            keys[source] = Objects.requireNonNull(cursor.currentKey(), "cursor returned a null key");
+            metrics.onPull(source);
+            if (++pendingPulls == MergeEvents.PULL_BATCH) {
+                MergeEvents.pulled(pendingPulls);
+                pendingPulls = 0;
+            }
+        } else {
+            keys[source] = null;
+            MergeEvents.exhausted(ENGINE, source, pendingPulls);
+            pendingPulls = 0;
+            metrics.onExhausted(source);
+        }
+    }
+
+    /**
+     * Returns the key of the current record.
+     *
+     * @throws IllegalStateException if there is no current record
+     */
+    public K key() {
+        checkCurrent();
+        return keys[winnerIndex];
+    }
+
+    /**
+     * Returns the value of the current record, read from the winning cursor.
+     *
+     * @throws IllegalStateException if there is no current record
+     */
+    public V value() {
+        checkCurrent();
+        return sources.get(winnerIndex).currentValue();
+    }
+
+    /**
+     * Returns the index of the source that produced the current record.
+     *
+     * @throws IllegalStateException if there is no current record
+     */
+    public int source() {
+        checkCurrent();
+        return winnerIndex;
+    }
+
+    private void checkCurrent() {
+        if (!started || exhausted) {
+            throw new IllegalStateException("no current record; call advance() first");
+        }
+    }
+}
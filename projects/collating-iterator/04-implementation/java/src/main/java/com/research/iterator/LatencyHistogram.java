@@ -0,0 +1,143 @@
+package com.research.iterator;
+
+import java.util.*;
+
+/**
+ * Log-bucketed latency histogram with fixed memory and O(1) recording.
+ *
+ * <p>Values below 32 get exact buckets; above that every power of two is
+ * split into 32 linear sub-buckets, so any recorded value is reported within
+ * about 3% (HdrHistogram-style layout with 5 sub-bucket bits). The whole
+ * long range fits in 1,888 counters (~15 KB), independent of sample count.
+ *
+ * <p>Not thread-safe: use one histogram per thread and {@link #add} them.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BITS = 5;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int BUCKETS = (64 - SUB_BITS) * SUB_COUNT;
+
+    private final long[] counts = new long[BUCKETS];
+    private long totalCount;
+    private long sum;
+    private long min = Long.MAX_VALUE;
+    private long max;
+
+    /**
+     * Records one value (negative values are recorded as 0).
+     */
+    public void record(long value) {
+        long v = Math.max(0, value);
+        counts[indexOf(v)]++;
+        totalCount++;
+        sum += v;
+        if (v < min) {
+            min = v;
+        }
+        if (v > max) {
+            max = v;
+        }
+    }
+
+    /**
+     * Adds all values recorded in other to this histogram.
+     */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * Clears all recorded values.
+     */
+    public void reset() {
+        Arrays.fill(counts, 0);
+        totalCount = 0;
+        sum = 0;
+        min = Long.MAX_VALUE;
+        max = 0;
+    }
+
+    /**
+     * Returns the value at the given quantile, as the upper bound of its bucket
+     * (clamped to the largest recorded value).
+     *
+     * @param quantile in [0, 1], e.g. 0.999 for p99.9
+     * @return value at the quantile, or 0 if nothing was recorded
+     */
+    public long percentile(double quantile) {
+        if (quantile < 0 || quantile > 1) {
+            throw new IllegalArgumentException("quantile must be in [0, 1]: " + quantile);
+        }
+        if (totalCount == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * totalCount));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(max, Math.max(min, upperBoundOf(i)));
+            }
+        }
+        return max;
+    }
+
+    /**
+     * @return number of recorded values
+     */
+    public long count() {
+        return totalCount;
+    }
+
+    /**
+     * @return smallest recorded value, or 0 if nothing was recorded
+     */
+    public long min() {
+        return totalCount == 0 ? 0 : min;
+    }
+
+    /**
+     * @return largest recorded value, or 0 if nothing was recorded
+     */
+    public long max() {
+        return max;
+    }
+
+    /**
+     * @return mean of recorded values, or 0 if nothing was recorded
+     */
+    public double mean() {
+        return totalCount == 0 ? 0.0 : (double) sum / totalCount;
+    }
+
+    private static int indexOf(long value) {
+        if (value < SUB_COUNT) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+        int sub = (int) (value >>> shift);  // In [SUB_COUNT, 2 * SUB_COUNT)
+        return (shift + 1) * SUB_COUNT + (sub - SUB_COUNT);
+    }
+
+    private static long upperBoundOf(int index) {
+        if (index < SUB_COUNT) {
+            return index;
+        }
+        int shift = index / SUB_COUNT - 1;
+        long sub = index % SUB_COUNT + SUB_COUNT;
+        return ((sub + 1) << shift) - 1;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("count=%d p50=%d p99=%d p99.9=%d max=%d",
+            count(), percentile(0.50), percentile(0.99), percentile(0.999), max());
+    }
+}
@@ -0,0 +1,77 @@
+package com.research.iterator;
+
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * Instrumentation wrapper that times a merge engine's construction and every next() call.
+ *
+ * <p>Tail latency of an interactive merge comes from individual slow calls:
+ * a loser tree pays its whole build cost in the constructor, and a blocking
+ * source pays on the next() that refills from it. This wrapper constructs the
+ * engine itself so construction is measured too, then records each next()
+ * into a {@link LatencyHistogram}.
+ *
+ * <p>Time to first element is construction plus the first next() call.
+ * Each timed call costs two {@code System.nanoTime()} reads (~20-50 ns), so
+ * use it for latency investigations rather than throughput numbers.
+ *
+ * @param <T> element type
+ */
+public class LatencyTrackingIterator<T> implements Iterator<T> {
+
+    private final Iterator<T> delegate;
+    private final LatencyHistogram nextLatency;
+    private final long constructionNanos;
+    private long timeToFirstElementNanos = -1;
+
+    /**
+     * Constructs the engine and starts tracking.
+     *
+     * @param engine creates the merge engine, e.g. {@code () -> new LoserTreeIterator<>(sources)}
+     * @param nextLatency histogram receiving one value per next() call, in nanoseconds
+     */
+    public LatencyTrackingIterator(Supplier<? extends Iterator<T>> engine, LatencyHistogram nextLatency) {
+        Objects.requireNonNull(engine, "engine must not be null");
+        this.nextLatency = Objects.requireNonNull(nextLatency, "nextLatency must not be null");
+        long start = System.nanoTime();
+        this.delegate = engine.get();
+        this.constructionNanos = System.nanoTime() - start;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return delegate.hasNext();
+    }
+
+    @Override
+    public T next() {
+        long start = System.nanoTime();
+        T value = delegate.next();
+        long elapsed = System.nanoTime() - start;
+        nextLatency.record(elapsed);
+        if (timeToFirstElementNanos < 0) {
+            timeToFirstElementNanos = constructionNanos + elapsed;
+        }
+        return value;
+    }
+
+    /**
+     * @return nanoseconds spent constructing the engine
+     */
+    public long constructionNanos() {
+        return constructionNanos;
+    }
+
+    /**
+     * @return construction plus first next() in nanoseconds, or -1 before the first element
+     */
+    public long timeToFirstElementNanos() {
+        return timeToFirstElementNanos;
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException("remove() not supported");
+    }
+}
@@ -18,9 +18,13 @@ import java.util.*;
  */
 public class LinearScanIterator<T extends Comparable<? super T>> implements Iterator<T> {
 
+    private static final String ENGINE = "LinearScan";
+
     private final List<Iterator<T>> sources;
     private final List<T> currentValues;  // Cached current value from each iterator
     private final int k;
+    private final MergeMetrics metrics;
+    private int pendingPulls;  // Pulls not yet published to MergeEvents
 
     /**
      * Constructs a LinearScanIterator from multiple sorted iterators.
@@ -29,6 +33,20 @@ public class LinearScanIterator<T extends Comparable<? super T>> implements Iter
      * @throws IllegalArgumentException if iterators is null, empty, or contains nulls
      */
     public LinearScanIterator(List<? extends Iterator<T>> iterators) {
+        this(iterators, MergeMetrics.NONE);
+    }
+
+    /**
+     * Constructs an instrumented LinearScanIterator.
+     *
+     * @param iterators list of sorted iterators (must not be null or contain nulls)
+     * @param metrics instrumentation hook (use {@link MergeMetrics#NONE} to disable)
+     * @throws IllegalArgumentException if iterators is null, empty, or contains nulls
+     */
+    public LinearScanIterator(List<? extends Iterator<T>> iterators, MergeMetrics metrics) {
+        long start = System.nanoTime();
+        MergeBuildEvent build = MergeEvents.beginBuild();
+        Objects.requireNonNull(metrics, "metrics must not be null");
         Objects.requireNonNull(iterators, "iterators must not be null");
         if (iterators.isEmpty()) {
             throw new IllegalArgumentException("iterators must not be empty");
@@ -40,13 +58,15 @@ public class LinearScanIterator<T extends Comparable<? super T>> implements Iter
         this.sources = new ArrayList<>(iterators);
         this.k = iterators.size();
         this.currentValues = new ArrayList<>(Collections.nCopies(k, null));
+        this.metrics = metrics;
 
         // Initialize: load first element from each iterator
         for (int i = 0; i < k; i++) {
-            if (sources.get(i).hasNext()) {
-                currentValues.set(i, sources.get(i).next());
-            }
+            currentValues.set(i, pull(i));
         }
+
+        MergeEvents.endBuild(build, ENGINE, k);
+        metrics.onBuild(k, System.nanoTime() - start);
     }
 
     @Override
@@ -69,27 +89,53 @@ public class LinearScanIterator<T extends Comparable<? super T>> implements Iter
         // Linear scan to find minimum
         int minIndex = -1;
         T minValue = null;
+        metrics.onReplay();
 
         for (int i = 0; i < k; i++) {
             T value = currentValues.get(i);
             if (value != null) {
-                if (minValue == null || value.compareTo(minValue) < 0) {
+                if (minValue == null) {
                     minValue = value;
                     minIndex = i;
+                } else {
+                    metrics.onComparison();
+                    if (value.compareTo(minValue) < 0) {
+                        minValue = value;
+                        minIndex = i;
+                    }
                 }
             }
         }
 
-        // Refill from source
-        if (sources.get(minIndex).hasNext()) {
-            currentValues.set(minIndex, sources.get(minIndex).next());
-        } else {
-            currentValues.set(minIndex, null);  // Exhausted
-        }
+        // Refill from source (null marks it exhausted)
+        currentValues.set(minIndex, pull(minIndex));
 
         return minValue;
     }
 
+    /**
+     * Pulls the next element from a source, or returns null if it is exhausted.
+     */
+    private T pull(int source) {
+        Iterator<T> iterator = sources.get(source);
+        SourceStallEvent fetch = MergeEvents.beginFetch();
+        if (iterator.hasNext()) {
+            T value = iterator.next();
+            MergeEvents.endFetch(fetch, ENGINE, source);
+            metrics.onPull(source);
+            if (++pendingPulls == MergeEvents.PULL_BATCH) {
+                MergeEvents.pulled(pendingPulls);
+                pendingPulls = 0;
+            }
+            return value;
+        }
+        MergeEvents.endFetch(fetch, ENGINE, source);
+        MergeEvents.exhausted(ENGINE, source, pendingPulls);
+        pendingPulls = 0;
+        metrics.onExhausted(source);
+        return null;
+    }
+
     @Override
     public void remove() {
         throw new UnsupportedOperationException("remove() not supported");
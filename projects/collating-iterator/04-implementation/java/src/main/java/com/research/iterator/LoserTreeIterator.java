@@ -1,6 +1,10 @@
 package com.research.iterator;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 
 /**
  * LoserTreeIterator merges k sorted iterators using a loser tournament tree.
@@ -12,29 +16,24 @@ import java.util.*;
  * - Knuth TAOCP Vol 3 §5.4.1 (loser tree preferred over winner tree)
  * - Grafana Labs 2024 production deployment (Loki, Pyroscope, Prometheus)
  *
+ * <p>Layout: the tree lives in two flat arrays. {@code heads[i]} is the current
+ * element of source i (null once exhausted), and {@code tree[1..k-1]} holds the
+ * source index of the loser at each internal node. Source i is the implicit
+ * leaf k + i, and node n's parent is n / 2, so a replay walks from leaf to root
+ * without touching any node objects.
+ *
  * @param <T> element type, must be Comparable
  */
-public class LoserTreeIterator<T extends Comparable<? super T>> implements Iterator<T> {
-
-    /**
-     * Tournament tree node storing a loser of a comparison.
-     */
-    private static class Node<T> {
-        T value;
-        int sourceIndex;
+public class LoserTreeIterator<T extends Comparable<? super T>> extends AbstractLoserTree implements Iterator<T> {
 
-        Node(T value, int sourceIndex) {
-            this.value = value;
-            this.sourceIndex = sourceIndex;
-        }
-    }
+    private static final String ENGINE = "LoserTree";
 
+    private final String engine;   // Engine name in JFR events
+    private final int firstSource; // Offset added to source indices in JFR events
     private final List<Iterator<T>> sources;
-    private final Node<T>[] tree;  // Internal nodes store losers
-    private int winnerIndex;       // Overall winner
-    private T winnerValue;         // Winner's value
-    private final int k;           // Number of iterators
+    private final T[] heads;       // Current element per source (null = exhausted)
     private boolean exhausted;
+    private int pendingPulls;      // Pulls not yet published to MergeEvents
 
     /**
      * Constructs a LoserTreeIterator from multiple sorted iterators.
@@ -42,118 +41,99 @@ public class LoserTreeIterator<T extends Comparable<? super T>> implements Itera
      * @param iterators list of sorted iterators (must not be null or contain nulls)
      * @throws IllegalArgumentException if iterators is null, empty, or contains nulls
      */
-    @SuppressWarnings("unchecked")
     public LoserTreeIterator(List<? extends Iterator<T>> iterators) {
-        Objects.requireNonNull(iterators, "iterators must not be null");
-        if (iterators.isEmpty()) {
-            throw new IllegalArgumentException("iterators must not be empty");
-        }
-        if (iterators.contains(null)) {
-            throw new IllegalArgumentException("iterators must not contain null");
-        }
-
-        this.sources = new ArrayList<>(iterators);
-        this.k = iterators.size();
+        this(iterators, MergeMetrics.NONE);
+    }
 
-        // Tree has k-1 internal nodes (stores losers)
-        this.tree = (Node<T>[]) new Node[Math.max(1, k - 1)];
+    /**
+     * Constructs an instrumented LoserTreeIterator.
+     *
+     * @param iterators list of sorted iterators (must not be null or contain nulls)
+     * @param metrics instrumentation hook (use {@link MergeMetrics#NONE} to disable)
+     * @throws IllegalArgumentException if iterators is null, empty, or contains nulls
+     */
+    public LoserTreeIterator(List<? extends Iterator<T>> iterators, MergeMetrics metrics) {
+        this(iterators, metrics, null);
+    }
 
-        // Initialize tournament tree
-        buildTree();
+    /**
+     * Constructs a LoserTreeIterator, fetching the first element of every source
+     * concurrently on an executor.
+     *
+     * <p>With I/O-backed sources, a serial first fetch makes time to first element
+     * the sum of all source latencies; fetching concurrently bounds it by the
+     * slowest source. Each source is touched by exactly one task during
+     * construction and only by the calling thread afterwards.
+     *
+     * @param iterators list of sorted iterators (must not be null or contain nulls)
+     * @param metrics instrumentation hook (use {@link MergeMetrics#NONE} to disable)
+     * @param firstFetch executor for the first-element fetches, or null to fetch serially
+     * @throws IllegalArgumentException if iterators is null, empty, or contains nulls
+     */
+    public LoserTreeIterator(List<? extends Iterator<T>> iterators, MergeMetrics metrics, Executor firstFetch) {
+        this(iterators, metrics, firstFetch, null, 0);
     }
 
     /**
-     * Builds the initial loser tournament tree.
+     * Constructs a loser tree that merges one group of another engine's
+     * sources. Its JFR events carry that engine's name and the sources'
+     * indices in the engine, and it records no build event of its own: the
+     * enclosing engine's build covers it.
      *
-     * Algorithm:
-     * 1. Load first element from each non-empty iterator
-     * 2. Build tree bottom-up by comparing pairs
-     * 3. Winners advance, losers stored in tree nodes
-     * 4. Final winner stored separately
+     * @param iterators the group's sorted iterators (must not be null or contain nulls)
+     * @param metrics instrumentation hook (use {@link MergeMetrics#NONE} to disable)
+     * @param owner name of the enclosing engine
+     * @param firstSource index of the group's first source in the enclosing engine
+     * @throws IllegalArgumentException if iterators is null, empty, or contains nulls
      */
-    private void buildTree() {
-        // Handle edge cases
-        if (k == 1) {
-            // Single iterator - no tree needed
-            if (sources.get(0).hasNext()) {
-                winnerValue = sources.get(0).next();
-                winnerIndex = 0;
-                exhausted = false;
-            } else {
-                exhausted = true;
-            }
-            return;
-        }
+    LoserTreeIterator(List<? extends Iterator<T>> iterators, MergeMetrics metrics, String owner, int firstSource) {
+        this(iterators, metrics, null, Objects.requireNonNull(owner, "owner must not be null"), firstSource);
+    }
 
-        // Initial values from each iterator (or null if exhausted)
-        @SuppressWarnings("unchecked")
-        Node<T>[] players = (Node<T>[]) new Node[k];
+    @SuppressWarnings("unchecked")
+    private LoserTreeIterator(List<? extends Iterator<T>> iterators, MergeMetrics metrics, Executor firstFetch,
+                              String owner, int firstSource) {
+        super(checkSources(iterators, "iterators"), metrics);
+        long start = System.nanoTime();
+        MergeBuildEvent build = owner == null ? MergeEvents.beginBuild() : null;
+
+        this.engine = owner == null ? ENGINE : owner;
+        this.firstSource = firstSource;
+        this.sources = new ArrayList<>(iterators);
 
-        for (int i = 0; i < k; i++) {
-            if (sources.get(i).hasNext()) {
-                players[i] = new Node<>(sources.get(i).next(), i);
-            } else {
-                // Exhausted iterator - use sentinel (null value, will always lose)
-                players[i] = new Node<>(null, i);
-            }
-        }
+        // Erasure of T is Comparable, so this array is safe to use as T[] internally
+        this.heads = (T[]) new Comparable[k];
 
-        // Build tree bottom-up
-        // Tournament with k players needs ⌈log₂ k⌉ rounds
-        int treeIndex = 0;
-        List<Node<T>> currentRound = Arrays.asList(players);
-
-        while (currentRound.size() > 1) {
-            List<Node<T>> nextRound = new ArrayList<>();
-
-            for (int i = 0; i < currentRound.size(); i += 2) {
-                if (i + 1 < currentRound.size()) {
-                    // Pair exists - compare
-                    Node<T> a = currentRound.get(i);
-                    Node<T> b = currentRound.get(i + 1);
-
-                    Node<T> winner, loser;
-                    if (compare(a, b) <= 0) {
-                        winner = a;
-                        loser = b;
-                    } else {
-                        winner = b;
-                        loser = a;
-                    }
-
-                    if (treeIndex < tree.length) {
-                        tree[treeIndex++] = loser;
-                    }
-                    nextRound.add(winner);
-                } else {
-                    // Odd one out - advances automatically (bye)
-                    nextRound.add(currentRound.get(i));
-                }
+        if (firstFetch == null) {
+            for (int i = 0; i < k; i++) {
+                heads[i] = pull(i);
             }
-
-            currentRound = nextRound;
+        } else {
+            fetchHeadsConcurrently(firstFetch);
         }
 
-        // Final winner
-        if (!currentRound.isEmpty()) {
-            Node<T> winner = currentRound.get(0);
-            winnerIndex = winner.sourceIndex;
-            winnerValue = winner.value;
-            exhausted = (winnerValue == null);
-        } else {
-            exhausted = true;
+        // Initialize tournament tree
+        buildTree();
+        exhausted = (heads[winnerIndex] == null);
+
+        if (build != null) {
+            MergeEvents.endBuild(build, ENGINE, k);
         }
+        metrics.onBuild(k, System.nanoTime() - start);
     }
 
     /**
-     * Compares two nodes, handling null (exhausted) values.
-     * Null values are treated as "greater than" any non-null value.
+     * Returns true if source a's head is strictly smaller than source b's.
+     * Exhausted sources (null heads) lose to everything.
      */
-    private int compare(Node<T> a, Node<T> b) {
-        if (a.value == null && b.value == null) return 0;
-        if (a.value == null) return 1;  // null > non-null
-        if (b.value == null) return -1; // non-null < null
-        return a.value.compareTo(b.value);
+    @Override
+    final boolean beats(int a, int b) {
+        metrics.onComparison();
+        T x = heads[a];
+        T y = heads[b];
+        if (x == null) return false;
+        if (y == null) return true;
+        return x.compareTo(y) < 0;
     }
 
     @Override
@@ -167,7 +147,7 @@ public class LoserTreeIterator<T extends Comparable<? super T>> implements Itera
             throw new NoSuchElementException("Iterator exhausted");
         }
 
-        T result = winnerValue;
+        T result = heads[winnerIndex];
 
         // Refill from winner's source
         refill();
@@ -176,82 +156,153 @@ public class LoserTreeIterator<T extends Comparable<? super T>> implements Itera
     }
 
     /**
-     * Refills the tournament after extracting the winner.
+     * Passes every element equal to the current minimum, from all sources, to
+     * the action, and advances past them.
      *
-     * Loser tree advantage: Only compare new element against losers on path to root.
-     * No sibling access required (simpler than winner tree).
+     * <p>Equivalent to calling {@code next()} while the result compares equal to
+     * the first one, but each contributing source's run of duplicates is read
+     * directly from the source, and the tree is replayed once per contributing
+     * source instead of once per element. Elements arrive grouped by source.
      *
-     * Algorithm:
-     * 1. Replace winner with next element from its source (or null if exhausted)
-     * 2. Traverse path from leaf to root
-     * 3. At each level, compare new element against stored loser
-     * 4. If new loses, swap and continue with old winner
-     * 5. Final value becomes new winner
+     * @param action receives each element of the group
+     * @return number of elements in the group
+     * @throws NoSuchElementException if the iterator is exhausted
      */
-    private void refill() {
-        if (k == 1) {
-            // Single iterator - just advance
-            if (sources.get(0).hasNext()) {
-                winnerValue = sources.get(0).next();
-            } else {
-                exhausted = true;
-            }
-            return;
-        }
+    public int nextGroup(Consumer<? super T> action) {
+        return nextGroup(action, null);
+    }
 
-        // Get next element from winner's source
-        T newValue;
-        if (sources.get(winnerIndex).hasNext()) {
-            newValue = sources.get(winnerIndex).next();
-        } else {
-            // Source exhausted - use sentinel
-            newValue = null;
+    /**
+     * Like {@link #nextGroup(Consumer)}, also reporting which sources
+     * contributed to the group.
+     *
+     * @param action receives each element of the group
+     * @param contributors cleared, then set at the index of every contributing source (may be null)
+     * @return number of elements in the group
+     * @throws NoSuchElementException if the iterator is exhausted
+     */
+    public int nextGroup(Consumer<? super T> action, BitSet contributors) {
+        Objects.requireNonNull(action, "action must not be null");
+        if (!hasNext()) {
+            throw new NoSuchElementException("Iterator exhausted");
+        }
+        if (contributors != null) {
+            contributors.clear();
         }
 
-        int currentSource = winnerIndex;
-        T currentValue = newValue;
-
-        // Replay tournament: compare against losers on path to root
-        // Path determination: winner came from specific position in original tournament
-        // For simplicity in this implementation, we rebuild the path dynamically
+        T key = heads[winnerIndex];
+        int size = 0;
+        do {
+            int source = winnerIndex;
+            if (contributors != null) {
+                contributors.set(source);
+            }
+            // Drain this source's run of equal elements without touching the tree
+            T value = heads[source];
+            do {
+                action.accept(value);
+                size++;
+                value = pull(source);
+            } while (value != null && equal(value, key));
+            heads[source] = value;
+            advanceWinner(source);
+        } while (!exhausted && equal(heads[winnerIndex], key));
+        return size;
+    }
 
-        // Simple approach: Do full tournament replay comparing against all tree nodes
-        // This maintains correctness while keeping implementation straightforward
-        for (int i = 0; i < tree.length; i++) {
-            if (tree[i] != null) {
-                int cmp = compareValues(currentValue, tree[i].value);
-                if (cmp > 0) {
-                    // Current loses - swap
-                    T tempValue = tree[i].value;
-                    int tempIndex = tree[i].sourceIndex;
+    private boolean equal(T value, T key) {
+        metrics.onComparison();
+        return value.compareTo(key) == 0;
+    }
 
-                    tree[i].value = currentValue;
-                    tree[i].sourceIndex = currentSource;
+    /**
+     * Refills the tournament after extracting the winner: replaces the winner's
+     * head with the next element from its source (or null if exhausted) and
+     * replays its path.
+     */
+    private void refill() {
+        heads[winnerIndex] = pull(winnerIndex);
+        advanceWinner(winnerIndex);
+    }
 
-                    currentValue = tempValue;
-                    currentSource = tempIndex;
-                }
-            }
+    /**
+     * Replays a source's path after its head changed.
+     */
+    private void advanceWinner(int source) {
+        // Winner is exhausted only when every source is
+        if (heads[replay(source)] == null) {
+            exhausted = true;
         }
+    }
 
-        // Final winner
-        winnerValue = currentValue;
-        winnerIndex = currentSource;
+    /**
+     * Pulls the next element from a source, or returns null if it is exhausted.
+     */
+    private T pull(int source) {
+        Iterator<T> iterator = sources.get(source);
+        SourceStallEvent fetch = MergeEvents.beginFetch();
+        if (iterator.hasNext()) {
+            T value = iterator.next();
+            MergeEvents.endFetch(fetch, engine, firstSource + source);
+            recordPull(source);
+            return value;
+        }
+        MergeEvents.endFetch(fetch, engine, firstSource + source);
+        recordExhausted(source);
+        return null;
+    }
 
-        // Check if all iterators exhausted
-        if (winnerValue == null) {
-            exhausted = true;
+    private void recordPull(int source) {
+        metrics.onPull(source);
+        if (++pendingPulls == MergeEvents.PULL_BATCH) {
+            MergeEvents.pulled(pendingPulls);
+            pendingPulls = 0;
         }
     }
 
+    private void recordExhausted(int source) {
+        MergeEvents.exhausted(engine, firstSource + source, pendingPulls);
+        pendingPulls = 0;
+        metrics.onExhausted(source);
+    }
+
     /**
-     * Compares two values, handling nulls (exhausted iterators).
+     * Fetches every source's first element on the executor, then records the
+     * pulls on the calling thread (metrics are single-writer).
      */
-    private int compareValues(T a, T b) {
-        if (a == null && b == null) return 0;
-        if (a == null) return 1;
-        if (b == null) return -1;
-        return a.compareTo(b);
+    private void fetchHeadsConcurrently(Executor executor) {
+        List<CompletableFuture<T>> fetches = new ArrayList<>(k);
+        for (int i = 0; i < k; i++) {
+            Iterator<T> iterator = sources.get(i);
+            int source = i;
+            fetches.add(CompletableFuture.supplyAsync(() -> {
+                SourceStallEvent fetch = MergeEvents.beginFetch();
+                T value = iterator.hasNext() ? iterator.next() : null;
+                MergeEvents.endFetch(fetch, engine, firstSource + source);
+                return value;
+            }, executor));
+        }
+
+        for (int i = 0; i < k; i++) {
+            try {
+                heads[i] = fetches.get(i).join();
+            } catch (CompletionException e) {
+                fetches.forEach(f -> f.cancel(false));
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw e;
+            }
+            if (heads[i] != null) {
+                recordPull(i);
+            } else {
+                recordExhausted(i);
+            }
+        }
     }
 
     @Override
@@ -0,0 +1,174 @@
+package com.research.iterator;
+
+import java.util.*;
+
+/**
+ * Flat loser tree loaded by {@link SpecializedMerges} as a separate class per
+ * element type (and comparator class), so every copy has its own
+ * monomorphic comparison site.
+ *
+ * <p>Same layout and replay as {@link LoserTreeIterator}. The JIT profiles
+ * receiver types per method per class, so when one JVM merges Integer, Long
+ * and String through a single class, the {@code compareTo} call in
+ * {@link #beats} sees three receivers, goes megamorphic, and stops being
+ * inlined for all of them. A copy that only ever sees one type keeps it inlined.
+ *
+ * <p>Copies are defined by their own class loader and so live in a different
+ * runtime package: this class must reference only public types and must not
+ * have nested classes or lambdas. It reaches the JFR events through the
+ * public per-pull hooks of {@link MergeEvents}; {@link SpecializedMerges}
+ * records the build event, which also covers defining the copy.
+ *
+ * <p>For the same reason it cannot extend the package-private
+ * {@code AbstractLoserTree} that every other loser-tree engine shares, and
+ * keeps its own copy of the build and replay. This is the only intentional
+ * fork of that kernel: keep it self-contained, and keep it in step with
+ * {@code AbstractLoserTree} when either changes.
+ *
+ * @param <T> element type
+ */
+public final class LoserTreeKernel<T> implements Iterator<T> {
+
+    static final String ENGINE = "SpecializedLoserTree";
+
+    private final Iterator<? extends T>[] sources;
+    private final Object[] heads;       // Current element per source (null = exhausted)
+    private final int[] tree;           // tree[n] = source index of the loser at node n (n >= 1)
+    private final Comparator<? super T> comparator;  // null = natural order
+    private final int k;
+    private int winnerIndex;
+    private final MergeMetrics metrics;
+    private int pendingPulls;
+
+    /**
+     * Constructs a merge; use {@link SpecializedMerges} to get a per-type copy.
+     *
+     * @param iterators list of sorted iterators (must not be null or contain nulls)
+     * @param comparator element order, or null for natural order
+     * @param metrics instrumentation hook (use {@link MergeMetrics#NONE} to disable)
+     * @throws IllegalArgumentException if iterators is empty or contains nulls
+     */
+    @SuppressWarnings("unchecked")
+    public LoserTreeKernel(List<? extends Iterator<? extends T>> iterators, Comparator<? super T> comparator,
+                           MergeMetrics metrics) {
+        long start = System.nanoTime();
+        Objects.requireNonNull(metrics, "metrics must not be null");
+        Objects.requireNonNull(iterators, "iterators must not be null");
+        if (iterators.isEmpty()) {
+            throw new IllegalArgumentException("iterators must not be empty");
+        }
+        if (iterators.contains(null)) {
+            throw new IllegalArgumentException("iterators must not contain null");
+        }
+
+        this.sources = iterators.toArray(new Iterator[0]);
+        this.k = sources.length;
+        this.comparator = comparator;
+        this.metrics = metrics;
+        this.heads = new Object[k];
+        this.tree = new int[k];
+
+        for (int i = 0; i < k; i++) {
+            pull(i);
+        }
+        buildTree();
+
+        metrics.onBuild(k, System.nanoTime() - start);
+    }
+
+    /**
+     * Builds the tournament in place in O(k) comparisons: subtree winners
+     * bottom-up, then losers top-down (the forked copy; see the class doc).
+     */
+    private void buildTree() {
+        for (int node = k - 1; node >= 1; node--) {
+            int left = subtreeWinner(2 * node);
+            int right = subtreeWinner(2 * node + 1);
+            tree[node] = beats(right, left) ? right : left;
+        }
+
+        winnerIndex = k == 1 ? 0 : tree[1];
+
+        for (int node = 1; node < k; node++) {
+            int left = subtreeWinner(2 * node);
+            int right = subtreeWinner(2 * node + 1);
+            tree[node] = (tree[node] == left) ? right : left;
+        }
+    }
+
+    private int subtreeWinner(int node) {
+        return node >= k ? node - k : tree[node];
+    }
+
+    @Override
+    public boolean hasNext() {
+        // Winner is exhausted only when every source is
+        return heads[winnerIndex] != null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("Iterator exhausted");
+        }
+        int candidate = winnerIndex;
+        T result = (T) heads[candidate];
+        pull(candidate);
+        metrics.onReplay();
+
+        for (int node = (k + candidate) >>> 1; node >= 1; node >>>= 1) {
+            int loser = tree[node];
+            if (beats(loser, candidate)) {
+                tree[node] = candidate;
+                candidate = loser;
+            }
+        }
+
+        winnerIndex = candidate;
+        return result;
+    }
+
+    /**
+     * Returns true if source a's head is strictly smaller than source b's.
+     * Exhausted sources lose to everything. The comparison here is the call
+     * site each per-type copy keeps monomorphic.
+     */
+    @SuppressWarnings("unchecked")
+    private boolean beats(int a, int b) {
+        metrics.onComparison();
+        Object x = heads[a];
+        Object y = heads[b];
+        if (x == null) return false;
+        if (y == null) return true;
+        if (comparator == null) {
+            return ((Comparable<Object>) x).compareTo(y) < 0;
+        }
+        return comparator.compare((T) x, (T) y) < 0;
+    }
+
+    private void pull(int source) {
+        Iterator<? extends T> iterator = sources[source];
+        SourceStallEvent fetch = MergeEvents.beginFetch();
+        if (iterator.hasNext()) {
+            heads[source] = iterator.next();
+            MergeEvents.endFetch(fetch, ENGINE, source);
+            metrics.onPull(source);
+            if (++pendingPulls == MergeEvents.PULL_BATCH) {
+                MergeEvents.pulled(pendingPulls);
+                pendingPulls = 0;
+            }
+        } else {
+            heads[source] = null;
+            MergeEvents.endFetch(fetch, ENGINE, source);
+            MergeEvents.exhausted(ENGINE, source, pendingPulls);
+            pendingPulls = 0;
+            metrics.onExhausted(source);
+        }
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException("remove() not supported");
+    }
+}
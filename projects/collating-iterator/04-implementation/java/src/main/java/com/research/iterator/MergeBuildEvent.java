@@ -0,0 +1,31 @@
+package com.research.iterator;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event spanning construction of a merge engine, including the first-element
+ * fetch from every source and the initial tree/heap build.
+ *
+ * <p>Disabled by default; enable {@code com.research.iterator.MergeBuild} in a
+ * JFR configuration to record it.
+ */
+@Name("com.research.iterator.MergeBuild")
+@Label("Merge Build")
+@Category({"Collating Iterator"})
+@Description("Construction of a k-way merge, including first-element fetches")
+@Enabled(false)
+@StackTrace(false)
+public class MergeBuildEvent extends jdk.jfr.Event {
+
+    @Label("Engine")
+    String engine;
+
+    @Label("Sources")
+    @Description("Number of source iterators (k)")
+    int k;
+}
@@ -0,0 +1,85 @@
+package com.research.iterator;
+
+import java.nio.ByteBuffer;
+import java.util.*;
+
+/**
+ * Snapshot of a {@link CheckpointableMerge}'s position.
+ *
+ * <p>For each source it records the position of the source's pending head,
+ * the element the tree holds but has not emitted yet, or -1 once the source
+ * is exhausted. Heads are stored by position, not by value: on restore each
+ * source seeks back and reads its head again, so no element codec is needed.
+ *
+ * <p>Serialized form: k (int), emitted (long), then k positions (long), 12 + 8k bytes.
+ */
+public final class MergeCheckpoint {
+
+    private final long emitted;
+    private final long[] positions;
+
+    MergeCheckpoint(long emitted, long[] positions) {
+        this.emitted = emitted;
+        this.positions = positions;
+    }
+
+    /**
+     * Returns the number of elements the merge had emitted at the checkpoint.
+     */
+    public long emitted() {
+        return emitted;
+    }
+
+    /**
+     * Returns the number of sources.
+     */
+    public int sources() {
+        return positions.length;
+    }
+
+    /**
+     * Returns the position of source i's pending head, or -1 if it was exhausted.
+     */
+    public long position(int i) {
+        return positions[i];
+    }
+
+    /**
+     * Serializes the checkpoint.
+     */
+    public byte[] toBytes() {
+        ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + Long.BYTES * (positions.length + 1));
+        buffer.putInt(positions.length);
+        buffer.putLong(emitted);
+        for (long position : positions) {
+            buffer.putLong(position);
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Reads a checkpoint written by {@link #toBytes()}.
+     *
+     * @throws IllegalArgumentException if the bytes are not a serialized checkpoint
+     */
+    public static MergeCheckpoint fromBytes(byte[] bytes) {
+        Objects.requireNonNull(bytes, "bytes must not be null");
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        if (bytes.length < Integer.BYTES + Long.BYTES) {
+            throw new IllegalArgumentException("checkpoint too short: " + bytes.length + " bytes");
+        }
+        int k = buffer.getInt();
+        if (k <= 0 || bytes.length != Integer.BYTES + Long.BYTES * (k + 1L)) {
+            throw new IllegalArgumentException("malformed checkpoint: k=" + k + ", " + bytes.length + " bytes");
+        }
+        long emitted = buffer.getLong();
+        long[] positions = new long[k];
+        for (int i = 0; i < k; i++) {
+            positions[i] = buffer.getLong();
+            if (positions[i] < -1) {
+                throw new IllegalArgumentException("malformed checkpoint: position " + positions[i]);
+            }
+        }
+        return new MergeCheckpoint(emitted, positions);
+    }
+}
@@ -0,0 +1,149 @@
+package com.research.iterator;
+
+import jdk.jfr.FlightRecorder;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Emits the merge JFR events on behalf of the engines.
+ *
+ * <p>All events are {@code @Enabled(false)} by default. Disabled, they are
+ * cheap but not free, because the engines still run every hook:
+ * - every source fetch is wrapped in {@link #beginFetch()} /
+ *   {@link #endFetch}. The event object is usually scalar-replaced by the JIT.
+ *   Once JFR is running, {@code begin()} and {@code end()} each read the
+ *   timestamp counter even while the event is off. {@code shouldCommit()} is
+ *   then a flag check.
+ * - every pull increments and tests an engine-local counter for
+ *   {@link #PULL_BATCH}, and every batch adds to a shared counter
+ * - builds and exhaustions allocate an event that is dropped after the same
+ *   flag check
+ *
+ * <p>The per-pull part matters only in engines whose pull is itself an array
+ * load. The JMH results include it, since every engine is measured with these
+ * hooks in place.
+ *
+ * <p>Throughput is tracked with a JVM-wide counter that engines update in
+ * batches of {@link #PULL_BATCH} pulls and on every source exhaustion, keeping
+ * shared-memory traffic off the per-element path. A merge drained to the end
+ * has published all its pulls once its last source is exhausted. Engines have
+ * no close(), so a merge abandoned early never publishes the pulls since its
+ * last batch or exhaustion: totals undercount by fewer than
+ * {@link #PULL_BATCH} pulls per abandoned merge.
+ *
+ * <p>Events:
+ * - {@link MergeBuildEvent}: construction duration and k
+ * - {@link SourceExhaustedEvent}: a source ran dry
+ * - {@link SourceStallEvent}: a single source fetch exceeded the threshold
+ * - {@link MergeThroughputEvent}: periodic elements/second sample
+ *
+ * <p>The per-pull hooks are public only for {@link LoserTreeKernel}, whose
+ * per-type copies live in another runtime package; they are not meant to be
+ * called from outside this package.
+ */
+public final class MergeEvents {
+
+    /**
+     * Pulls an engine accumulates locally before publishing them.
+     */
+    public static final int PULL_BATCH = 4096;
+
+    private static final LongAdder PULLED = new LongAdder();
+    private static long lastSampleTotal;
+    private static long lastSampleNanos = System.nanoTime();
+
+    static {
+        FlightRecorder.addPeriodicEvent(MergeThroughputEvent.class, MergeEvents::sampleThroughput);
+    }
+
+    private MergeEvents() {
+    }
+
+    /**
+     * Starts timing construction of a merge.
+     */
+    static MergeBuildEvent beginBuild() {
+        MergeBuildEvent event = new MergeBuildEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Finishes timing construction of a merge.
+     */
+    static void endBuild(MergeBuildEvent event, String engine, int k) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.engine = engine;
+            event.k = k;
+            event.commit();
+        }
+    }
+
+    /**
+     * Starts timing a single source fetch.
+     */
+    public static SourceStallEvent beginFetch() {
+        SourceStallEvent event = new SourceStallEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Finishes timing a single source fetch; committed only past the threshold.
+     */
+    public static void endFetch(SourceStallEvent event, String engine, int source) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.engine = engine;
+            event.sourceIndex = source;
+            event.commit();
+        }
+    }
+
+    /**
+     * Records a source exhaustion and publishes the engine's pending pulls.
+     */
+    public static void exhausted(String engine, int source, int pendingPulls) {
+        pulled(pendingPulls);
+        SourceExhaustedEvent event = new SourceExhaustedEvent();
+        if (event.shouldCommit()) {
+            event.engine = engine;
+            event.sourceIndex = source;
+            event.commit();
+        }
+    }
+
+    /**
+     * Publishes pulls accumulated by an engine.
+     */
+    public static void pulled(int count) {
+        if (count > 0) {
+            PULLED.add(count);
+        }
+    }
+
+    /**
+     * Returns all pulls published so far in this JVM.
+     */
+    static long totalPulled() {
+        return PULLED.sum();
+    }
+
+    /**
+     * Periodic hook, invoked by the JFR periodic thread only while the event is enabled.
+     */
+    private static synchronized void sampleThroughput() {
+        long total = PULLED.sum();
+        long now = System.nanoTime();
+        long elements = total - lastSampleTotal;
+        long elapsed = now - lastSampleNanos;
+        lastSampleTotal = total;
+        lastSampleNanos = now;
+
+        MergeThroughputEvent event = new MergeThroughputEvent();
+        event.elements = elements;
+        event.elementsPerSecond = elapsed > 0 ? elements * 1e9 / elapsed : 0.0;
+        event.commit();
+    }
+}
@@ -0,0 +1,65 @@
+package com.research.iterator;
+
+/**
+ * Optional instrumentation hook for the k-way merge engines.
+ *
+ * <p>Every engine accepts a MergeMetrics and reports the events that the
+ * Stage 3 constant-factor analysis reasons about:
+ * - comparisons between two keys
+ * - replays (loser tree path replay, heap sift, or linear scan)
+ * - elements pulled from each source
+ * - source exhaustion
+ * - construction (build) time
+ *
+ * <p>All methods default to no-ops. Engines constructed without metrics use
+ * {@link #NONE}, a single shared instance, so each hook call site only ever
+ * sees one receiver type and the JIT inlines it down to nothing.
+ *
+ * <p>Callbacks are made on the thread driving the merge.
+ */
+public interface MergeMetrics {
+
+    /**
+     * Shared no-op instance used when instrumentation is disabled.
+     */
+    MergeMetrics NONE = new MergeMetrics() { };
+
+    /**
+     * Called once when construction finishes.
+     *
+     * @param k number of sources
+     * @param nanos wall-clock time spent in construction, including first-element fetches
+     */
+    default void onBuild(int k, long nanos) {
+    }
+
+    /**
+     * Called for every comparison between two keys.
+     */
+    default void onComparison() {
+    }
+
+    /**
+     * Called once per replay: a loser tree path replay, a heap sift, or a linear scan.
+     * Engines report one replay per element emitted (a heap's poll and refill
+     * offer together are one), so counts compare across engines.
+     */
+    default void onReplay() {
+    }
+
+    /**
+     * Called after an element has been pulled from a source.
+     *
+     * @param source index of the source in the constructor list
+     */
+    default void onPull(int source) {
+    }
+
+    /**
+     * Called the first time a source reports {@code hasNext() == false}.
+     *
+     * @param source index of the source in the constructor list
+     */
+    default void onExhausted(int source) {
+    }
+}
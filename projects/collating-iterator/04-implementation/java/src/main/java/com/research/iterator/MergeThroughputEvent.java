@@ -0,0 +1,35 @@
+package com.research.iterator;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+import jdk.jfr.StackTrace;
+
+/**
+ * Periodic JFR sample of elements pulled by all merges in the JVM.
+ *
+ * <p>Disabled by default with a 1 s period; both can be overridden for
+ * {@code com.research.iterator.MergeThroughput} in a JFR configuration.
+ *
+ * <p>Pulls are published in batches, so a sample can lag by up to
+ * {@link MergeEvents#PULL_BATCH} pulls per running merge, and merges abandoned
+ * before their sources are exhausted are undercounted by that much for good.
+ */
+@Name("com.research.iterator.MergeThroughput")
+@Label("Merge Throughput")
+@Category({"Collating Iterator"})
+@Description("Elements pulled from merge sources since the previous sample")
+@Enabled(false)
+@Period("1 s")
+@StackTrace(false)
+public class MergeThroughputEvent extends jdk.jfr.Event {
+
+    @Label("Elements")
+    long elements;
+
+    @Label("Elements Per Second")
+    double elementsPerSecond;
+}
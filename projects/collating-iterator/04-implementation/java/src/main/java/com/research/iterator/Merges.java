@@ -0,0 +1,67 @@
+package com.research.iterator;
+
+import java.util.*;
+
+/**
+ * Entry points for merging in-memory sorted sources without per-source iterators.
+ *
+ * <p>Arrays and random-access lists are handed to engines that keep an integer
+ * cursor and a length bound per source, so a refill is an index increment and
+ * exhaustion an index comparison:
+ * - {@code int[]} and {@code long[]} merge unboxed ({@link IntArrayLoserTree},
+ *   {@link LongArrayLoserTree})
+ * - {@code T[]} and RandomAccess lists merge through {@link RandomAccessLoserTree}
+ *
+ * <p>Sources are read in place and must not be modified during the merge.
+ */
+public final class Merges {
+
+    private Merges() {
+    }
+
+    /**
+     * Merges sorted int arrays.
+     *
+     * @throws IllegalArgumentException if arrays is empty or contains nulls
+     */
+    public static PrimitiveIterator.OfInt merge(int[]... arrays) {
+        return new IntArrayLoserTree(arrays);
+    }
+
+    /**
+     * Merges sorted long arrays.
+     *
+     * @throws IllegalArgumentException if arrays is empty or contains nulls
+     */
+    public static PrimitiveIterator.OfLong merge(long[]... arrays) {
+        return new LongArrayLoserTree(arrays);
+    }
+
+    /**
+     * Merges sorted object arrays, viewed as lists without copying.
+     *
+     * @throws IllegalArgumentException if arrays is empty or contains nulls
+     */
+    @SafeVarargs
+    public static <T extends Comparable<? super T>> Iterator<T> merge(T[]... arrays) {
+        Objects.requireNonNull(arrays, "arrays must not be null");
+        List<List<T>> lists = new ArrayList<>(arrays.length);
+        for (T[] array : arrays) {
+            if (array == null) {
+                throw new IllegalArgumentException("arrays must not contain null");
+            }
+            lists.add(Arrays.asList(array));
+        }
+        return new RandomAccessLoserTree<>(lists);
+    }
+
+    /**
+     * Merges sorted random-access lists.
+     *
+     * @throws IllegalArgumentException if lists is empty, contains nulls, or
+     *         contains a list that is not RandomAccess
+     */
+    public static <T extends Comparable<? super T>> Iterator<T> merge(List<? extends List<? extends T>> lists) {
+        return new RandomAccessLoserTree<>(lists);
+    }
+}
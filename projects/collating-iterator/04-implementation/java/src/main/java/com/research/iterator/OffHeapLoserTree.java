@@ -0,0 +1,235 @@
+package com.research.iterator;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.*;
+
+/**
+ * OffHeapLoserTree merges k sorted sources of fixed-width binary keys with a
+ * loser tree whose heads live off the GC heap.
+ *
+ * <p>Same tournament as {@link LoserTreeIterator} (flat {@code int[]} of losers,
+ * source i as implicit leaf k + i), but the k heads are fixed-width slots in one
+ * direct, cache-line aligned {@link ByteBuffer}. Sources write their next key
+ * straight into their slot, so millions of in-flight heads cost k * keyWidth
+ * bytes of native memory and no objects.
+ *
+ * <p>Keys compare as unsigned lexicographic byte strings. Slots are big-endian,
+ * so a comparison is at most keyWidth / 8 {@code getLong} +
+ * {@link Long#compareUnsigned} steps (2 to 4 for 16-32 byte keys), plus one
+ * unsigned byte compare per trailing byte when keyWidth is not a multiple of 8.
+ *
+ * <p>This is a cursor rather than an {@code Iterator}: {@link #advance()} moves to
+ * the next smallest key, which stays readable in place (via {@link #word(int)},
+ * {@link #copyKey(byte[], int)} or {@link #source()}) until the next advance.
+ * The winner's slot is refilled lazily at that point.
+ *
+ * <p>Complexity: O(N log k) time, O(k * keyWidth) off-heap space
+ */
+public class OffHeapLoserTree extends AbstractLoserTree {
+
+    private static final String ENGINE = "OffHeapLoserTree";
+    private static final int CACHE_LINE = 64;
+
+    private final List<FixedWidthKeySource> sources;
+    private final ByteBuffer slots;     // k slots of keyWidth bytes, big-endian
+    private final boolean[] drained;    // drained[i] = source i is exhausted
+    private final int keyWidth;
+    private final int wordBytes;        // keyWidth rounded down to whole 8-byte words
+    private boolean started;            // advance() has been called at least once
+    private boolean exhausted;
+    private int pendingPulls;
+
+    /**
+     * Constructs an OffHeapLoserTree over sorted key sources.
+     *
+     * @param keyWidth key width in bytes (must be positive)
+     * @param sources list of sorted sources (must not be null or contain nulls)
+     * @throws IllegalArgumentException if keyWidth is invalid, or sources is empty or contains nulls
+     */
+    public OffHeapLoserTree(int keyWidth, List<? extends FixedWidthKeySource> sources) {
+        this(keyWidth, sources, MergeMetrics.NONE);
+    }
+
+    /**
+     * Constructs an instrumented OffHeapLoserTree.
+     *
+     * @param keyWidth key width in bytes (must be positive)
+     * @param sources list of sorted sources (must not be null or contain nulls)
+     * @param metrics instrumentation hook (use {@link MergeMetrics#NONE} to disable)
+     * @throws IllegalArgumentException if keyWidth is invalid, or sources is empty or contains nulls
+     */
+    public OffHeapLoserTree(int keyWidth, List<? extends FixedWidthKeySource> sources, MergeMetrics metrics) {
+        super(checkSources(sources, "sources"), metrics);
+        long start = System.nanoTime();
+        MergeBuildEvent build = MergeEvents.beginBuild();
+        if (keyWidth <= 0) {
+            throw new IllegalArgumentException("keyWidth must be positive: " + keyWidth);
+        }
+
+        this.sources = new ArrayList<>(sources);
+        this.keyWidth = keyWidth;
+        this.wordBytes = keyWidth & -Long.BYTES;
+
+        long bytes = (long) k * keyWidth;
+        if (bytes > Integer.MAX_VALUE - 2 * CACHE_LINE) {
+            throw new IllegalArgumentException("k * keyWidth exceeds 2 GB: " + bytes);
+        }
+        // alignedSlice trims both ends to the alignment, so pad to whole lines plus one
+        int lines = (int) ((bytes + CACHE_LINE - 1) / CACHE_LINE);
+        this.slots = ByteBuffer.allocateDirect((lines + 1) * CACHE_LINE)
+            .alignedSlice(CACHE_LINE)
+            .order(ByteOrder.BIG_ENDIAN);
+        this.drained = new boolean[k];
+
+        for (int i = 0; i < k; i++) {
+            pull(i);
+        }
+        buildTree();
+
+        MergeEvents.endBuild(build, ENGINE, k);
+        metrics.onBuild(k, System.nanoTime() - start);
+    }
+
+    /**
+     * Moves to the next smallest key.
+     *
+     * @return true if a key is available, false once every source is exhausted
+     */
+    public boolean advance() {
+        if (exhausted) {
+            return false;
+        }
+        if (started) {
+            refill();
+        }
+        started = true;
+        if (drained[winnerIndex]) {
+            // Winner is exhausted only when every source is
+            exhausted = true;
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Refills the previous winner's slot and replays its leaf-to-root path.
+     */
+    private void refill() {
+        int candidate = winnerIndex;
+        pull(candidate);
+        replay(candidate);
+    }
+
+    /**
+     * Returns true if source a's key is strictly smaller than source b's.
+     * Exhausted sources lose to everything.
+     */
+    @Override
+    final boolean beats(int a, int b) {
+        metrics.onComparison();
+        if (drained[a]) return false;
+        if (drained[b]) return true;
+        int offsetA = a * keyWidth;
+        int offsetB = b * keyWidth;
+        for (int i = 0; i < wordBytes; i += Long.BYTES) {
+            long x = slots.getLong(offsetA + i);
+            long y = slots.getLong(offsetB + i);
+            if (x != y) {
+                return Long.compareUnsigned(x, y) < 0;
+            }
+        }
+        for (int i = wordBytes; i < keyWidth; i++) {
+            int x = Byte.toUnsignedInt(slots.get(offsetA + i));
+            int y = Byte.toUnsignedInt(slots.get(offsetB + i));
+            if (x != y) {
+                return x < y;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Asks a source to fill its slot, marking it drained if it is exhausted.
+     */
+    private void pull(int source) {
+        SourceStallEvent fetch = MergeEvents.beginFetch();
+        boolean filled = sources.get(source).fill(slots, source * keyWidth);
+        MergeEvents.endFetch(fetch, ENGINE, source);
+        if (filled) {
+            metrics.onPull(source);
+            if (++pendingPulls == MergeEvents.PULL_BATCH) {
+                MergeEvents.pulled(pendingPulls);
+                pendingPulls = 0;
+            }
+        } else {
+            drained[source] = true;
+            MergeEvents.exhausted(ENGINE, source, pendingPulls);
+            pendingPulls = 0;
+            metrics.onExhausted(source);
+        }
+    }
+
+    /**
+     * Returns the index of the source that produced the current key.
+     *
+     * @throws IllegalStateException if there is no current key
+     */
+    public int source() {
+        checkCurrent();
+        return winnerIndex;
+    }
+
+    /**
+     * Returns 8-byte word {@code index} of the current key, big-endian
+     * (compare words with {@link Long#compareUnsigned}). When keyWidth is not
+     * a multiple of 8, the last word holds the trailing bytes padded with zeros.
+     *
+     * @throws IllegalStateException if there is no current key
+     * @throws IndexOutOfBoundsException if index is not in [0, ceil(keyWidth / 8))
+     */
+    public long word(int index) {
+        checkCurrent();
+        Objects.checkIndex(index, (keyWidth + Long.BYTES - 1) / Long.BYTES);
+        int position = index * Long.BYTES;
+        int base = winnerIndex * keyWidth;
+        if (position < wordBytes) {
+            return slots.getLong(base + position);
+        }
+        // Trailing partial word: reading a whole long would run into the next slot
+        long word = 0;
+        for (int i = 0; i < Long.BYTES; i++) {
+            int value = position + i < keyWidth ? Byte.toUnsignedInt(slots.get(base + position + i)) : 0;
+            word = (word << 8) | value;
+        }
+        return word;
+    }
+
+    /**
+     * Copies the current key into dst[offset, offset + keyWidth).
+     *
+     * @throws IllegalStateException if there is no current key
+     * @throws IndexOutOfBoundsException if dst is too small
+     */
+    public void copyKey(byte[] dst, int offset) {
+        checkCurrent();
+        Objects.checkFromIndexSize(offset, keyWidth, dst.length);
+        int base = winnerIndex * keyWidth;
+        for (int i = 0; i < keyWidth; i++) {
+            dst[offset + i] = slots.get(base + i);
+        }
+    }
+
+    /**
+     * Returns the key width in bytes.
+     */
+    public int keyWidth() {
+        return keyWidth;
+    }
+
+    private void checkCurrent() {
+        if (!started || exhausted) {
+            throw new IllegalStateException("no current key; call advance() first");
+        }
+    }
+}
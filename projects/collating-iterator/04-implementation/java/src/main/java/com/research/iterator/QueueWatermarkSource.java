@@ -0,0 +1,62 @@
+package com.research.iterator;
+
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link WatermarkSource} over a {@link BlockingQueue} fed by a producer thread.
+ *
+ * <p>The producer {@code put}s elements in timestamp order, calls
+ * {@link #advanceWatermark(long)} when it knows no earlier element can follow
+ * (e.g. on a heartbeat from an idle partition), and calls {@link #close()}
+ * when the stream ends. Elements queued before a watermark advance are still
+ * delivered.
+ *
+ * @param <T> element type
+ */
+public class QueueWatermarkSource<T> implements WatermarkSource<T> {
+
+    private final BlockingQueue<T> queue;
+    private final AtomicLong watermark = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * Creates a source draining the given queue.
+     */
+    public QueueWatermarkSource(BlockingQueue<T> queue) {
+        this.queue = Objects.requireNonNull(queue, "queue must not be null");
+    }
+
+    /**
+     * Returns the queue the producer writes to.
+     */
+    public BlockingQueue<T> queue() {
+        return queue;
+    }
+
+    /**
+     * Promises that no element put from now on has a timestamp below w.
+     * Watermarks never move backwards; a lower w is ignored.
+     */
+    public void advanceWatermark(long w) {
+        watermark.accumulateAndGet(w, Math::max);
+    }
+
+    /**
+     * Ends the stream: elements already queued are still delivered.
+     */
+    public void close() {
+        watermark.set(Long.MAX_VALUE);
+    }
+
+    @Override
+    public T poll(long timeout, TimeUnit unit) throws InterruptedException {
+        return queue.poll(timeout, unit);
+    }
+
+    @Override
+    public long watermark() {
+        return watermark.get();
+    }
+}
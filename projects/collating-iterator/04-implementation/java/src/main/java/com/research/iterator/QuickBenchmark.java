@@ -1,121 +1,491 @@
 package com.research.iterator;
 
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.*;
 
 /**
- * Quick 5-minute validation benchmark (no JMH overhead).
+ * Quick capacity check without JMH.
  *
- * Tests 3 critical points to validate key predictions:
- * - k=3: Linear scan should be competitive (cache locality)
- * - k=10: Crossover point where heap/tree start winning
- * - k=50: Large k where loser tree advantage emerges
+ * <p>Command-line harness for running the merge engines on a production box:
+ * every combination of the given engines, k, N, distribution and pattern is
+ * run on a number of threads for a fixed duration after a warmup. Sources are
+ * prepared before each timed merge, so the timed region covers only engine
+ * construction and the merge itself.
  *
- * Runs in ~2-3 minutes with minimal warmup.
+ * <p>Reports per-merge latency percentiles (p50/p99/p99.9) and elements per
+ * second across all threads, and optionally writes CSV and/or JSON. With
+ * {@code --mode=next} it wraps each merge in a {@link LatencyTrackingIterator}
+ * and also reports time to first element and the per-next() distribution.
+ *
+ * <pre>
+ * gradle runQuickBenchmark --args="--engines=heapBased,loserTree --k=10,100 --n=100000 --threads=4"
+ * </pre>
+ *
+ * Run with {@code --help} for all options. Without arguments it checks the
+ * original three points: k=3 (linear scan competitive), k=10 (crossover) and
+ * k=50 (loser tree pulls ahead) at N=10,000.
  */
 public class QuickBenchmark {
 
-    private static final int WARMUP_ITERATIONS = 100;
-    private static final int MEASUREMENT_ITERATIONS = 1000;
+    private static final String USAGE = String.join(System.lineSeparator(),
+        "Usage: QuickBenchmark [options]",
+        "  --engines=LIST       linearScan,heapBased,loserTree (default: all)",
+        "  --k=LIST             number of sources (default: 3,10,50)",
+        "  --n=LIST             total elements per merge (default: 10000)",
+        "  --distribution=LIST  uniform, skewed, power_law, single_dominant (default: uniform)",
+        "  --pattern=LIST       random, sequential, alternating, reverse_sequential, clustered,",
+        "                       duplicates (default: random)",
+        "  --exhaustion=LIST    simultaneous, sequential, early, random (default: simultaneous)",
+        "  --mode=MODE          merge: time whole merges (default)",
+        "                       next: also time construction and every next() call",
+        "  --threads=N          concurrent merges (default: 1)",
+        "  --duration=SECONDS   measurement time per configuration (default: 3)",
+        "  --warmup=SECONDS     warmup time per configuration (default: 1)",
+        "  --seed=N             data generator seed (default: 42)",
+        "  --csv=FILE           also write results as CSV",
+        "  --json=FILE          also write results as JSON",
+        "  --help               print this message");
 
-    public static void main(String[] args) {
-        System.out.println("=== Quick Benchmark Validation ===\n");
-        System.out.println("Testing key predictions:");
-        System.out.println("1. k=3: Linear scan competitive");
-        System.out.println("2. k=10: Crossover (heap/tree win)");
-        System.out.println("3. k=50: Loser tree pulls ahead\n");
+    /**
+     * Parsed command-line options.
+     */
+    static final class Config {
+        List<String> engines = Arrays.asList("linearScan", "heapBased", "loserTree");
+        List<Integer> ks = Arrays.asList(3, 10, 50);
+        List<Integer> ns = Collections.singletonList(10000);
+        List<String> distributions = Collections.singletonList("uniform");
+        List<String> patterns = Collections.singletonList("random");
+        List<String> exhaustions = Collections.singletonList("simultaneous");
+        String mode = "merge";
+        int threads = 1;
+        double durationSeconds = 3;
+        double warmupSeconds = 1;
+        long seed = 42;
+        String csv;
+        String json;
+        boolean help;
 
-        TestDataGenerator generator = new TestDataGenerator();
+        static Config parse(String[] args) {
+            Config config = new Config();
+            for (String arg : args) {
+                if (arg.equals("--help") || arg.equals("-h")) {
+                    config.help = true;
+                    continue;
+                }
+                int eq = arg.indexOf('=');
+                if (!arg.startsWith("--") || eq < 0) {
+                    throw new IllegalArgumentException("Expected --option=value, got: " + arg);
+                }
+                String key = arg.substring(2, eq);
+                String value = arg.substring(eq + 1);
+                switch (key) {
+                    case "engines":
+                        config.engines = strings(value);
+                        for (String engine : config.engines) {
+                            createEngine(engine, Collections.singletonList(Collections.<Integer>emptyIterator()));
+                        }
+                        break;
+                    case "k":
+                        config.ks = positiveInts(key, value);
+                        break;
+                    case "n":
+                        config.ns = positiveInts(key, value);
+                        break;
+                    case "distribution":
+                        config.distributions = strings(value);
+                        for (String distribution : config.distributions) {
+                            checkDataset(distribution, "random", "simultaneous");
+                        }
+                        break;
+                    case "pattern":
+                        config.patterns = strings(value);
+                        for (String pattern : config.patterns) {
+                            checkDataset("uniform", pattern, "simultaneous");
+                        }
+                        break;
+                    case "exhaustion":
+                        config.exhaustions = strings(value);
+                        for (String exhaustion : config.exhaustions) {
+                            checkDataset("uniform", "random", exhaustion);
+                        }
+                        break;
+                    case "mode":
+                        if (!value.equals("merge") && !value.equals("next")) {
+                            throw new IllegalArgumentException("--mode must be merge or next: " + value);
+                        }
+                        config.mode = value;
+                        break;
+                    case "threads":
+                        config.threads = positiveInts(key, value).get(0);
+                        break;
+                    case "duration":
+                        config.durationSeconds = positiveDouble(key, value);
+                        break;
+                    case "warmup":
+                        config.warmupSeconds = positiveDouble(key, value);
+                        break;
+                    case "seed":
+                        config.seed = Long.parseLong(value);
+                        break;
+                    case "csv":
+                        config.csv = value;
+                        break;
+                    case "json":
+                        config.json = value;
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option: --" + key);
+                }
+            }
+            return config;
+        }
 
-        int[] kValues = {3, 10, 50};
-        int n = 10000;
+        private static List<String> strings(String value) {
+            return Arrays.asList(value.split(","));
+        }
 
-        System.out.println("Configuration:");
-        System.out.println("  N = " + n + " elements");
-        System.out.println("  Warmup: " + WARMUP_ITERATIONS + " iterations");
-        System.out.println("  Measurement: " + MEASUREMENT_ITERATIONS + " iterations");
-        System.out.println();
+        /**
+         * Rejects an unknown dataset name up front, with the generator's message,
+         * rather than failing mid-run.
+         */
+        private static void checkDataset(String distribution, String pattern, String exhaustion) {
+            new TestDataGenerator().stream(1, 1, distribution, pattern, exhaustion);
+        }
 
-        for (int k : kValues) {
-            System.out.println("━━━ k=" + k + " ━━━");
+        private static List<Integer> positiveInts(String key, String value) {
+            List<Integer> result = new ArrayList<>();
+            for (String part : value.split(",")) {
+                int parsed = Integer.parseInt(part.trim().replace("_", ""));
+                if (parsed <= 0) {
+                    throw new IllegalArgumentException("--" + key + " must be positive: " + part);
+                }
+                result.add(parsed);
+            }
+            return result;
+        }
 
-            List<List<Integer>> testData = generator.generate(k, n, "uniform", "random");
+        private static double positiveDouble(String key, String value) {
+            double parsed = Double.parseDouble(value);
+            if (parsed <= 0) {
+                throw new IllegalArgumentException("--" + key + " must be positive: " + value);
+            }
+            return parsed;
+        }
+    }
+
+    /**
+     * Measured outcome of one configuration.
+     */
+    static final class Result {
+        String engine;
+        int k;
+        int n;
+        String distribution;
+        String pattern;
+        String exhaustion;
+        String mode;
+        int threads;
+        long merges;
+        long elements;
+        double seconds;
+        Latencies latencies;
 
-            // LinearScan
-            long linearTime = benchmark(testData, "linearScan", generator);
-            System.out.printf("  LinearScan:  %,8d ns/op%n", linearTime);
+        double elementsPerSecond() {
+            return elements / seconds;
+        }
+    }
 
-            // HeapBased
-            long heapTime = benchmark(testData, "heapBased", generator);
-            System.out.printf("  HeapBased:   %,8d ns/op  (%.2fx vs LinearScan)%n",
-                heapTime, (double)linearTime / heapTime);
+    public static void main(String[] args) throws Exception {
+        Config config;
+        try {
+            config = Config.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+            return;
+        }
+        if (config.help) {
+            System.out.println(USAGE);
+            return;
+        }
 
-            // LoserTree
-            long loserTime = benchmark(testData, "loserTree", generator);
-            System.out.printf("  LoserTree:   %,8d ns/op  (%.2fx vs HeapBased)%n",
-                loserTime, (double)heapTime / loserTime);
+        System.out.println("=== Quick Benchmark ===");
+        System.out.printf("engines=%s k=%s n=%s distribution=%s pattern=%s exhaustion=%s%n",
+            config.engines, config.ks, config.ns, config.distributions, config.patterns, config.exhaustions);
+        System.out.printf("mode=%s threads=%d warmup=%.1fs duration=%.1fs seed=%d%n%n",
+            config.mode, config.threads, config.warmupSeconds, config.durationSeconds, config.seed);
+        printHeader(config.mode);
 
-            System.out.println();
+        List<Result> results = new ArrayList<>();
+        ExecutorService pool = Executors.newFixedThreadPool(config.threads);
+        try {
+            for (int n : config.ns) {
+                for (int k : config.ks) {
+                    for (String distribution : config.distributions) {
+                        for (String pattern : config.patterns) {
+                            for (String exhaustion : config.exhaustions) {
+                                TestDataGenerator generator = new TestDataGenerator(config.seed);
+                                int[][] data = generator.generateArrays(k, n, distribution, pattern, exhaustion);
+                                for (String engine : config.engines) {
+                                    Result result = measure(pool, config, engine, data);
+                                    result.k = k;
+                                    result.n = n;
+                                    result.distribution = distribution;
+                                    result.pattern = pattern;
+                                    result.exhaustion = exhaustion;
+                                    results.add(result);
+                                    printRow(result);
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        } finally {
+            pool.shutdownNow();
         }
 
-        System.out.println("=== Validation Summary ===");
-        System.out.println("✓ Quick validation complete");
-        System.out.println("✓ Results show expected trends");
-        System.out.println();
-        System.out.println("Future work:");
-        System.out.println("- Run full JMH benchmarks (168 scenarios, ~40 minutes)");
-        System.out.println("- Test edge cases (skewed, adversarial patterns)");
-        System.out.println("- Vary N (1K, 100K, 1M) to validate scalability");
-        System.out.println("- Test larger k (100, 500, 1000)");
+        if (config.csv != null) {
+            writeCsv(config.csv, results);
+            System.out.println("\nCSV written to " + config.csv);
+        }
+        if (config.json != null) {
+            writeJson(config.json, results);
+            System.out.println("JSON written to " + config.json);
+        }
     }
 
-    private static long benchmark(List<List<Integer>> testData, String algorithm,
-                                   TestDataGenerator generator) {
-        // Warmup
-        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
-            run(testData, algorithm, generator);
+    /**
+     * Latencies recorded by one thread.
+     */
+    static final class Latencies {
+        final LatencyHistogram merge = new LatencyHistogram();
+        final LatencyHistogram firstElement = new LatencyHistogram();
+        final LatencyHistogram next = new LatencyHistogram();
+
+        void add(Latencies other) {
+            merge.add(other.merge);
+            firstElement.add(other.firstElement);
+            next.add(other.next);
         }
+    }
+
+    /**
+     * Runs one engine on all threads: warmup, then timed merges until the duration elapses.
+     */
+    private static Result measure(ExecutorService pool, Config config, String engine, int[][] data)
+            throws InterruptedException, ExecutionException {
+        runPhase(pool, config, engine, data, config.warmupSeconds);
+
+        long start = System.nanoTime();
+        Latencies latencies = runPhase(pool, config, engine, data, config.durationSeconds);
+        double seconds = (System.nanoTime() - start) / 1e9;
 
-        // Measurement
-        long totalTime = 0;
-        for (int i = 0; i < MEASUREMENT_ITERATIONS; i++) {
-            long start = System.nanoTime();
-            run(testData, algorithm, generator);
-            long end = System.nanoTime();
-            totalTime += (end - start);
+        long elementsPerMerge = 0;
+        for (int[] source : data) {
+            elementsPerMerge += source.length;
         }
 
-        return totalTime / MEASUREMENT_ITERATIONS;
+        Result result = new Result();
+        result.engine = engine;
+        result.mode = config.mode;
+        result.threads = config.threads;
+        result.merges = latencies.merge.count();
+        result.elements = latencies.merge.count() * elementsPerMerge;
+        result.seconds = seconds;
+        result.latencies = latencies;
+        return result;
     }
 
-    private static void run(List<List<Integer>> testData, String algorithm,
-                            TestDataGenerator generator) {
-        List<Iterator<Integer>> iterators = generator.toIterators(testData);
+    /**
+     * Runs merges on every thread until the deadline; returns the combined latencies.
+     */
+    private static Latencies runPhase(ExecutorService pool, Config config, String engine,
+                                      int[][] data, double seconds)
+            throws InterruptedException, ExecutionException {
+        long deadline = System.nanoTime() + (long) (seconds * 1e9);
+        boolean perNext = config.mode.equals("next");
+        int expectedCount = 0;
+        long expectedChecksum = 0;
+        for (int[] source : data) {
+            expectedCount += source.length;
+            for (int value : source) {
+                expectedChecksum += value;
+            }
+        }
+        int count = expectedCount;
+        long checksum = expectedChecksum;
+        List<Future<Latencies>> futures = new ArrayList<>();
+        for (int t = 0; t < config.threads; t++) {
+            futures.add(pool.submit(() -> {
+                Latencies latencies = new Latencies();
+                do {
+                    run(engine, data, perNext, latencies, count, checksum);
+                } while (System.nanoTime() < deadline);
+                return latencies;
+            }));
+        }
+        Latencies combined = new Latencies();
+        for (Future<Latencies> future : futures) {
+            combined.add(future.get());
+        }
+        return combined;
+    }
+
+    /**
+     * Prepares sources, then times one complete merge (and, in next mode, each next() call).
+     * The merge must emit expectedCount elements summing to expectedChecksum.
+     */
+    private static void run(String engine, int[][] data, boolean perNext, Latencies latencies,
+                            int expectedCount, long expectedChecksum) {
+        List<Iterator<Integer>> sources = new ArrayList<>(data.length);
+        for (int[] source : data) {
+            sources.add(new IntArrayCursor(source));
+        }
 
+        long start = System.nanoTime();
         Iterator<Integer> merged;
-        switch (algorithm) {
+        LatencyTrackingIterator<Integer> tracked = null;
+        if (perNext) {
+            tracked = new LatencyTrackingIterator<>(() -> createEngine(engine, sources), latencies.next);
+            merged = tracked;
+        } else {
+            merged = createEngine(engine, sources);
+        }
+        long checksum = 0;
+        int count = 0;
+        while (merged.hasNext()) {
+            checksum += merged.next();
+            count++;
+        }
+        latencies.merge.record(System.nanoTime() - start);
+        if (tracked != null && tracked.timeToFirstElementNanos() >= 0) {
+            latencies.firstElement.record(tracked.timeToFirstElementNanos());
+        }
+
+        // Sanity check (also keeps the merge from being optimized away)
+        if (count != expectedCount) {
+            throw new IllegalStateException("Count mismatch: " + count + " != " + expectedCount);
+        }
+        if (checksum != expectedChecksum) {
+            throw new IllegalStateException("Checksum mismatch: " + checksum + " != " + expectedChecksum);
+        }
+    }
+
+    private static Iterator<Integer> createEngine(String engine, List<Iterator<Integer>> sources) {
+        switch (engine) {
             case "linearScan":
-                merged = new LinearScanIterator<>(iterators);
-                break;
+                return new LinearScanIterator<>(sources);
             case "heapBased":
-                merged = new HeapBasedIterator<>(iterators);
-                break;
+                return new HeapBasedIterator<>(sources);
             case "loserTree":
-                merged = new LoserTreeIterator<>(iterators);
-                break;
+                return new LoserTreeIterator<>(sources);
             default:
-                throw new IllegalArgumentException("Unknown algorithm: " + algorithm);
+                throw new IllegalArgumentException("Unknown engine: " + engine);
         }
+    }
 
-        // Consume all elements
-        int count = 0;
-        while (merged.hasNext()) {
-            merged.next();
-            count++;
+    private static void printHeader(String mode) {
+        System.out.printf("%-11s %6s %10s %-15s %-18s %-12s %9s ",
+            "engine", "k", "n", "distribution", "pattern", "exhaustion", "merges");
+        if (mode.equals("next")) {
+            System.out.printf("%10s %10s %9s %9s %9s %9s %11s%n",
+                "ttfe50 us", "ttfe99 us", "next50 ns", "next99 ns", "n99.9 ns", "n99.99 ns", "next max ns");
+        } else {
+            System.out.printf("%10s %10s %10s %14s%n", "p50 us", "p99 us", "p99.9 us", "elements/s");
+        }
+    }
+
+    private static void printRow(Result r) {
+        System.out.printf("%-11s %6d %10d %-15s %-18s %-12s %9d ",
+            r.engine, r.k, r.n, r.distribution, r.pattern, r.exhaustion, r.merges);
+        LatencyHistogram merge = r.latencies.merge;
+        if (r.mode.equals("next")) {
+            LatencyHistogram first = r.latencies.firstElement;
+            LatencyHistogram next = r.latencies.next;
+            System.out.printf("%10.1f %10.1f %9d %9d %9d %9d %11d%n",
+                first.percentile(0.50) / 1e3, first.percentile(0.99) / 1e3,
+                next.percentile(0.50), next.percentile(0.99), next.percentile(0.999),
+                next.percentile(0.9999), next.max());
+        } else {
+            System.out.printf("%10.1f %10.1f %10.1f %,14.0f%n",
+                merge.percentile(0.50) / 1e3, merge.percentile(0.99) / 1e3,
+                merge.percentile(0.999) / 1e3, r.elementsPerSecond());
+        }
+    }
+
+    private static void writeCsv(String file, List<Result> results) throws IOException {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(Paths.get(file)))) {
+            out.println("engine,k,n,distribution,pattern,exhaustion,mode,threads,merges,elements,seconds,"
+                + "p50_ns,p99_ns,p999_ns,max_ns,elements_per_second,"
+                + "ttfe_p50_ns,ttfe_p99_ns,next_p50_ns,next_p99_ns,next_p999_ns,next_p9999_ns,next_max_ns");
+            for (Result r : results) {
+                LatencyHistogram merge = r.latencies.merge;
+                LatencyHistogram first = r.latencies.firstElement;
+                LatencyHistogram next = r.latencies.next;
+                out.printf(Locale.ROOT, "%s,%d,%d,%s,%s,%s,%s,%d,%d,%d,%.3f,%d,%d,%d,%d,%.1f,%d,%d,%d,%d,%d,%d,%d%n",
+                    r.engine, r.k, r.n, r.distribution, r.pattern, r.exhaustion, r.mode, r.threads,
+                    r.merges, r.elements, r.seconds,
+                    merge.percentile(0.50), merge.percentile(0.99), merge.percentile(0.999), merge.max(),
+                    r.elementsPerSecond(),
+                    first.percentile(0.50), first.percentile(0.99),
+                    next.percentile(0.50), next.percentile(0.99), next.percentile(0.999),
+                    next.percentile(0.9999), next.max());
+            }
+        }
+    }
+
+    private static void writeJson(String file, List<Result> results) throws IOException {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(Paths.get(file)))) {
+            out.println("[");
+            for (int i = 0; i < results.size(); i++) {
+                Result r = results.get(i);
+                LatencyHistogram merge = r.latencies.merge;
+                LatencyHistogram first = r.latencies.firstElement;
+                LatencyHistogram next = r.latencies.next;
+                out.printf(Locale.ROOT,
+                    "  {\"engine\": %s, \"k\": %d, \"n\": %d, \"distribution\": %s, "
+                        + "\"pattern\": %s, \"exhaustion\": %s, \"mode\": %s, \"threads\": %d, "
+                        + "\"merges\": %d, \"elements\": %d, \"seconds\": %.3f, "
+                        + "\"p50Nanos\": %d, \"p99Nanos\": %d, \"p999Nanos\": %d, \"maxNanos\": %d, "
+                        + "\"elementsPerSecond\": %.1f, "
+                        + "\"firstElementP50Nanos\": %d, \"firstElementP99Nanos\": %d, "
+                        + "\"nextP50Nanos\": %d, \"nextP99Nanos\": %d, \"nextP999Nanos\": %d, "
+                        + "\"nextP9999Nanos\": %d, \"nextMaxNanos\": %d}%s%n",
+                    jsonString(r.engine), r.k, r.n, jsonString(r.distribution), jsonString(r.pattern),
+                    jsonString(r.exhaustion), jsonString(r.mode), r.threads,
+                    r.merges, r.elements, r.seconds,
+                    merge.percentile(0.50), merge.percentile(0.99), merge.percentile(0.999), merge.max(),
+                    r.elementsPerSecond(),
+                    first.percentile(0.50), first.percentile(0.99),
+                    next.percentile(0.50), next.percentile(0.99), next.percentile(0.999),
+                    next.percentile(0.9999), next.max(),
+                    i < results.size() - 1 ? "," : "");
+            }
+            out.println("]");
         }
+    }
 
-        // Verify count (sanity check)
-        if (count != testData.stream().mapToInt(List::size).sum()) {
-            throw new RuntimeException("Count mismatch!");
+    /**
+     * Quotes a string as a JSON string literal.
+     */
+    private static String jsonString(String value) {
+        StringBuilder quoted = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                quoted.append('\\').append(c);
+            } else if (c < 0x20) {
+                quoted.append(String.format("\\u%04x", (int) c));
+            } else {
+                quoted.append(c);
+            }
         }
+        return quoted.append('"').toString();
     }
 }
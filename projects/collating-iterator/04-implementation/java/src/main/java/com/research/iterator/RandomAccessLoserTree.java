@@ -0,0 +1,131 @@
+package com.research.iterator;
+
+import java.util.*;
+
+/**
+ * RandomAccessLoserTree merges k sorted random-access lists (arrays via
+ * {@link Arrays#asList}) with integer cursors instead of iterators.
+ *
+ * <p>Same flat-array tournament as {@link LoserTreeIterator}, but the engine
+ * owns the read position of every source:
+ * - source i is read with {@code get(positions[i])}, its head cached in a flat array
+ * - exhaustion is {@code positions[i] == ends[i]}, an index comparison; there is
+ *   no hasNext()/next() pair per element and no iterator object per source
+ * - with one list class (as when merging arrays) the get() call site stays
+ *   monomorphic and inlines to an array load
+ *
+ * <p>Lengths are read once at construction; the lists must not be modified
+ * during the merge.
+ *
+ * <p>Complexity: O(N log k) time, O(k) space
+ *
+ * @param <T> element type, must be Comparable
+ */
+public class RandomAccessLoserTree<T extends Comparable<? super T>> extends CursorLoserTree implements Iterator<T> {
+
+    private static final String ENGINE = "RandomAccessLoserTree";
+
+    private final List<?>[] lists;
+    private final Object[] heads;       // heads[i] = lists[i].get(positions[i]) while not exhausted
+
+    /**
+     * Constructs a merge of sorted random-access lists.
+     *
+     * @param lists sorted lists (must not be null or contain nulls, each RandomAccess)
+     * @throws IllegalArgumentException if lists is empty, contains nulls, or
+     *         contains a list that is not RandomAccess
+     */
+    public RandomAccessLoserTree(List<? extends List<? extends T>> lists) {
+        this(lists, MergeMetrics.NONE);
+    }
+
+    /**
+     * Constructs an instrumented merge of sorted random-access lists.
+     *
+     * @param lists sorted lists (must not be null or contain nulls, each RandomAccess)
+     * @param metrics instrumentation hook (use {@link MergeMetrics#NONE} to disable)
+     * @throws IllegalArgumentException if lists is empty, contains nulls, or
+     *         contains a list that is not RandomAccess
+     */
+    public RandomAccessLoserTree(List<? extends List<? extends T>> lists, MergeMetrics metrics) {
+        super(ENGINE, checkLists(lists), metrics);
+        long start = System.nanoTime();
+        MergeBuildEvent build = MergeEvents.beginBuild();
+
+        this.lists = lists.toArray(new List<?>[0]);
+        this.heads = new Object[k];
+
+        for (int i = 0; i < k; i++) {
+            ends[i] = this.lists[i].size();
+        }
+        start();
+
+        MergeEvents.endBuild(build, ENGINE, k);
+        metrics.onBuild(k, System.nanoTime() - start);
+    }
+
+    private static int checkLists(List<? extends List<?>> lists) {
+        int k = checkSources(lists, "lists");
+        for (List<?> list : lists) {
+            if (!(list instanceof RandomAccess)) {
+                throw new IllegalArgumentException(
+                    "lists must be RandomAccess: " + list.getClass().getName());
+            }
+        }
+        return k;
+    }
+
+    @Override
+    public boolean hasNext() {
+        // Winner is exhausted only when every source is
+        return !isExhausted(winnerIndex);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("Iterator exhausted");
+        }
+        int candidate = winnerIndex;
+        T result = (T) heads[candidate];
+        pull(candidate);
+        replay(candidate);
+        return result;
+    }
+
+    /**
+     * Returns true if source a's head is strictly smaller than source b's.
+     * Exhausted sources lose to everything.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    final boolean beats(int a, int b) {
+        metrics.onComparison();
+        if (isExhausted(a)) return false;
+        if (isExhausted(b)) return true;
+        return ((T) heads[a]).compareTo((T) heads[b]) < 0;
+    }
+
+    /**
+     * Lists are read in place and never refilled.
+     */
+    @Override
+    final int fill(int source) {
+        return 0;
+    }
+
+    /**
+     * Caches a source's new head. An in-memory read cannot stall, so no fetch
+     * events are recorded.
+     */
+    @Override
+    final void load(int source, int position) {
+        heads[source] = lists[source].get(position);
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException("remove() not supported");
+    }
+}
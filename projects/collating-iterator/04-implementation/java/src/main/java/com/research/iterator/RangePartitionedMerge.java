@@ -0,0 +1,139 @@
+package com.research.iterator;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * RangePartitionedMerge splits one k-way merge into P independent merges by key
+ * range, one per output partition.
+ *
+ * <p>Partition boundaries are keys b[0] &lt; b[1] &lt; ... &lt; b[P-2]:
+ * - partition 0 holds keys &lt; b[0]
+ * - partition p holds keys in [b[p-1], b[p])
+ * - partition P-1 holds keys &gt;= b[P-2]
+ *
+ * <p>Every source is a sorted random-access list, so its slice for each
+ * partition is found by binary search up front: O(kP log n) comparisons, no
+ * scan. {@link #partition(int)} then builds a fresh engine (LinearScan,
+ * HeapBased, LoserTree, ...) over those k slices alone. Partitions share no
+ * mutable state, so each can be drained by its own thread, and concatenating
+ * them in order gives exactly the single merged sequence.
+ *
+ * <p>Complexity: O(N log k) total merge time, split across partitions;
+ * O(kP) space for the slice offsets
+ *
+ * @param <T> element type
+ */
+public class RangePartitionedMerge<T extends Comparable<? super T>> {
+
+    private final List<List<T>> sources;
+    private final Function<List<Iterator<T>>, Iterator<T>> engine;
+    private final int partitions;
+    private final int[][] cuts;     // cuts[i][p] = first index of source i in partition p; cuts[i][P] = size
+
+    /**
+     * Splits sorted random-access sources into key-range partitions.
+     *
+     * @param sources sorted random-access lists (must not be null, empty or contain nulls)
+     * @param boundaries strictly increasing partition boundaries; P - 1 keys for P partitions
+     * @param engine builds one partition's merge from its k slices, e.g. {@code LoserTreeIterator::new}
+     * @throws IllegalArgumentException if sources is empty, contains nulls or lists without
+     *         random access, or if boundaries are not strictly increasing
+     */
+    public RangePartitionedMerge(List<? extends List<T>> sources, List<T> boundaries,
+                                 Function<List<Iterator<T>>, Iterator<T>> engine) {
+        Objects.requireNonNull(sources, "sources must not be null");
+        Objects.requireNonNull(boundaries, "boundaries must not be null");
+        Objects.requireNonNull(engine, "engine must not be null");
+        if (sources.isEmpty()) {
+            throw new IllegalArgumentException("sources must not be empty");
+        }
+        for (List<T> source : sources) {
+            if (source == null) {
+                throw new IllegalArgumentException("sources must not contain null");
+            }
+            if (!(source instanceof RandomAccess)) {
+                throw new IllegalArgumentException("sources must support random access: " + source.getClass().getName());
+            }
+        }
+        for (int b = 0; b < boundaries.size(); b++) {
+            T boundary = boundaries.get(b);
+            if (boundary == null) {
+                throw new IllegalArgumentException("boundaries must not contain null");
+            }
+            if (b > 0 && boundaries.get(b - 1).compareTo(boundary) >= 0) {
+                throw new IllegalArgumentException("boundaries must be strictly increasing at index " + b);
+            }
+        }
+
+        this.sources = new ArrayList<>(sources);
+        this.engine = engine;
+        this.partitions = boundaries.size() + 1;
+        this.cuts = new int[this.sources.size()][partitions + 1];
+
+        for (int i = 0; i < this.sources.size(); i++) {
+            List<T> source = this.sources.get(i);
+            int[] sourceCuts = cuts[i];
+            for (int p = 1; p < partitions; p++) {
+                // Boundaries increase, so each search starts at the previous cut
+                sourceCuts[p] = lowerBound(source, sourceCuts[p - 1], boundaries.get(p - 1));
+            }
+            sourceCuts[partitions] = source.size();
+        }
+    }
+
+    /**
+     * Returns the first index in list[from, size) whose element is &gt;= key.
+     */
+    private static <T extends Comparable<? super T>> int lowerBound(List<T> list, int from, T key) {
+        int low = from;
+        int high = list.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (list.get(mid).compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the number of partitions (boundaries + 1).
+     */
+    public int partitionCount() {
+        return partitions;
+    }
+
+    /**
+     * Returns the number of elements partition p will produce.
+     *
+     * @throws IndexOutOfBoundsException if p is not in [0, partitionCount())
+     */
+    public long partitionSize(int p) {
+        Objects.checkIndex(p, partitions);
+        long size = 0;
+        for (int[] sourceCuts : cuts) {
+            size += sourceCuts[p + 1] - sourceCuts[p];
+        }
+        return size;
+    }
+
+    /**
+     * Builds a new merge over partition p's slice of every source.
+     *
+     * <p>The returned iterator is independent of every other partition's and
+     * is meant to be drained by one thread. Each call builds a fresh engine.
+     *
+     * @throws IndexOutOfBoundsException if p is not in [0, partitionCount())
+     */
+    public Iterator<T> partition(int p) {
+        Objects.checkIndex(p, partitions);
+        List<Iterator<T>> slices = new ArrayList<>(sources.size());
+        for (int i = 0; i < sources.size(); i++) {
+            slices.add(sources.get(i).subList(cuts[i][p], cuts[i][p + 1]).iterator());
+        }
+        return engine.apply(slices);
+    }
+}
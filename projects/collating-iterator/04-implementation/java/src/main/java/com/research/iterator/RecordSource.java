@@ -0,0 +1,27 @@
+package com.research.iterator;
+
+/**
+ * Sorted source of mutable records for {@link FlyweightLoserTreeIterator}.
+ *
+ * <p>The source owns one reusable holder and overwrites it on every
+ * {@link #advance()}, so producing a record allocates nothing (the
+ * flyweight pattern used by Hadoop's and Lucene's merge APIs). Records must be
+ * produced in ascending order of the merge's comparator.
+ *
+ * @param <R> record type
+ */
+public interface RecordSource<R> {
+
+    /**
+     * Fills the holder with the next record.
+     *
+     * @return true if the holder now holds a record, false if the source is exhausted
+     */
+    boolean advance();
+
+    /**
+     * Returns the holder this source fills. Valid after a successful
+     * {@link #advance()} until the next one.
+     */
+    R holder();
+}
@@ -0,0 +1,65 @@
+package com.research.iterator;
+
+import java.util.*;
+
+/**
+ * Sorted source that can report and restore its read position, for
+ * {@link CheckpointableMerge}.
+ *
+ * <p>A position is an opaque non-negative long chosen by the source (a file
+ * offset, a record number, ...). {@link #position()} names the element the
+ * next {@link #next()} call would return, and {@link #seek(long)} to that
+ * value makes the source deliver that element again, e.g. after a restart.
+ *
+ * @param <T> element type
+ */
+public interface SeekableSource<T> extends Iterator<T> {
+
+    /**
+     * Returns the position of the element the next {@code next()} call returns.
+     */
+    long position();
+
+    /**
+     * Repositions the source so the next {@code next()} call returns the
+     * element at a position previously reported by {@link #position()}.
+     */
+    void seek(long position);
+
+    /**
+     * Seekable source over a list; positions are list indices.
+     */
+    static <T> SeekableSource<T> of(List<T> values) {
+        Objects.requireNonNull(values, "values must not be null");
+        return new SeekableSource<T>() {
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return index < values.size();
+            }
+
+            @Override
+            public T next() {
+                if (index >= values.size()) {
+                    throw new NoSuchElementException("Source exhausted");
+                }
+                return values.get(index++);
+            }
+
+            @Override
+            public long position() {
+                return index;
+            }
+
+            @Override
+            public void seek(long position) {
+                if (position < 0 || position > values.size()) {
+                    throw new IndexOutOfBoundsException(
+                        "position " + position + " out of range [0, " + values.size() + "]");
+                }
+                index = (int) position;
+            }
+        };
+    }
+}
@@ -0,0 +1,227 @@
+package com.research.iterator;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * SortMergeJoin streams the equi-join of two key-sorted inputs, such as two
+ * {@link LoserTreeIterator}s over segment files.
+ *
+ * <p>Both sides advance together in key order:
+ * - a left key with no right match is emitted with a null right (left and full outer)
+ * - a right key with no left match is emitted with a null left (full outer)
+ * - for a matching key, the right side's equal-key group is buffered and every
+ *   left row with that key is paired with each buffered right row
+ *
+ * <p>Only the current right group is held in memory, and left rows stream
+ * through it, so memory is bounded by the largest right duplicate group, not by
+ * either input. The inputs are plain iterators: the merge engines are used
+ * unchanged. Put the side with the smaller duplicate groups on the right.
+ *
+ * <p>Complexity: O(|L| + |R| + output) time, O(max right group) space
+ *
+ * @param <L> left row type
+ * @param <R> right row type
+ * @param <K> join key type
+ */
+public class SortMergeJoin<L, R, K> implements Iterator<SortMergeJoin.Joined<L, R>> {
+
+    /**
+     * Which unmatched rows appear in the output.
+     */
+    public enum Type {
+        /** Matched pairs only. */
+        INNER,
+        /** Matched pairs plus unmatched left rows. */
+        LEFT_OUTER,
+        /** Matched pairs plus unmatched rows from both sides. */
+        FULL_OUTER
+    }
+
+    private final Iterator<L> left;
+    private final Iterator<R> right;
+    private final Function<? super L, ? extends K> leftKey;
+    private final Function<? super R, ? extends K> rightKey;
+    private final Comparator<? super K> keyOrder;
+    private final Type type;
+
+    private L leftHead;                 // Next unconsumed left row (valid if hasLeft)
+    private K leftHeadKey;
+    private boolean hasLeft;
+    private R rightHead;                // Next unconsumed right row (valid if hasRight)
+    private K rightHeadKey;
+    private boolean hasRight;
+
+    private final List<R> rightGroup = new ArrayList<>();  // Right rows of the current matched key
+    private K groupKey;
+    private L groupLeft;                // Left row being paired with rightGroup (valid if pairing)
+    private boolean pairing;
+    private int groupPosition;
+
+    private Joined<L, R> nextRow;       // Computed by hasNext(), null if not yet computed
+
+    /**
+     * Constructs a join of two inputs sorted by the same key order.
+     *
+     * @param left left input, sorted by leftKey
+     * @param leftKey extracts the join key from a left row
+     * @param right right input, sorted by rightKey; its equal-key groups are buffered
+     * @param rightKey extracts the join key from a right row
+     * @param keyOrder the order both inputs are sorted in
+     * @param type which unmatched rows to emit
+     */
+    public SortMergeJoin(Iterator<L> left, Function<? super L, ? extends K> leftKey,
+                         Iterator<R> right, Function<? super R, ? extends K> rightKey,
+                         Comparator<? super K> keyOrder, Type type) {
+        this.left = Objects.requireNonNull(left, "left must not be null");
+        this.leftKey = Objects.requireNonNull(leftKey, "leftKey must not be null");
+        this.right = Objects.requireNonNull(right, "right must not be null");
+        this.rightKey = Objects.requireNonNull(rightKey, "rightKey must not be null");
+        this.keyOrder = Objects.requireNonNull(keyOrder, "keyOrder must not be null");
+        this.type = Objects.requireNonNull(type, "type must not be null");
+        pullLeft();
+        pullRight();
+    }
+
+    /**
+     * Joins two inputs of naturally ordered rows on the rows themselves.
+     */
+    public static <T extends Comparable<? super T>> SortMergeJoin<T, T, T> of(Iterator<T> left, Iterator<T> right,
+                                                                            Type type) {
+        return new SortMergeJoin<>(left, Function.identity(), right, Function.identity(),
+            Comparator.<T>naturalOrder(), type);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (nextRow == null) {
+            nextRow = computeNext();
+        }
+        return nextRow != null;
+    }
+
+    @Override
+    public Joined<L, R> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("Iterator exhausted");
+        }
+        Joined<L, R> row = nextRow;
+        nextRow = null;
+        return row;
+    }
+
+    private Joined<L, R> computeNext() {
+        while (true) {
+            if (pairing) {
+                if (groupPosition < rightGroup.size()) {
+                    return new Joined<>(groupLeft, rightGroup.get(groupPosition++));
+                }
+                // This left row is done; the next one may share the key
+                if (hasLeft && keyOrder.compare(leftHeadKey, groupKey) == 0) {
+                    groupLeft = takeLeft();
+                    groupPosition = 0;
+                    continue;
+                }
+                pairing = false;
+                groupLeft = null;
+                groupKey = null;
+                rightGroup.clear();
+            }
+
+            if (!hasLeft) {
+                // Remaining right rows are unmatched
+                return hasRight && type == Type.FULL_OUTER ? new Joined<>(null, takeRight()) : null;
+            }
+            if (!hasRight) {
+                // Remaining left rows are unmatched; an inner join can stop here
+                return type != Type.INNER ? new Joined<>(takeLeft(), null) : null;
+            }
+
+            int c = keyOrder.compare(leftHeadKey, rightHeadKey);
+            if (c < 0) {
+                L row = takeLeft();
+                if (type != Type.INNER) {
+                    return new Joined<>(row, null);
+                }
+            } else if (c > 0) {
+                R row = takeRight();
+                if (type == Type.FULL_OUTER) {
+                    return new Joined<>(null, row);
+                }
+            } else {
+                groupKey = rightHeadKey;
+                do {
+                    rightGroup.add(takeRight());
+                } while (hasRight && keyOrder.compare(rightHeadKey, groupKey) == 0);
+                groupLeft = takeLeft();
+                groupPosition = 0;
+                pairing = true;
+            }
+        }
+    }
+
+    private L takeLeft() {
+        L row = leftHead;
+        pullLeft();
+        return row;
+    }
+
+    private R takeRight() {
+        R row = rightHead;
+        pullRight();
+        return row;
+    }
+
+    private void pullLeft() {
+        hasLeft = left.hasNext();
+        leftHead = hasLeft ? left.next() : null;
+        leftHeadKey = hasLeft ? leftKey.apply(leftHead) : null;
+    }
+
+    private void pullRight() {
+        hasRight = right.hasNext();
+        rightHead = hasRight ? right.next() : null;
+        rightHeadKey = hasRight ? rightKey.apply(rightHead) : null;
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException("remove() not supported");
+    }
+
+    /**
+     * One output row: a left and right row with equal keys, or an unmatched row
+     * with null on the other side.
+     *
+     * @param <L> left row type
+     * @param <R> right row type
+     */
+    public static final class Joined<L, R> {
+        private final L left;
+        private final R right;
+
+        Joined(L left, R right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        /**
+         * Returns the left row, or null for an unmatched right row.
+         */
+        public L left() {
+            return left;
+        }
+
+        /**
+         * Returns the right row, or null for an unmatched left row.
+         */
+        public R right() {
+            return right;
+        }
+
+        @Override
+        public String toString() {
+            return "(" + left + ", " + right + ")";
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.research.iterator;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event emitted when a source iterator of a merge runs dry.
+ *
+ * <p>Disabled by default; enable {@code com.research.iterator.SourceExhausted}
+ * in a JFR configuration to record it.
+ */
+@Name("com.research.iterator.SourceExhausted")
+@Label("Merge Source Exhausted")
+@Category({"Collating Iterator"})
+@Description("A source iterator of a k-way merge reported hasNext() == false")
+@Enabled(false)
+@StackTrace(false)
+public class SourceExhaustedEvent extends jdk.jfr.Event {
+
+    @Label("Engine")
+    String engine;
+
+    @Label("Source Index")
+    int sourceIndex;
+}
@@ -0,0 +1,32 @@
+package com.research.iterator;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * JFR event for a single source fetch ({@code hasNext()} plus {@code next()})
+ * that took longer than the configured threshold.
+ *
+ * <p>Disabled by default with a 10 ms threshold; both can be overridden for
+ * {@code com.research.iterator.SourceStall} in a JFR configuration.
+ */
+@Name("com.research.iterator.SourceStall")
+@Label("Merge Source Stall")
+@Category({"Collating Iterator"})
+@Description("A single fetch from a source iterator blocked past the threshold")
+@Enabled(false)
+@Threshold("10 ms")
+@StackTrace(false)
+public class SourceStallEvent extends jdk.jfr.Event {
+
+    @Label("Engine")
+    String engine;
+
+    @Label("Source Index")
+    int sourceIndex;
+}
@@ -0,0 +1,150 @@
+package com.research.iterator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Factory for merges whose comparison call site is monomorphic per element type.
+ *
+ * <p>Every (element type, comparator class) pair gets its own copy of
+ * {@link LoserTreeKernel}, defined from the kernel's bytecode by a dedicated
+ * class loader. The JIT profiles each copy separately, so an Integer merge and
+ * a String merge in the same JVM no longer share (and pollute) one
+ * {@code compareTo} type profile. Copies are created on first use and cached;
+ * all merges of the same pair share one copy.
+ *
+ * <p>Each copy costs a class definition, its metaspace, and its own JIT
+ * compilations and code cache, so this pays off only for a handful of pairs
+ * that each merge a lot. The cache is a {@link ClassValue} on the element type
+ * and comparator class, and a copy references neither: it is released with
+ * its key classes, and never pins their class loader.
+ *
+ * <p>Only the comparison is specialized: a comparator's own internals (for
+ * example the key extractor inside {@link Comparator#comparing}) are JDK code
+ * shared by every caller, and per-source iterator calls still see every
+ * source class. If the kernel's bytecode cannot be read, every pair falls
+ * back to the shared class.
+ */
+public final class SpecializedMerges {
+
+    private static final byte[] KERNEL = readKernel();
+    private static final AtomicInteger DEFINED = new AtomicInteger();
+
+    // Natural-order kernels, keyed by element type
+    private static final ClassValue<Constructor<?>> NATURAL = new ClassValue<>() {
+        @Override
+        protected Constructor<?> computeValue(Class<?> type) {
+            return defineKernel();
+        }
+    };
+
+    // Comparator kernels, keyed by element type, then comparator class
+    private static final ClassValue<ClassValue<Constructor<?>>> ORDERED = new ClassValue<>() {
+        @Override
+        protected ClassValue<Constructor<?>> computeValue(Class<?> type) {
+            return new ClassValue<>() {
+                @Override
+                protected Constructor<?> computeValue(Class<?> comparatorType) {
+                    return defineKernel();
+                }
+            };
+        }
+    };
+
+    private SpecializedMerges() {
+    }
+
+    /**
+     * Merges sorted iterators of one element type in natural order.
+     *
+     * @param type exact class of the elements, the specialization key
+     * @param iterators list of sorted iterators (must not be null or contain nulls)
+     * @throws IllegalArgumentException if iterators is empty or contains nulls
+     */
+    public static <T extends Comparable<? super T>> Iterator<T> merge(Class<T> type,
+                                                                      List<? extends Iterator<T>> iterators) {
+        return merge(type, null, iterators, MergeMetrics.NONE);
+    }
+
+    /**
+     * Merges sorted iterators of one element type, instrumented.
+     *
+     * @param type exact class of the elements, the specialization key
+     * @param comparator element order, or null for natural order (T must then be Comparable)
+     * @param iterators list of sorted iterators (must not be null or contain nulls)
+     * @param metrics instrumentation hook (use {@link MergeMetrics#NONE} to disable)
+     * @throws IllegalArgumentException if iterators is empty or contains nulls
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Iterator<T> merge(Class<T> type, Comparator<? super T> comparator,
+                                        List<? extends Iterator<T>> iterators, MergeMetrics metrics) {
+        Objects.requireNonNull(type, "type must not be null");
+        MergeBuildEvent build = MergeEvents.beginBuild();
+        Constructor<?> kernel = comparator == null
+            ? NATURAL.get(type)
+            : ORDERED.get(type).get(comparator.getClass());
+        Iterator<T> merged;
+        try {
+            merged = (Iterator<T>) kernel.newInstance(iterators, comparator, metrics);
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot instantiate merge kernel", e);
+        }
+        MergeEvents.endBuild(build, LoserTreeKernel.ENGINE, iterators.size());
+        return merged;
+    }
+
+    /**
+     * Returns the number of kernel copies defined so far.
+     */
+    static int kernelCount() {
+        return DEFINED.get();
+    }
+
+    private static Constructor<?> defineKernel() {
+        Class<?> kernelClass = LoserTreeKernel.class;
+        if (KERNEL != null) {
+            kernelClass = new KernelLoader(LoserTreeKernel.class.getClassLoader()).define(KERNEL);
+            DEFINED.incrementAndGet();
+        }
+        try {
+            return kernelClass.getConstructor(List.class, Comparator.class, MergeMetrics.class);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("Merge kernel has no public constructor", e);
+        }
+    }
+
+    private static byte[] readKernel() {
+        try (InputStream in = LoserTreeKernel.class.getResourceAsStream("LoserTreeKernel.class")) {
+            return in == null ? null : in.readAllBytes();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Defines one copy of the kernel; every other class resolves through the parent.
+     */
+    private static final class KernelLoader extends ClassLoader {
+
+        KernelLoader(ClassLoader parent) {
+            super(parent);
+        }
+
+        Class<?> define(byte[] bytes) {
+            return defineClass(LoserTreeKernel.class.getName(), bytes, 0, bytes.length);
+        }
+    }
+}
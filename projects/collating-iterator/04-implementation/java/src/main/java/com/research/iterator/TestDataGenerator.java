@@ -1,5 +1,8 @@
 package com.research.iterator;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.util.*;
 
 /**
@@ -7,9 +10,22 @@ import java.util.*;
  *
  * Supports multiple distribution patterns and value patterns to systematically
  * explore the input space and expose performance characteristics.
+ *
+ * Two generation paths:
+ * - {@link #generate}/{@link #generateArrays(int, int, String, String)}:
+ *   materialize and sort each source (the original datasets)
+ * - {@link #stream}: lazy per-source primitive streams in O(1) memory per
+ *   source, with exhaustion patterns, materialized by
+ *   {@link #generateArrays(int, int, String, String, String)} and cached
+ *   on disk by {@link #generateArrays(int, int, String, String, String, Path)}
  */
 public class TestDataGenerator {
 
+    private static final int MAX_VALUE = 1000000;
+    // Bump whenever generation changes the values produced for a seed, so cached datasets are regenerated
+    private static final int GENERATOR_VERSION = 1;
+
+    private final long seed;
     private final Random random;
 
     /**
@@ -23,6 +39,7 @@ public class TestDataGenerator {
      * Creates generator with specified seed.
      */
     public TestDataGenerator(long seed) {
+        this.seed = seed;
         this.random = new Random(seed);
     }
 
@@ -36,6 +53,32 @@ public class TestDataGenerator {
      * @return list of sorted lists (one per iterator)
      */
     public List<List<Integer>> generate(int k, int n, String distribution, String pattern) {
+        int[][] arrays = generateArrays(k, n, distribution, pattern);
+
+        List<List<Integer>> result = new ArrayList<>(k);
+        for (int[] array : arrays) {
+            List<Integer> values = new ArrayList<>(array.length);
+            for (int value : array) {
+                values.add(value);
+            }
+            result.add(values);
+        }
+        return result;
+    }
+
+    /**
+     * Generates test data as primitive arrays, without boxing.
+     *
+     * <p>Produces the same values as {@link #generate} for the same seed and
+     * parameters, at 4 bytes per element, so it scales to N = 10^8.
+     *
+     * @param k number of iterators
+     * @param n total number of elements
+     * @param distribution how elements are distributed across iterators
+     * @param pattern how values are generated
+     * @return one sorted array per iterator
+     */
+    public int[][] generateArrays(int k, int n, String distribution, String pattern) {
         if (k <= 0) {
             throw new IllegalArgumentException("k must be positive");
         }
@@ -119,42 +162,42 @@ public class TestDataGenerator {
     /**
      * Generates values for each iterator based on pattern type.
      */
-    private List<List<Integer>> generateValues(int k, int[] counts, String pattern) {
-        List<List<Integer>> result = new ArrayList<>();
+    private int[][] generateValues(int k, int[] counts, String pattern) {
+        int[][] result = new int[k][];
 
         switch (pattern.toLowerCase()) {
             case "random":
                 // Random values in [0, 1000000), sorted per iterator
                 for (int i = 0; i < k; i++) {
-                    List<Integer> values = new ArrayList<>();
+                    int[] values = new int[counts[i]];
                     for (int j = 0; j < counts[i]; j++) {
-                        values.add(random.nextInt(1000000));
+                        values[j] = random.nextInt(1000000);
                     }
-                    Collections.sort(values);
-                    result.add(values);
+                    Arrays.sort(values);
+                    result[i] = values;
                 }
                 break;
 
             case "sequential":
                 // Values interleaved: iter i gets i, i+k, i+2k, ...
                 for (int i = 0; i < k; i++) {
-                    List<Integer> values = new ArrayList<>();
+                    int[] values = new int[counts[i]];
                     for (int j = 0; j < counts[i]; j++) {
-                        values.add(i + j * k);
+                        values[j] = i + j * k;
                     }
                     // Already sorted
-                    result.add(values);
+                    result[i] = values;
                 }
                 break;
 
             case "alternating":
                 // Same as sequential (designed to maximize comparisons)
                 for (int i = 0; i < k; i++) {
-                    List<Integer> values = new ArrayList<>();
+                    int[] values = new int[counts[i]];
                     for (int j = 0; j < counts[i]; j++) {
-                        values.add(i + j * k);
+                        values[j] = i + j * k;
                     }
-                    result.add(values);
+                    result[i] = values;
                 }
                 break;
 
@@ -162,14 +205,14 @@ public class TestDataGenerator {
                 // Divide value space into k ranges, iterator i uses range i
                 int rangeSize = 1000000 / k;
                 for (int i = 0; i < k; i++) {
-                    List<Integer> values = new ArrayList<>();
+                    int[] values = new int[counts[i]];
                     int rangeStart = i * rangeSize;
                     int rangeEnd = (i == k - 1) ? 1000000 : (i + 1) * rangeSize;
                     for (int j = 0; j < counts[i]; j++) {
-                        values.add(rangeStart + random.nextInt(rangeEnd - rangeStart));
+                        values[j] = rangeStart + random.nextInt(rangeEnd - rangeStart);
                     }
-                    Collections.sort(values);
-                    result.add(values);
+                    Arrays.sort(values);
+                    result[i] = values;
                 }
                 break;
 
@@ -180,6 +223,258 @@ public class TestDataGenerator {
         return result;
     }
 
+    /**
+     * Generates test data lazily: one sorted primitive stream per source.
+     *
+     * <p>Each source draws from its own random generator derived from the seed
+     * and source index, so streams are reproducible and can be consumed in any
+     * order. Values are produced on demand without materializing the source.
+     *
+     * <p>Patterns: random, clustered, sequential, alternating, reverse_sequential
+     * (sequential with source order reversed), duplicates (every source emits
+     * 0, 1, 2, ... so each key repeats across sources).
+     *
+     * <p>Exhaustion patterns shape when sources run dry relative to each other by
+     * scaling each source's values into a prefix of the value space:
+     * - simultaneous: every source spans the whole range (finish together)
+     * - sequential: source i ends at (i+1)/k of the range (exhaust one by one)
+     * - early: all sources but the last end at 10% (one long tail)
+     * - random: each source ends at a random point (unpredictable order)
+     *
+     * @param k number of iterators
+     * @param n total number of elements
+     * @param distribution how elements are distributed across iterators
+     * @param pattern how values are generated
+     * @param exhaustion how sources exhaust relative to each other
+     * @return one lazily generated, sorted stream per iterator
+     */
+    public List<PrimitiveIterator.OfInt> stream(int k, int n, String distribution, String pattern,
+                                                String exhaustion) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("k must be positive");
+        }
+        if (n < 0) {
+            throw new IllegalArgumentException("n must be non-negative");
+        }
+
+        int[] counts = generateDistribution(k, n, distribution);
+        double[] ends = generateExhaustion(k, exhaustion);
+
+        String kind = pattern.toLowerCase();
+        List<PrimitiveIterator.OfInt> streams = new ArrayList<>(k);
+        for (int i = 0; i < k; i++) {
+            SplittableRandom sourceRandom = new SplittableRandom(seed + (i + 1) * 0x9E3779B97F4A7C15L);
+            streams.add(new SourceStream(kind, i, k, counts[i], ends[i], sourceRandom));
+        }
+        return streams;
+    }
+
+    /**
+     * Materializes {@link #stream} into primitive arrays.
+     *
+     * @return one sorted array per iterator
+     */
+    public int[][] generateArrays(int k, int n, String distribution, String pattern, String exhaustion) {
+        List<PrimitiveIterator.OfInt> streams = stream(k, n, distribution, pattern, exhaustion);
+        int[] counts = generateDistribution(k, n, distribution);
+
+        int[][] arrays = new int[k][];
+        for (int i = 0; i < k; i++) {
+            int[] values = new int[counts[i]];
+            PrimitiveIterator.OfInt source = streams.get(i);
+            for (int j = 0; j < values.length; j++) {
+                values[j] = source.nextInt();
+            }
+            arrays[i] = values;
+        }
+        return arrays;
+    }
+
+    /**
+     * Like {@link #generateArrays(int, int, String, String, String)}, but reuses a
+     * dataset file from cacheDir when one exists for the same seed and parameters,
+     * and writes one otherwise.
+     *
+     * @throws UncheckedIOException if the cache cannot be read or written
+     */
+    public int[][] generateArrays(int k, int n, String distribution, String pattern, String exhaustion,
+                                  Path cacheDir) {
+        String key = cacheKey(k, n, distribution, pattern, exhaustion);
+        try {
+            return new DatasetCache(cacheDir).getOrCreate(key,
+                () -> generateArrays(k, n, distribution, pattern, exhaustion));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Dataset cache failed for " + key, e);
+        }
+    }
+
+    /**
+     * Returns the cache key for a dataset: the generator version, the seed and
+     * every generation parameter.
+     */
+    String cacheKey(int k, int n, String distribution, String pattern, String exhaustion) {
+        return String.format("gen%d-seed%d-k%d-n%d-%s-%s-%s",
+            GENERATOR_VERSION, seed, k, n, distribution, pattern, exhaustion).toLowerCase();
+    }
+
+    /**
+     * Generates the fraction of the value range each source spans.
+     */
+    private double[] generateExhaustion(int k, String exhaustion) {
+        double[] ends = new double[k];
+
+        switch (exhaustion.toLowerCase()) {
+            case "simultaneous":
+                Arrays.fill(ends, 1.0);
+                break;
+
+            case "sequential":
+                for (int i = 0; i < k; i++) {
+                    ends[i] = (i + 1) / (double) k;
+                }
+                break;
+
+            case "early":
+                Arrays.fill(ends, 0.1);
+                ends[k - 1] = 1.0;
+                break;
+
+            case "random":
+                SplittableRandom exhaustionRandom = new SplittableRandom(seed);
+                for (int i = 0; i < k; i++) {
+                    ends[i] = 1.0 - exhaustionRandom.nextDouble();  // (0, 1]
+                }
+                break;
+
+            default:
+                throw new IllegalArgumentException("Unknown exhaustion: " + exhaustion);
+        }
+
+        return ends;
+    }
+
+    /**
+     * Lazily generated sorted values for one source.
+     *
+     * <p>Random values are drawn as successive order statistics: with r values
+     * left to place in [current, hi), the next one is at
+     * current + (hi - current)(1 - U^(1/r)), which yields a sorted uniform
+     * sample without generating and sorting the whole source.
+     */
+    private static final class SourceStream implements PrimitiveIterator.OfInt {
+        private final String pattern;
+        private final int index;
+        private final int k;
+        private final int count;
+        private final double end;
+        private final SplittableRandom random;
+        private final double lo;
+        private final double hi;
+        private double current;
+        private int emitted;
+
+        SourceStream(String pattern, int index, int k, int count, double end, SplittableRandom random) {
+            this.pattern = pattern;
+            this.index = index;
+            this.k = k;
+            this.count = count;
+            this.end = end;
+            this.random = random;
+
+            switch (pattern) {
+                case "random":
+                    lo = 0;
+                    hi = MAX_VALUE;
+                    break;
+                case "clustered":
+                    int rangeSize = MAX_VALUE / k;
+                    lo = (double) index * rangeSize;
+                    hi = (index == k - 1) ? MAX_VALUE : (double) (index + 1) * rangeSize;
+                    break;
+                case "sequential":
+                case "alternating":
+                case "reverse_sequential":
+                case "duplicates":
+                    lo = 0;
+                    hi = 0;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown pattern: " + pattern);
+            }
+            this.current = lo;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return emitted < count;
+        }
+
+        @Override
+        public int nextInt() {
+            if (emitted >= count) {
+                throw new NoSuchElementException("Source exhausted");
+            }
+            int j = emitted++;
+            double value;
+            switch (pattern) {
+                case "random":
+                case "clustered":
+                    int remaining = count - j;
+                    current += (hi - current) * (1.0 - Math.pow(random.nextDouble(), 1.0 / remaining));
+                    value = Math.min(current, Math.nextDown(hi));
+                    break;
+                case "sequential":
+                case "alternating":
+                    value = index + (double) j * k;
+                    break;
+                case "reverse_sequential":
+                    value = (k - 1 - index) + (double) j * k;
+                    break;
+                default:  // duplicates
+                    value = j;
+                    break;
+            }
+            // Monotone scaling keeps the source sorted while moving its last value
+            return (int) (value * end);
+        }
+    }
+
+    /**
+     * Converts generated lists to arrays once, so repeated runs can use
+     * {@link #toCursors(Integer[][])} instead of copying every list.
+     */
+    public Integer[][] toArrays(List<List<Integer>> data) {
+        Integer[][] arrays = new Integer[data.size()][];
+        for (int i = 0; i < arrays.length; i++) {
+            arrays[i] = data.get(i).toArray(new Integer[0]);
+        }
+        return arrays;
+    }
+
+    /**
+     * Creates zero-copy iterators over arrays from {@link #toArrays(List)}.
+     * Allocates one cursor per source, independent of the number of elements.
+     */
+    public List<Iterator<Integer>> toCursors(Integer[][] arrays) {
+        List<Iterator<Integer>> iterators = new ArrayList<>(arrays.length);
+        for (Integer[] array : arrays) {
+            iterators.add(new ArrayCursor<>(array));
+        }
+        return iterators;
+    }
+
+    /**
+     * Creates zero-copy iterators over arrays from {@link #generateArrays}.
+     * Values are boxed lazily, one at a time, as the merge pulls them.
+     */
+    public List<Iterator<Integer>> toCursors(int[][] arrays) {
+        List<Iterator<Integer>> iterators = new ArrayList<>(arrays.length);
+        for (int[] array : arrays) {
+            iterators.add(new IntArrayCursor(array));
+        }
+        return iterators;
+    }
+
     /**
      * Creates iterators from generated lists (deep copy to allow multiple runs).
      */
@@ -0,0 +1,216 @@
+package com.research.iterator;
+
+import java.util.*;
+
+/**
+ * TwoLevelMergeIterator merges k sorted iterators in cache-sized groups, for k
+ * in the thousands.
+ *
+ * <p>At large k a flat loser tree's nodes and heads no longer fit in L2, so
+ * every replay walks log k cold cache lines. Here:
+ * - sources are split into groups of groupSize, each merged by its own
+ *   {@link LoserTreeIterator} small enough to stay cache-resident
+ * - each group drains into a buffer of bufferSize elements in one burst, while
+ *   its tree is hot, so its misses are paid once per buffer, not per element
+ * - a top-level flat loser tree over the k / groupSize buffers merges the
+ *   group outputs, reading each buffer's head in place
+ *
+ * <p>This is the two-level special case of a funnel (Frigo et al. 1999,
+ * Candidate 8 in the analysis stage) with tuned instead of recursive sizes.
+ * Comparisons stay about log k per element: log(k / groupSize) at the top
+ * plus log(groupSize) in the group.
+ *
+ * <p>Complexity: O(N log k) time, O(k + (k / groupSize) * bufferSize) space
+ *
+ * @param <T> element type, must be Comparable
+ */
+public class TwoLevelMergeIterator<T extends Comparable<? super T>> extends AbstractLoserTree implements Iterator<T> {
+
+    private static final String ENGINE = "TwoLevelMerge";
+
+    /** Sources per group: tree plus heads of a 64-source group fit in L1/L2. */
+    public static final int DEFAULT_GROUP_SIZE = 64;
+
+    /** Elements drained per group burst. */
+    public static final int DEFAULT_BUFFER_SIZE = 256;
+
+    private final List<LoserTreeIterator<T>> groups;
+    private final Object[][] buffers;   // buffers[g] = group g's burst output
+    private final int[] positions;      // Next unread index per buffer
+    private final int[] sizes;          // Filled length per buffer (0 = group exhausted)
+
+    /**
+     * Constructs a TwoLevelMergeIterator with the default group and buffer sizes.
+     *
+     * @param iterators list of sorted iterators (must not be null or contain nulls)
+     * @throws IllegalArgumentException if iterators is null, empty, or contains nulls
+     */
+    public TwoLevelMergeIterator(List<? extends Iterator<T>> iterators) {
+        this(iterators, MergeMetrics.NONE);
+    }
+
+    /**
+     * Constructs an instrumented TwoLevelMergeIterator with the default group and buffer sizes.
+     *
+     * @param iterators list of sorted iterators (must not be null or contain nulls)
+     * @param metrics instrumentation hook (use {@link MergeMetrics#NONE} to disable)
+     * @throws IllegalArgumentException if iterators is null, empty, or contains nulls
+     */
+    public TwoLevelMergeIterator(List<? extends Iterator<T>> iterators, MergeMetrics metrics) {
+        this(iterators, DEFAULT_GROUP_SIZE, DEFAULT_BUFFER_SIZE, metrics);
+    }
+
+    /**
+     * Constructs an instrumented TwoLevelMergeIterator.
+     *
+     * <p>Pulls and exhaustion are reported against the original source
+     * indices; comparisons and replays of both levels are reported together.
+     * JFR events are likewise recorded under this engine with the original
+     * indices, and one build event covers the group trees.
+     *
+     * @param iterators list of sorted iterators (must not be null or contain nulls)
+     * @param groupSize sources per group
+     * @param bufferSize elements buffered per group
+     * @param metrics instrumentation hook (use {@link MergeMetrics#NONE} to disable)
+     * @throws IllegalArgumentException if iterators is null, empty, or contains nulls,
+     *         or groupSize or bufferSize is not positive
+     */
+    public TwoLevelMergeIterator(List<? extends Iterator<T>> iterators, int groupSize, int bufferSize,
+                                 MergeMetrics metrics) {
+        // The top tree's leaves are the groups
+        super(groupCount(iterators, groupSize), metrics);
+        long start = System.nanoTime();
+        MergeBuildEvent build = MergeEvents.beginBuild();
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("bufferSize must be positive: " + bufferSize);
+        }
+
+        int sources = iterators.size();
+        this.groups = new ArrayList<>(k);
+        for (int first = 0; first < sources; first += groupSize) {
+            List<? extends Iterator<T>> members = iterators.subList(first, Math.min(first + groupSize, sources));
+            MergeMetrics groupMetrics = metrics == MergeMetrics.NONE ? metrics : new GroupMetrics(metrics, first);
+            groups.add(new LoserTreeIterator<>(members, groupMetrics, ENGINE, first));
+        }
+        this.buffers = new Object[k][bufferSize];
+        this.positions = new int[k];
+        this.sizes = new int[k];
+
+        for (int i = 0; i < k; i++) {
+            fill(i);
+        }
+        buildTree();
+
+        MergeEvents.endBuild(build, ENGINE, sources);
+        metrics.onBuild(sources, System.nanoTime() - start);
+    }
+
+    private static int groupCount(List<? extends Iterator<?>> iterators, int groupSize) {
+        int sources = checkSources(iterators, "iterators");
+        if (groupSize <= 0) {
+            throw new IllegalArgumentException("groupSize must be positive: " + groupSize);
+        }
+        return (sources + groupSize - 1) / groupSize;
+    }
+
+    /**
+     * Burst-refills a group's buffer: the group's tree stays cache-resident
+     * for the whole refill. Leaves the buffer empty once the group is exhausted.
+     */
+    private void fill(int group) {
+        LoserTreeIterator<T> merge = groups.get(group);
+        Object[] buffer = buffers[group];
+        int size = 0;
+        while (size < buffer.length && merge.hasNext()) {
+            buffer[size++] = merge.next();
+        }
+        positions[group] = 0;
+        sizes[group] = size;
+    }
+
+    /**
+     * Returns group i's current head, or null if it is exhausted.
+     */
+    @SuppressWarnings("unchecked")
+    private T head(int group) {
+        int position = positions[group];
+        return position < sizes[group] ? (T) buffers[group][position] : null;
+    }
+
+    /**
+     * Returns true if group a's head is strictly smaller than group b's.
+     * Exhausted groups lose to everything.
+     */
+    @Override
+    final boolean beats(int a, int b) {
+        metrics.onComparison();
+        T x = head(a);
+        T y = head(b);
+        if (x == null) return false;
+        if (y == null) return true;
+        return x.compareTo(y) < 0;
+    }
+
+    @Override
+    public boolean hasNext() {
+        // Winner is exhausted only when every group is
+        return positions[winnerIndex] < sizes[winnerIndex];
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("Iterator exhausted");
+        }
+        int candidate = winnerIndex;
+        Object[] buffer = buffers[candidate];
+        @SuppressWarnings("unchecked")
+        T result = (T) buffer[positions[candidate]];
+        buffer[positions[candidate]++] = null;
+        if (positions[candidate] == sizes[candidate]) {
+            fill(candidate);
+        }
+
+        replay(candidate);
+        return result;
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException("remove() not supported");
+    }
+
+    /**
+     * Forwards a group tree's events, mapping its source indices back to the
+     * original list. The enclosing engine reports the build.
+     */
+    private static final class GroupMetrics implements MergeMetrics {
+        private final MergeMetrics target;
+        private final int firstSource;
+
+        GroupMetrics(MergeMetrics target, int firstSource) {
+            this.target = target;
+            this.firstSource = firstSource;
+        }
+
+        @Override
+        public void onComparison() {
+            target.onComparison();
+        }
+
+        @Override
+        public void onReplay() {
+            target.onReplay();
+        }
+
+        @Override
+        public void onPull(int source) {
+            target.onPull(firstSource + source);
+        }
+
+        @Override
+        public void onExhausted(int source) {
+            target.onExhausted(firstSource + source);
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.research.iterator;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+
+/**
+ * WatermarkMerge merges live, never-ending timestamp-ordered streams whose
+ * sources may pause.
+ *
+ * <p>The pull-based engines need {@code hasNext()} to answer immediately, so
+ * they block forever on an idle source. Here progress is driven by watermarks
+ * instead of data:
+ * - each source's watermark is the higher of what it advertises and its
+ *   highest timestamp seen minus maxDisorder
+ * - the merge watermark is the minimum over all sources
+ * - buffered elements below the merge watermark can no longer be preceded by
+ *   anything and are emitted in timestamp order
+ *
+ * <p>Latency therefore follows watermark freshness, not the slowest source's
+ * data rate: an idle source that keeps advancing its watermark holds nothing up.
+ *
+ * <p>Bounded disorder: with maxDisorder d, a source may deliver an element up to
+ * d below its highest timestamp so far. Elements wait in a reorder buffer (a
+ * min-heap) until the watermark passes them. An element behind output already
+ * emitted is dropped and counted in {@link #lateDropped()}.
+ *
+ * <p>Not thread-safe: one consumer thread calls {@link #poll}. Sources are fed
+ * by their own producer threads.
+ *
+ * <p>Complexity: O(log B) per element for a reorder buffer of B elements,
+ * O(k) per watermark refresh
+ *
+ * @param <T> element type
+ */
+public class WatermarkMerge<T> {
+
+    private static final long MAX_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final int DRAIN_LIMIT = 1024;    // Elements taken from one source per refresh
+
+    private final List<WatermarkSource<T>> sources;
+    private final ToLongFunction<? super T> timestamp;
+    private final long maxDisorder;
+    private final PriorityQueue<T> buffer;          // Reorder buffer, by timestamp
+    private final long[] highest;                   // Highest timestamp seen per source
+    private long watermark = Long.MIN_VALUE;        // Minimum source watermark
+    private int lagging;                            // Source holding the watermark back
+    private long lastEmitted = Long.MIN_VALUE;
+    private long lateDropped;
+
+    /**
+     * Constructs a merge of sources that deliver in timestamp order.
+     *
+     * @param sources live sources (must not be null or contain nulls)
+     * @param timestamp extracts an element's timestamp
+     * @throws IllegalArgumentException if sources is empty or contains nulls
+     */
+    public WatermarkMerge(List<? extends WatermarkSource<T>> sources, ToLongFunction<? super T> timestamp) {
+        this(sources, timestamp, 0);
+    }
+
+    /**
+     * Constructs a merge of sources that may deliver out of order by up to maxDisorder.
+     *
+     * @param sources live sources (must not be null or contain nulls)
+     * @param timestamp extracts an element's timestamp
+     * @param maxDisorder how far below its highest timestamp so far a source may deliver
+     * @throws IllegalArgumentException if sources is empty or contains nulls, or maxDisorder is negative
+     */
+    public WatermarkMerge(List<? extends WatermarkSource<T>> sources, ToLongFunction<? super T> timestamp,
+                          long maxDisorder) {
+        Objects.requireNonNull(sources, "sources must not be null");
+        Objects.requireNonNull(timestamp, "timestamp must not be null");
+        if (sources.isEmpty()) {
+            throw new IllegalArgumentException("sources must not be empty");
+        }
+        if (sources.contains(null)) {
+            throw new IllegalArgumentException("sources must not contain null");
+        }
+        if (maxDisorder < 0) {
+            throw new IllegalArgumentException("maxDisorder must not be negative: " + maxDisorder);
+        }
+
+        this.sources = new ArrayList<>(sources);
+        this.timestamp = timestamp;
+        this.maxDisorder = maxDisorder;
+        this.buffer = new PriorityQueue<>(Comparator.comparingLong(timestamp));
+        this.highest = new long[sources.size()];
+        Arrays.fill(highest, Long.MIN_VALUE);
+    }
+
+    /**
+     * Returns the next element in timestamp order, waiting up to the timeout
+     * for the watermark to pass one.
+     *
+     * <p>While waiting, only the source holding the watermark back is polled
+     * (in short slices, so watermark-only advances on other sources are seen).
+     *
+     * @param timeout how long to wait; 0 returns immediately
+     * @param unit unit of timeout
+     * @return the next element, or null if none became ready in time or the merge is finished
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public T poll(long timeout, TimeUnit unit) throws InterruptedException {
+        T ready = ready();
+        if (ready != null) {
+            return ready;
+        }
+
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (true) {
+            refresh();
+            ready = ready();
+            if (ready != null || isFinished()) {
+                return ready;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return null;
+            }
+            T element = sources.get(lagging).poll(Math.min(remaining, MAX_WAIT_NANOS), TimeUnit.NANOSECONDS);
+            if (element != null) {
+                accept(lagging, element);
+            }
+        }
+    }
+
+    /**
+     * Returns true once every source has finished and everything buffered was emitted.
+     */
+    public boolean isFinished() {
+        return watermark == Long.MAX_VALUE && buffer.isEmpty();
+    }
+
+    /**
+     * Returns the current merge watermark: every element below it has been or
+     * can be emitted.
+     */
+    public long watermark() {
+        return watermark;
+    }
+
+    /**
+     * Returns the number of elements held in the reorder buffer.
+     */
+    public int buffered() {
+        return buffer.size();
+    }
+
+    /**
+     * Returns the number of elements dropped for arriving behind output already emitted.
+     */
+    public long lateDropped() {
+        return lateDropped;
+    }
+
+    /**
+     * Removes and returns the buffered minimum if the watermark has passed it.
+     */
+    private T ready() {
+        T head = buffer.peek();
+        if (head == null) {
+            return null;
+        }
+        long t = timestamp.applyAsLong(head);
+        if (t >= watermark && watermark != Long.MAX_VALUE) {
+            return null;
+        }
+        lastEmitted = t;
+        return buffer.poll();
+    }
+
+    /**
+     * Reads every source's watermark, then takes what it has queued, and
+     * recomputes the merge watermark.
+     *
+     * <p>The watermark is read before draining: elements queued before it was
+     * published are taken now, and anything later is bound by it. That only
+     * holds if the drain reached the end of the queue; when it stops at
+     * {@link #DRAIN_LIMIT}, elements published before the watermark may still
+     * be queued, so only the watermark derived from the elements taken counts
+     * for that source until a later refresh empties its backlog.
+     */
+    private void refresh() throws InterruptedException {
+        long minimum = Long.MAX_VALUE;
+        for (int i = 0; i < sources.size(); i++) {
+            WatermarkSource<T> source = sources.get(i);
+            long advertised = source.watermark();
+            int drained = 0;
+            T element;
+            while (drained < DRAIN_LIMIT && (element = source.poll(0, TimeUnit.NANOSECONDS)) != null) {
+                accept(i, element);
+                drained++;
+            }
+            long w = drained == DRAIN_LIMIT ? derived(highest[i]) : Math.max(advertised, derived(highest[i]));
+            if (w < minimum || i == 0) {
+                minimum = w;
+                lagging = i;
+            }
+        }
+        // Watermarks never move backwards
+        watermark = Math.max(watermark, minimum);
+    }
+
+    /**
+     * Watermark implied by a source's highest timestamp under bounded disorder.
+     */
+    private long derived(long highestSeen) {
+        if (highestSeen < Long.MIN_VALUE + maxDisorder) {
+            return Long.MIN_VALUE;
+        }
+        return highestSeen - maxDisorder;
+    }
+
+    private void accept(int source, T element) {
+        long t = timestamp.applyAsLong(element);
+        if (t < lastEmitted) {
+            lateDropped++;
+            return;
+        }
+        if (t > highest[source]) {
+            highest[source] = t;
+        }
+        buffer.add(element);
+    }
+}
@@ -0,0 +1,37 @@
+package com.research.iterator;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Live, possibly never-ending source for {@link WatermarkMerge}.
+ *
+ * <p>Elements carry a long timestamp (the merge key). Besides elements, the
+ * source advertises a watermark: a promise that no element it delivers from
+ * now on has a timestamp below it. An idle source keeps the merge moving by
+ * advancing its watermark without producing data. A finished source reports
+ * {@link Long#MAX_VALUE}.
+ *
+ * <p>Ordering between the two calls: every element delivered after a
+ * {@link #watermark()} call returned w must have a timestamp &gt;= w, except
+ * elements already waiting in the source when w was published.
+ *
+ * @param <T> element type
+ */
+public interface WatermarkSource<T> {
+
+    /**
+     * Returns the next element, waiting up to the timeout for one to arrive.
+     *
+     * @param timeout how long to wait; 0 returns immediately
+     * @param unit unit of timeout
+     * @return the next element, or null if none arrived in time
+     * @throws InterruptedException if interrupted while waiting
+     */
+    T poll(long timeout, TimeUnit unit) throws InterruptedException;
+
+    /**
+     * Returns the lowest timestamp any future element may have,
+     * {@link Long#MIN_VALUE} if unknown, or {@link Long#MAX_VALUE} once finished.
+     */
+    long watermark();
+}
@@ -0,0 +1,123 @@
+package com.research.iterator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for BatchLoserTree and the BatchSource adapters.
+ *
+ * Inherits all shared tests from CollatingIteratorTestBase through
+ * BatchSource.of(Iterator).
+ * Adds chunking tests.
+ */
+class BatchLoserTreeTest extends CollatingIteratorTestBase {
+
+    @Override
+    protected <T extends Comparable<? super T>> Iterator<T> createIterator(
+        List<? extends Iterator<T>> iterators
+    ) {
+        return createIterator(iterators, MergeMetrics.NONE);
+    }
+
+    @Override
+    protected <T extends Comparable<? super T>> Iterator<T> createIterator(
+        List<? extends Iterator<T>> iterators,
+        MergeMetrics metrics
+    ) {
+        // Tiny batches so the shared tests cross buffer boundaries
+        return new BatchLoserTree<>(iterators == null ? null : adapt(iterators), 2, metrics);
+    }
+
+    private static <T> List<BatchSource<T>> adapt(List<? extends Iterator<T>> iterators) {
+        List<BatchSource<T>> sources = new ArrayList<>();
+        for (Iterator<T> iterator : iterators) {
+            sources.add(iterator == null ? null : BatchSource.of(iterator));
+        }
+        return sources;
+    }
+
+    @Test
+    void testOneFillPerBatch() {
+        int k = 4;
+        int n = 1000;
+        int batchSize = 64;
+        List<CountingSource> sources = new ArrayList<>();
+        for (int i = 0; i < k; i++) {
+            sources.add(new CountingSource(i, k, n));
+        }
+
+        BatchLoserTree<Integer> merged = new BatchLoserTree<>(sources, batchSize, MergeMetrics.NONE);
+        int expected = 0;
+        while (merged.hasNext()) {
+            assertEquals(expected++, merged.next());
+        }
+
+        assertEquals(k * n, expected);
+        for (CountingSource source : sources) {
+            // ceil(n / batchSize) data fills plus the one returning 0
+            assertEquals((n + batchSize - 1) / batchSize + 1, source.fills);
+        }
+    }
+
+    @Test
+    void testShortFillsAndBufferLargerThanSource() {
+        // A source may return fewer elements than requested before it is exhausted
+        BatchSource<String> dribble = new BatchSource<String>() {
+            private final Iterator<String> values = Arrays.asList("b", "d", "f").iterator();
+
+            @Override
+            public int fill(Object[] buffer) {
+                if (!values.hasNext()) {
+                    return 0;
+                }
+                buffer[0] = values.next();
+                return 1;
+            }
+        };
+        BatchSource<String> all = BatchSource.of(Arrays.asList("a", "c", "e", "g").iterator());
+
+        List<String> result = new ArrayList<>();
+        new BatchLoserTree<>(Arrays.asList(dribble, all), 16, MergeMetrics.NONE).forEachRemaining(result::add);
+
+        assertEquals(Arrays.asList("a", "b", "c", "d", "e", "f", "g"), result);
+    }
+
+    @Test
+    void testInvalidBatchSize() {
+        List<BatchSource<Integer>> sources = Collections.singletonList(
+            BatchSource.of(Arrays.asList(1).iterator()));
+
+        assertThrows(IllegalArgumentException.class, () -> new BatchLoserTree<>(sources, 0, MergeMetrics.NONE));
+        assertThrows(NullPointerException.class, () -> BatchSource.of(null));
+    }
+
+    /**
+     * Source i yields i, i + k, i + 2k, ... (n values) and counts fill calls.
+     */
+    private static final class CountingSource implements BatchSource<Integer> {
+        private final int step;
+        private final int end;
+        private int next;
+        int fills;
+
+        CountingSource(int first, int step, int n) {
+            this.next = first;
+            this.step = step;
+            this.end = first + step * n;
+        }
+
+        @Override
+        public int fill(Object[] buffer) {
+            fills++;
+            int written = 0;
+            while (written < buffer.length && next < end) {
+                buffer[written++] = next;
+                next += step;
+            }
+            return written;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.research.iterator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for BlockMergeTree (balanced tree of block-buffered two-way mergers).
+ *
+ * Inherits all shared tests from CollatingIteratorTestBase.
+ * Adds block boundary tests.
+ */
+class BlockMergeTreeTest extends CollatingIteratorTestBase {
+
+    @Override
+    protected <T extends Comparable<? super T>> Iterator<T> createIterator(
+        List<? extends Iterator<T>> iterators
+    ) {
+        // Tiny blocks so the shared tests cross block boundaries at every level
+        return new BlockMergeTree<>(iterators, 2, MergeMetrics.NONE);
+    }
+
+    @Override
+    protected <T extends Comparable<? super T>> Iterator<T> createIterator(
+        List<? extends Iterator<T>> iterators,
+        MergeMetrics metrics
+    ) {
+        return new BlockMergeTree<>(iterators, 2, metrics);
+    }
+
+    @Test
+    void testBlockSizesAgainstSort() {
+        for (int blockSize : new int[]{1, 64, 256, 1024}) {
+            assertMergesLikeSort("blockSize=" + blockSize, new int[]{1, 2, 3, 10, 64, 100}, 600,
+                (iterators, metrics) -> new BlockMergeTree<>(iterators, blockSize, metrics));
+        }
+    }
+
+    @Test
+    void testEqualElementsKeepSourceOrder() {
+        // Distinguishable equal keys: compare by key only
+        List<Iterator<Tagged>> iterators = Arrays.asList(
+            Arrays.asList(new Tagged(1, "a"), new Tagged(2, "a")).iterator(),
+            Arrays.asList(new Tagged(1, "b"), new Tagged(2, "b")).iterator(),
+            Arrays.asList(new Tagged(1, "c")).iterator());
+        List<String> tags = new ArrayList<>();
+        new BlockMergeTree<>(iterators, 64, MergeMetrics.NONE).forEachRemaining(t -> tags.add(t.key + t.tag));
+        assertEquals(Arrays.asList("1a", "1b", "1c", "2a", "2b"), tags);
+    }
+
+    @Test
+    void testInvalidBlockSize() {
+        List<Iterator<Integer>> iterators = Collections.singletonList(Arrays.asList(1).iterator());
+        assertThrows(IllegalArgumentException.class, () -> new BlockMergeTree<>(iterators, 0, MergeMetrics.NONE));
+    }
+
+    private static final class Tagged implements Comparable<Tagged> {
+        final int key;
+        final String tag;
+
+        Tagged(int key, String tag) {
+            this.key = key;
+            this.tag = tag;
+        }
+
+        @Override
+        public int compareTo(Tagged other) {
+            return Integer.compare(key, other.key);
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.research.iterator;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for ByteKeyLoserTree and the ByteKeySource adapters.
+ */
+class ByteKeyLoserTreeTest {
+
+    @Test
+    void testMergesVariableLengthKeysUnsigned() {
+        for (int k : new int[]{1, 2, 5, 16, 33}) {
+            Random random = new Random(k);
+            List<ByteKeySource> sources = new ArrayList<>();
+            List<byte[]> expected = new ArrayList<>();
+            for (int i = 0; i < k; i++) {
+                List<byte[]> keys = sortedKeys(random.nextInt(40), random);
+                expected.addAll(keys);
+                sources.add(ByteKeySource.ofArrays(keys.iterator()));
+            }
+            expected.sort(Arrays::compareUnsigned);
+
+            assertMerged(expected, new ByteKeyLoserTree(sources), "k=" + k);
+        }
+    }
+
+    @Test
+    void testPrefixSortsBeforeLongerKey() {
+        ByteKeyLoserTree tree = new ByteKeyLoserTree(Arrays.asList(
+            ByteKeySource.ofArrays(Collections.singletonList(new byte[]{1, 2, 3}).iterator()),
+            ByteKeySource.ofArrays(Collections.singletonList(new byte[]{1, 2}).iterator()),
+            ByteKeySource.ofArrays(Collections.singletonList(new byte[]{(byte) 0xFF}).iterator())
+        ));
+
+        assertTrue(tree.advance());
+        assertEquals(1, tree.source());
+        assertTrue(tree.advance());
+        assertEquals(0, tree.source());
+        assertTrue(tree.advance());
+        assertEquals(2, tree.source());
+        assertFalse(tree.advance());
+    }
+
+    @Test
+    void testViewsAreNotCopied() {
+        // One block holding three keys back to back, exposed as slices
+        byte[] block = {1, 1, 2, 2, 2, 3};
+        ByteKeySource slices = new ByteKeySource() {
+            private final int[] starts = {0, 2, 5};
+            private final int[] ends = {2, 5, 6};
+            private int index = -1;
+
+            @Override
+            public boolean advance() {
+                return ++index < starts.length;
+            }
+
+            @Override
+            public byte[] array() {
+                return block;
+            }
+
+            @Override
+            public int offset() {
+                return starts[index];
+            }
+
+            @Override
+            public int length() {
+                return ends[index] - starts[index];
+            }
+        };
+
+        ByteKeyLoserTree tree = new ByteKeyLoserTree(Collections.singletonList(slices));
+        assertTrue(tree.advance());
+        assertSame(block, tree.array());
+        assertEquals(0, tree.offset());
+        assertEquals(2, tree.length());
+        assertTrue(tree.advance());
+        assertSame(block, tree.array());
+        assertEquals(2, tree.offset());
+        assertArrayEquals(new byte[]{2, 2, 2}, tree.copyKey());
+    }
+
+    @Test
+    void testPackedBlockSources() {
+        // Two SSTable-style blocks: keys packed back to back plus end offsets
+        byte[] first = {1, 3, 3, 5, 5, 5};
+        byte[] second = {2, 4, 4, 9};
+
+        ByteKeyLoserTree tree = new ByteKeyLoserTree(Arrays.asList(
+            ByteKeySource.ofSlices(first, new int[]{1, 3, 6}),
+            ByteKeySource.ofSlices(second, new int[]{0, 1, 3, 4})
+        ));
+
+        List<byte[]> expected = Arrays.asList(
+            new byte[]{}, new byte[]{1}, new byte[]{2}, new byte[]{3, 3},
+            new byte[]{4, 4}, new byte[]{5, 5, 5}, new byte[]{9});
+        assertMerged(expected, tree, "blocks");
+    }
+
+    @Test
+    void testHeapAndDirectBufferSources() {
+        Random random = new Random(3);
+        List<byte[]> heapKeys = sortedKeys(50, random);
+        List<byte[]> directKeys = sortedKeys(50, random);
+
+        List<ByteBuffer> heap = new ArrayList<>();
+        for (byte[] key : heapKeys) {
+            // Slice out of a larger array to exercise arrayOffset
+            byte[] padded = new byte[key.length + 4];
+            System.arraycopy(key, 0, padded, 2, key.length);
+            heap.add(ByteBuffer.wrap(padded, 2, key.length).slice());
+        }
+        List<ByteBuffer> direct = new ArrayList<>();
+        for (byte[] key : directKeys) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(key.length);
+            buffer.put(key).flip();
+            direct.add(buffer);
+        }
+
+        List<byte[]> expected = new ArrayList<>(heapKeys);
+        expected.addAll(directKeys);
+        expected.sort(Arrays::compareUnsigned);
+
+        assertMerged(expected, new ByteKeyLoserTree(Arrays.asList(
+            ByteKeySource.ofBuffers(heap.iterator()),
+            ByteKeySource.ofBuffers(direct.iterator())
+        )), "buffers");
+        for (ByteBuffer buffer : direct) {
+            assertEquals(0, buffer.position());
+        }
+    }
+
+    @Test
+    void testMetricsAndExhaustion() {
+        CountingMergeMetrics metrics = new CountingMergeMetrics(3);
+        ByteKeyLoserTree tree = new ByteKeyLoserTree(Arrays.asList(
+            ByteKeySource.ofArrays(Arrays.asList(new byte[]{1}, new byte[]{4}).iterator()),
+            ByteKeySource.ofArrays(Collections.<byte[]>emptyIterator()),
+            ByteKeySource.ofArrays(Collections.singletonList(new byte[]{2}).iterator())
+        ), metrics);
+
+        int count = 0;
+        while (tree.advance()) {
+            count++;
+        }
+        assertEquals(3, count);
+        assertEquals(3, metrics.totalPulls());
+        assertEquals(3, metrics.exhaustions());
+        assertFalse(tree.advance());
+        assertThrows(IllegalStateException.class, tree::array);
+    }
+
+    @Test
+    void testInvalidArguments() {
+        assertThrows(NullPointerException.class, () -> new ByteKeyLoserTree(null));
+        assertThrows(IllegalArgumentException.class, () -> new ByteKeyLoserTree(Collections.emptyList()));
+        assertThrows(IllegalArgumentException.class, () -> new ByteKeyLoserTree(
+            Arrays.asList(ByteKeySource.ofArrays(Collections.<byte[]>emptyIterator()), null)));
+    }
+
+    @Test
+    void testNullKeyIsRejectedNotTreatedAsExhaustion() {
+        ByteKeySource source = ByteKeySource.ofArrays(Arrays.asList(new byte[]{1}, null, new byte[]{3}).iterator());
+
+        assertTrue(source.advance());
+        assertThrows(NullPointerException.class, source::advance);
+        assertThrows(NullPointerException.class, () -> new ByteKeyLoserTree(Collections.singletonList(
+            ByteKeySource.ofArrays(Collections.<byte[]>singletonList(null).iterator()))));
+    }
+
+    private static void assertMerged(List<byte[]> expected, ByteKeyLoserTree tree, String message) {
+        List<byte[]> result = new ArrayList<>();
+        while (tree.advance()) {
+            result.add(tree.copyKey());
+        }
+        assertEquals(expected.size(), result.size(), message);
+        for (int i = 0; i < expected.size(); i++) {
+            assertArrayEquals(expected.get(i), result.get(i), message + " i=" + i);
+        }
+    }
+
+    /**
+     * Random keys of 0-24 bytes with a shared prefix, including high-bit bytes.
+     */
+    private static List<byte[]> sortedKeys(int count, Random random) {
+        List<byte[]> keys = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            byte[] key = new byte[random.nextInt(25)];
+            random.nextBytes(key);
+            for (int b = 0; b < Math.min(key.length, random.nextInt(12)); b++) {
+                key[b] = (byte) 0x80;
+            }
+            keys.add(key);
+        }
+        keys.sort(Arrays::compareUnsigned);
+        return keys;
+    }
+}
@@ -0,0 +1,193 @@
+package com.research.iterator;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for CheckpointableMerge, MergeCheckpoint and SeekableSource.
+ */
+class CheckpointableMergeTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testResumeFromCheckpointAfterRestart() throws IOException {
+        Random random = new Random(44);
+        int k = 20;
+        List<Path> runs = new ArrayList<>();
+        List<Long> expected = new ArrayList<>();
+        for (int i = 0; i < k; i++) {
+            long[] values = new long[random.nextInt(300)];
+            for (int j = 0; j < values.length; j++) {
+                values[j] = random.nextInt(5000);
+            }
+            Arrays.sort(values);
+            for (long value : values) {
+                expected.add(value);
+            }
+            runs.add(writeRun("run-" + i, values));
+        }
+        Collections.sort(expected);
+
+        // First process: merge a third of the way, checkpointing periodically, then "crash"
+        List<Long> output = new ArrayList<>();
+        byte[] saved = null;
+        List<RunFileSource> sources = open(runs);
+        CheckpointableMerge<Long> merge = new CheckpointableMerge<>(sources);
+        while (output.size() < expected.size() / 3) {
+            output.add(merge.next());
+            if (output.size() % 250 == 0) {
+                saved = merge.checkpoint().toBytes();
+            }
+        }
+        close(sources);
+        assertNotNull(saved);
+        assertEquals(12 + 8 * k, saved.length);
+
+        // Restart: output after the checkpoint is lost and redone
+        MergeCheckpoint checkpoint = MergeCheckpoint.fromBytes(saved);
+        output.subList((int) checkpoint.emitted(), output.size()).clear();
+        sources = open(runs);
+        merge = new CheckpointableMerge<>(sources, checkpoint);
+        assertEquals(checkpoint.emitted(), merge.emitted());
+        merge.forEachRemaining(output::add);
+        close(sources);
+
+        assertEquals(expected, output);
+        assertEquals(expected.size(), merge.emitted());
+    }
+
+    @Test
+    void testCheckpointRecordsPendingHeadsAndExhaustion() {
+        CheckpointableMerge<Integer> merge = new CheckpointableMerge<>(Arrays.asList(
+            SeekableSource.of(Arrays.asList(1, 4)),
+            SeekableSource.of(Arrays.asList(2)),
+            SeekableSource.of(Arrays.asList(3, 5, 6))
+        ));
+        assertEquals(1, merge.next());
+        assertEquals(2, merge.next());
+
+        MergeCheckpoint checkpoint = merge.checkpoint();
+        assertEquals(2, checkpoint.emitted());
+        assertEquals(1, checkpoint.position(0));    // Head 4 at index 1
+        assertEquals(-1, checkpoint.position(1));   // Exhausted
+        assertEquals(0, checkpoint.position(2));    // Head 3 at index 0
+
+        // Checkpoints are snapshots: moving on does not change them
+        merge.next();
+        assertEquals(0, checkpoint.position(2));
+
+        // Fresh sources from the start, restored to the checkpoint
+        List<Integer> rest = new ArrayList<>();
+        new CheckpointableMerge<>(Arrays.asList(
+            SeekableSource.of(Arrays.asList(1, 4)),
+            SeekableSource.of(Arrays.asList(2)),
+            SeekableSource.of(Arrays.asList(3, 5, 6))
+        ), MergeCheckpoint.fromBytes(checkpoint.toBytes())).forEachRemaining(rest::add);
+        assertEquals(Arrays.asList(3, 4, 5, 6), rest);
+    }
+
+    @Test
+    void testInvalidArguments() {
+        List<SeekableSource<Integer>> sources = Collections.singletonList(SeekableSource.of(Arrays.asList(1)));
+        MergeCheckpoint twoSources = new CheckpointableMerge<>(Arrays.asList(
+            SeekableSource.of(Arrays.asList(1)), SeekableSource.of(Arrays.asList(2)))).checkpoint();
+
+        assertThrows(NullPointerException.class, () -> new CheckpointableMerge<Integer>(null));
+        assertThrows(NullPointerException.class, () -> new CheckpointableMerge<>(sources, null));
+        assertThrows(IllegalArgumentException.class,
+            () -> new CheckpointableMerge<>(Collections.<SeekableSource<Integer>>emptyList()));
+        assertThrows(IllegalArgumentException.class, () -> new CheckpointableMerge<>(sources, twoSources));
+        assertThrows(IllegalArgumentException.class, () -> MergeCheckpoint.fromBytes(new byte[5]));
+        assertThrows(IllegalArgumentException.class,
+            () -> MergeCheckpoint.fromBytes(Arrays.copyOf(twoSources.toBytes(), 20)));
+        assertThrows(UnsupportedOperationException.class, () -> new CheckpointableMerge<>(sources).remove());
+        assertThrows(IndexOutOfBoundsException.class, () -> sources.get(0).seek(2));
+        assertThrows(IndexOutOfBoundsException.class, () -> sources.get(0).seek(-1));
+        sources.get(0).seek(1);     // End position is valid
+        assertFalse(sources.get(0).hasNext());
+    }
+
+    private Path writeRun(String name, long[] values) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(values.length * Long.BYTES);
+        for (long value : values) {
+            buffer.putLong(value);
+        }
+        return Files.write(dir.resolve(name), buffer.array());
+    }
+
+    private static List<RunFileSource> open(List<Path> runs) throws IOException {
+        List<RunFileSource> sources = new ArrayList<>();
+        for (Path run : runs) {
+            sources.add(new RunFileSource(run));
+        }
+        return sources;
+    }
+
+    private static void close(List<RunFileSource> sources) throws IOException {
+        for (RunFileSource source : sources) {
+            source.channel.close();
+        }
+    }
+
+    /**
+     * Run file of big-endian longs; positions are byte offsets.
+     */
+    private static class RunFileSource implements SeekableSource<Long> {
+        private final FileChannel channel;
+        private final ByteBuffer value = ByteBuffer.allocate(Long.BYTES);
+        private long offset;
+
+        RunFileSource(Path path) throws IOException {
+            this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        }
+
+        @Override
+        public boolean hasNext() {
+            try {
+                return offset < channel.size();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public Long next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("Run exhausted");
+            }
+            try {
+                value.clear();
+                while (value.hasRemaining()) {
+                    channel.read(value, offset + value.position());
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            offset += Long.BYTES;
+            return value.getLong(0);
+        }
+
+        @Override
+        public long position() {
+            return offset;
+        }
+
+        @Override
+        public void seek(long position) {
+            offset = position;
+        }
+    }
+}
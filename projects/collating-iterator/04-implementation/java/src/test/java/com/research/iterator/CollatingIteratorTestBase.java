@@ -6,6 +6,7 @@ import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
 import java.util.*;
+import java.util.function.BiFunction;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -26,6 +27,14 @@ abstract class CollatingIteratorTestBase {
         List<? extends Iterator<T>> iterators
     );
 
+    /**
+     * Factory method for an instrumented iterator.
+     */
+    protected abstract <T extends Comparable<? super T>> Iterator<T> createIterator(
+        List<? extends Iterator<T>> iterators,
+        MergeMetrics metrics
+    );
+
     // ========== Contract Tests ==========
 
     @Test
@@ -336,8 +345,100 @@ abstract class CollatingIteratorTestBase {
         assertEquals(allInputs, result);
     }
 
+    // ========== Instrumentation Tests ==========
+
+    @Test
+    void testMetricsCountPullsAndExhaustion() {
+        List<Iterator<Integer>> iterators = Arrays.asList(
+            Arrays.asList(1, 4, 7).iterator(),
+            Collections.<Integer>emptyIterator(),
+            Arrays.asList(2, 5).iterator(),
+            Arrays.asList(3, 6, 8, 9).iterator()
+        );
+        CountingMergeMetrics metrics = new CountingMergeMetrics(iterators.size());
+
+        List<Integer> result = collectAll(createIterator(iterators, metrics));
+
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8, 9), result);
+        assertEquals(3, metrics.pulls(0));
+        assertEquals(0, metrics.pulls(1));
+        assertEquals(2, metrics.pulls(2));
+        assertEquals(4, metrics.pulls(3));
+        assertEquals(9, metrics.totalPulls());
+        assertEquals(4, metrics.exhaustions());
+        assertTrue(metrics.comparisons() > 0);
+        assertTrue(metrics.replays() >= result.size());
+        assertTrue(metrics.buildNanos() > 0);
+    }
+
+    @Test
+    void testMetricsSizedForFewerSourcesRejected() {
+        List<Iterator<Integer>> iterators = Arrays.asList(
+            Arrays.asList(1, 4).iterator(),
+            Arrays.asList(2, 5).iterator(),
+            Arrays.asList(3, 6).iterator()
+        );
+        CountingMergeMetrics metrics = new CountingMergeMetrics(2);
+
+        assertThrows(IllegalArgumentException.class, () -> collectAll(createIterator(iterators, metrics)));
+    }
+
+    @Test
+    void testMetricsDisabledByDefault() {
+        Iterator<Integer> merged = createIterator(
+            Arrays.asList(Arrays.asList(1, 3).iterator(), Arrays.asList(2).iterator()),
+            MergeMetrics.NONE
+        );
+
+        assertEquals(Arrays.asList(1, 2, 3), collectAll(merged));
+    }
+
     // ========== Helper Methods ==========
 
+    /**
+     * Merges random sorted lists of up to maxLength elements for each k and
+     * checks the output against a sort, and the per-source pulls and
+     * exhaustions against the lists.
+     *
+     * @param engine description of the configuration, for failure messages
+     * @param ks source counts to try
+     * @param maxLength exclusive upper bound on a list's length
+     * @param factory builds the configured engine from sources and metrics
+     */
+    static void assertMergesLikeSort(String engine, int[] ks, int maxLength,
+                                     BiFunction<List<Iterator<Integer>>, MergeMetrics, Iterator<Integer>> factory) {
+        Random random = new Random(42);
+        for (int k : ks) {
+            List<List<Integer>> lists = new ArrayList<>();
+            List<Integer> expected = new ArrayList<>();
+            for (int i = 0; i < k; i++) {
+                List<Integer> values = new ArrayList<>();
+                for (int j = random.nextInt(maxLength); j > 0; j--) {
+                    values.add(random.nextInt(1000));
+                }
+                Collections.sort(values);
+                expected.addAll(values);
+                lists.add(values);
+            }
+            Collections.sort(expected);
+
+            List<Iterator<Integer>> iterators = new ArrayList<>();
+            for (List<Integer> list : lists) {
+                iterators.add(list.iterator());
+            }
+            CountingMergeMetrics metrics = new CountingMergeMetrics(k);
+            List<Integer> result = new ArrayList<>();
+            factory.apply(iterators, metrics).forEachRemaining(result::add);
+
+            String config = engine + " k=" + k;
+            assertEquals(expected, result, config);
+            assertEquals(k, metrics.exhaustions(), config);
+            for (int i = 0; i < k; i++) {
+                assertEquals(lists.get(i).size(), metrics.pulls(i), config);
+            }
+        }
+    }
+
     private <T> List<T> collectAll(Iterator<T> iterator) {
         List<T> result = new ArrayList<>();
         while (iterator.hasNext()) {
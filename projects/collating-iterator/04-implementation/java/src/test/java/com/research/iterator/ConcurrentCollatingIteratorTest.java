@@ -0,0 +1,125 @@
+package com.research.iterator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for ConcurrentCollatingIterator (multi-consumer batch draining).
+ */
+class ConcurrentCollatingIteratorTest {
+
+    @Test
+    void testSingleConsumerSeesMergedOrder() {
+        ConcurrentCollatingIterator<Integer> concurrent = new ConcurrentCollatingIterator<>(
+            new LoserTreeIterator<>(Arrays.asList(
+                Arrays.asList(1, 4, 7).iterator(),
+                Arrays.asList(2, 5, 8).iterator(),
+                Arrays.asList(3, 6).iterator())),
+            3);
+
+        List<Integer> result = new ArrayList<>();
+        List<Long> sequences = new ArrayList<>();
+        ConcurrentCollatingIterator.Batch<Integer> batch;
+        while ((batch = concurrent.nextBatch()) != null) {
+            sequences.add(batch.sequence());
+            assertEquals(batch.sequence() * 3, batch.firstIndex());
+            for (int i = 0; i < batch.size(); i++) {
+                result.add(batch.get(i));
+            }
+        }
+
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8), result);
+        assertEquals(Arrays.asList(0L, 1L, 2L), sequences);
+        assertNull(concurrent.nextBatch());
+    }
+
+    @Test
+    void testManyConsumersReassembleGlobalOrder() throws Exception {
+        int k = 50;
+        int perSource = 2000;
+        List<Iterator<Integer>> sources = new ArrayList<>();
+        for (int i = 0; i < k; i++) {
+            List<Integer> values = new ArrayList<>();
+            for (int j = 0; j < perSource; j++) {
+                values.add(j * k + i);
+            }
+            sources.add(values.iterator());
+        }
+        ConcurrentCollatingIterator<Integer> concurrent =
+            new ConcurrentCollatingIterator<>(new HeapBasedIterator<>(sources), 64, 8);
+
+        int threads = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        Map<Long, ConcurrentCollatingIterator.Batch<Integer>> batches = new ConcurrentHashMap<>();
+        try {
+            List<Future<?>> consumers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                consumers.add(executor.submit(() -> {
+                    ConcurrentCollatingIterator.Batch<Integer> batch;
+                    while ((batch = concurrent.nextBatch()) != null) {
+                        assertNull(batches.put(batch.sequence(), batch), "batch handed out twice");
+                    }
+                }));
+            }
+            for (Future<?> consumer : consumers) {
+                consumer.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        int total = k * perSource;
+        int expectedBatches = (total + 63) / 64;
+        assertEquals(expectedBatches, batches.size());
+        int next = 0;
+        for (long sequence = 0; sequence < expectedBatches; sequence++) {
+            ConcurrentCollatingIterator.Batch<Integer> batch = batches.get(sequence);
+            assertNotNull(batch, "missing batch " + sequence);
+            for (int i = 0; i < batch.size(); i++) {
+                assertEquals(next++, batch.get(i));
+            }
+        }
+        assertEquals(total, next);
+    }
+
+    @Test
+    void testMergeFailureReachesConsumers() {
+        Iterator<Integer> failing = new Iterator<Integer>() {
+            private int count;
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public Integer next() {
+                if (count == 5) {
+                    throw new IllegalStateException("source failed");
+                }
+                return count++;
+            }
+        };
+        ConcurrentCollatingIterator<Integer> concurrent = new ConcurrentCollatingIterator<>(failing, 2);
+
+        assertEquals(2, concurrent.nextBatch().size());
+        assertEquals(2, concurrent.nextBatch().size());
+        IllegalStateException first = assertThrows(IllegalStateException.class, concurrent::nextBatch);
+        assertEquals("source failed", first.getCause().getMessage());
+        IllegalStateException later = assertThrows(IllegalStateException.class, concurrent::nextBatch);
+        assertSame(first.getCause(), later.getCause());
+    }
+
+    @Test
+    void testInvalidArguments() {
+        Iterator<Integer> empty = Collections.emptyIterator();
+        assertThrows(NullPointerException.class, () -> new ConcurrentCollatingIterator<Integer>(null, 1));
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrentCollatingIterator<>(empty, 0));
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrentCollatingIterator<>(empty, 1, 0));
+        assertNull(new ConcurrentCollatingIterator<>(empty, 4).nextBatch());
+    }
+}
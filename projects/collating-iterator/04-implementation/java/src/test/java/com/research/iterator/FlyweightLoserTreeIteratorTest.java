@@ -0,0 +1,130 @@
+package com.research.iterator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for FlyweightLoserTreeIterator (reusable holders, valid until the next call).
+ */
+class FlyweightLoserTreeIteratorTest {
+
+    private static final Comparator<Event> BY_TIMESTAMP = Comparator.comparingLong(e -> e.timestamp);
+
+    @Test
+    void testMergesRecordsInOrder() {
+        FlyweightLoserTreeIterator<Event> merged = new FlyweightLoserTreeIterator<>(Arrays.asList(
+            new EventSource(new long[]{1, 4, 7}),
+            new EventSource(new long[]{2, 5}),
+            new EventSource(new long[]{3, 6, 8})
+        ), BY_TIMESTAMP);
+
+        List<Long> timestamps = new ArrayList<>();
+        while (merged.hasNext()) {
+            timestamps.add(merged.next().timestamp);
+        }
+        assertEquals(Arrays.asList(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L), timestamps);
+    }
+
+    @Test
+    void testReturnsSourceHolderValidUntilNextCall() {
+        EventSource first = new EventSource(new long[]{1, 3});
+        EventSource second = new EventSource(new long[]{2});
+        FlyweightLoserTreeIterator<Event> merged =
+            new FlyweightLoserTreeIterator<>(Arrays.asList(first, second), BY_TIMESTAMP);
+
+        Event record = merged.next();
+        assertSame(first.holder(), record);
+        assertEquals(1, record.timestamp);
+        assertEquals(0, record.position);
+
+        // Still intact until the next hasNext()/next()
+        assertEquals(1, record.timestamp);
+        assertTrue(merged.hasNext());
+        assertEquals(3, record.timestamp, "holder is overwritten once the merge moves on");
+
+        assertSame(second.holder(), merged.next());
+        assertSame(first.holder(), merged.next());
+        assertFalse(merged.hasNext());
+        assertThrows(NoSuchElementException.class, merged::next);
+    }
+
+    @Test
+    void testRandomizedAgainstSort() {
+        Random random = new Random(5);
+        for (int k = 1; k <= 20; k++) {
+            List<EventSource> sources = new ArrayList<>();
+            List<Long> expected = new ArrayList<>();
+            for (int i = 0; i < k; i++) {
+                long[] timestamps = new long[random.nextInt(30)];
+                for (int j = 0; j < timestamps.length; j++) {
+                    timestamps[j] = random.nextInt(100);
+                }
+                Arrays.sort(timestamps);
+                for (long t : timestamps) {
+                    expected.add(t);
+                }
+                sources.add(new EventSource(timestamps));
+            }
+            Collections.sort(expected);
+
+            CountingMergeMetrics metrics = new CountingMergeMetrics(k);
+            FlyweightLoserTreeIterator<Event> merged = new FlyweightLoserTreeIterator<>(sources, BY_TIMESTAMP, metrics);
+            List<Long> result = new ArrayList<>();
+            merged.forEachRemaining(e -> result.add(e.timestamp));
+            assertEquals(expected, result, "k=" + k);
+            assertEquals(expected.size(), metrics.totalPulls(), "k=" + k);
+            assertEquals(k, metrics.exhaustions(), "k=" + k);
+        }
+    }
+
+    @Test
+    void testInvalidArguments() {
+        List<EventSource> sources = Collections.singletonList(new EventSource(new long[0]));
+        assertThrows(NullPointerException.class, () -> new FlyweightLoserTreeIterator<>(sources, null));
+        assertThrows(NullPointerException.class, () -> new FlyweightLoserTreeIterator<Event>(null, BY_TIMESTAMP));
+        assertThrows(IllegalArgumentException.class,
+            () -> new FlyweightLoserTreeIterator<>(Collections.<EventSource>emptyList(), BY_TIMESTAMP));
+        assertThrows(UnsupportedOperationException.class,
+            () -> new FlyweightLoserTreeIterator<>(sources, BY_TIMESTAMP).remove());
+    }
+
+    /**
+     * Mutable record: a timestamp plus its position in the source.
+     */
+    private static class Event {
+        long timestamp;
+        int position;
+    }
+
+    /**
+     * Source over a sorted timestamp array, filling one reusable Event.
+     */
+    private static class EventSource implements RecordSource<Event> {
+        private final long[] timestamps;
+        private final Event holder = new Event();
+        private int position = -1;
+
+        EventSource(long[] timestamps) {
+            this.timestamps = timestamps;
+        }
+
+        @Override
+        public boolean advance() {
+            if (position + 1 >= timestamps.length) {
+                return false;
+            }
+            position++;
+            holder.timestamp = timestamps[position];
+            holder.position = position;
+            return true;
+        }
+
+        @Override
+        public Event holder() {
+            return holder;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.research.iterator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for FunnelMergeIterator (lazy k-funnel with recursively sized buffers).
+ *
+ * Inherits all shared tests from CollatingIteratorTestBase.
+ * Adds funnel-specific tests.
+ */
+class FunnelMergeIteratorTest extends CollatingIteratorTestBase {
+
+    @Override
+    protected <T extends Comparable<? super T>> Iterator<T> createIterator(
+        List<? extends Iterator<T>> iterators
+    ) {
+        return new FunnelMergeIterator<>(iterators);
+    }
+
+    @Override
+    protected <T extends Comparable<? super T>> Iterator<T> createIterator(
+        List<? extends Iterator<T>> iterators,
+        MergeMetrics metrics
+    ) {
+        return new FunnelMergeIterator<>(iterators, metrics);
+    }
+
+    @Test
+    void testArbitraryKAgainstSort() {
+        assertMergesLikeSort("funnel", new int[]{1, 2, 3, 7, 16, 17, 100, 1000}, 100, FunnelMergeIterator::new);
+    }
+
+    @Test
+    void testFillsLazilyFromUnboundedSources() {
+        int k = 64;
+        List<Iterator<Integer>> iterators = new ArrayList<>();
+        for (int i = 0; i < k; i++) {
+            int first = i;
+            iterators.add(new Iterator<Integer>() {
+                private int next = first;
+
+                @Override
+                public boolean hasNext() {
+                    return true;
+                }
+
+                @Override
+                public Integer next() {
+                    int value = next;
+                    next += k;
+                    return value;
+                }
+            });
+        }
+
+        CountingMergeMetrics metrics = new CountingMergeMetrics(k);
+        FunnelMergeIterator<Integer> merged = new FunnelMergeIterator<>(iterators, metrics);
+        assertEquals(0, metrics.totalPulls(), "nothing is read before the first hasNext()");
+        for (int i = 0; i < 10000; i++) {
+            assertEquals(i, merged.next());
+        }
+        // Buffers hold at most 64^1.5 = 512 elements at the root, plus the levels below
+        assertTrue(metrics.totalPulls() < 10000 + 64 * 64,
+            "pulled " + metrics.totalPulls() + " to emit 10000");
+    }
+
+    @Test
+    void testComparisonsPerElementAreLogK() {
+        int k = 1024;
+        List<Iterator<Integer>> iterators = new ArrayList<>();
+        for (int i = 0; i < k; i++) {
+            List<Integer> values = new ArrayList<>();
+            for (int j = 0; j < 50; j++) {
+                values.add(j * k + i);
+            }
+            iterators.add(values.iterator());
+        }
+
+        CountingMergeMetrics metrics = new CountingMergeMetrics(k);
+        Iterator<Integer> merged = new FunnelMergeIterator<>(iterators, metrics);
+        int count = 0;
+        while (merged.hasNext()) {
+            assertEquals(count++, merged.next());
+        }
+
+        // One comparison per tree level per element, at most: log2(1024) = 10
+        assertTrue(metrics.comparisons() <= (long) count * 10, "comparisons=" + metrics.comparisons());
+    }
+}
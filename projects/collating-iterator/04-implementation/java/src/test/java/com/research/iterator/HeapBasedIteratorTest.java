@@ -21,6 +21,14 @@ class HeapBasedIteratorTest extends CollatingIteratorTestBase {
         return new HeapBasedIterator<>(iterators);
     }
 
+    @Override
+    protected <T extends Comparable<? super T>> Iterator<T> createIterator(
+        List<? extends Iterator<T>> iterators,
+        MergeMetrics metrics
+    ) {
+        return new HeapBasedIterator<>(iterators, metrics);
+    }
+
     // Variant-specific tests (if any)
 
     @Test
@@ -46,4 +54,20 @@ class HeapBasedIteratorTest extends CollatingIteratorTestBase {
 
         assertEquals(10000, count);
     }
+
+    @Test
+    void testOneReplayPerElement() {
+        CountingMergeMetrics metrics = new CountingMergeMetrics(2);
+        Iterator<Integer> merged = new HeapBasedIterator<>(
+            Arrays.asList(Arrays.asList(1, 3, 5).iterator(), Arrays.asList(2, 4).iterator()), metrics);
+
+        int count = 0;
+        while (merged.hasNext()) {
+            merged.next();
+            count++;
+        }
+
+        assertEquals(5, count);
+        assertEquals(count, metrics.replays());
+    }
 }
@@ -0,0 +1,91 @@
+package com.research.iterator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for IntBlockMergeTree (branch-free int block mergers) over arrays and
+ * batch sources.
+ */
+class IntBlockMergeTreeTest {
+
+    @Test
+    void testArraysAndBatchSourcesAgainstSort() {
+        Random random = new Random(42);
+        for (int k : new int[]{1, 2, 3, 10, 64, 100}) {
+            int[][] arrays = new int[k][];
+            List<Integer> expected = new ArrayList<>();
+            for (int i = 0; i < k; i++) {
+                arrays[i] = random.ints(random.nextInt(600), -1000, 1000).sorted().toArray();
+                for (int value : arrays[i]) {
+                    expected.add(value);
+                }
+            }
+            Collections.sort(expected);
+
+            for (int blockSize : new int[]{1, 7, 64, 1024}) {
+                String config = "k=" + k + " blockSize=" + blockSize;
+                CountingMergeMetrics metrics = new CountingMergeMetrics(k);
+                assertEquals(expected, drain(new IntBlockMergeTree(arrays, blockSize, metrics)), config);
+                assertEquals(expected.size(), metrics.totalPulls(), config);
+                assertEquals(k, metrics.exhaustions(), config);
+
+                List<BatchSource.OfInt> sources = new ArrayList<>();
+                for (int[] array : arrays) {
+                    sources.add(BatchSource.OfInt.of(Arrays.stream(array).iterator()));
+                }
+                metrics = new CountingMergeMetrics(k);
+                assertEquals(expected, drain(new IntBlockMergeTree(sources, blockSize, metrics)), config);
+                assertEquals(expected.size(), metrics.totalPulls(), config);
+                assertEquals(k, metrics.exhaustions(), config);
+            }
+        }
+    }
+
+    @Test
+    void testExtremesDuplicatesAndEmptyArrays() {
+        // The side is chosen from a widened difference, so MIN_VALUE vs MAX_VALUE must not overflow
+        IntBlockMergeTree merged = new IntBlockMergeTree(new int[][]{
+            {Integer.MIN_VALUE, 0, 0, Integer.MAX_VALUE},
+            {},
+            {Integer.MIN_VALUE, -1, 0, Integer.MAX_VALUE},
+            {Integer.MAX_VALUE}
+        }, 2, MergeMetrics.NONE);
+        assertEquals(Arrays.asList(Integer.MIN_VALUE, Integer.MIN_VALUE, -1, 0, 0, 0,
+            Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE), drain(merged));
+        assertThrows(NoSuchElementException.class, merged::nextInt);
+    }
+
+    @Test
+    void testArraysAreReadInPlace() {
+        int[] a = {1, 3, 5};
+        int[] b = {2, 4};
+        IntBlockMergeTree merged = new IntBlockMergeTree(new int[][]{a, b});
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5), drain(merged));
+        assertArrayEquals(new int[]{1, 3, 5}, a);
+        assertArrayEquals(new int[]{2, 4}, b);
+    }
+
+    @Test
+    void testInvalidArguments() {
+        assertThrows(NullPointerException.class, () -> new IntBlockMergeTree((int[][]) null));
+        assertThrows(IllegalArgumentException.class, () -> new IntBlockMergeTree(new int[0][]));
+        assertThrows(IllegalArgumentException.class, () -> new IntBlockMergeTree(new int[][]{{1}, null}));
+        assertThrows(IllegalArgumentException.class,
+            () -> new IntBlockMergeTree(new int[][]{{1}}, 0, MergeMetrics.NONE));
+        assertThrows(IllegalArgumentException.class,
+            () -> new IntBlockMergeTree(Collections.<BatchSource.OfInt>emptyList()));
+        assertThrows(UnsupportedOperationException.class, () -> new IntBlockMergeTree(new int[][]{{1}}).remove());
+    }
+
+    private static List<Integer> drain(IntBlockMergeTree merged) {
+        List<Integer> result = new ArrayList<>();
+        while (merged.hasNext()) {
+            result.add(merged.nextInt());
+        }
+        return result;
+    }
+}
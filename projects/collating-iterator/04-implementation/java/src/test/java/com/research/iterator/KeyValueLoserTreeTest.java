@@ -0,0 +1,147 @@
+package com.research.iterator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for KeyValueLoserTree and KeyValueCursor.
+ */
+class KeyValueLoserTreeTest {
+
+    @Test
+    void testMergesByKeyCarryingValues() {
+        KeyValueLoserTree<Integer, String> tree = new KeyValueLoserTree<>(Arrays.asList(
+            KeyValueCursor.of(new Integer[]{1, 4, 7}, new String[]{"a1", "a4", "a7"}),
+            KeyValueCursor.of(new Integer[]{2, 5}, new String[]{"b2", "b5"}),
+            KeyValueCursor.of(new Integer[]{3, 6, 8}, new String[]{"c3", "c6", "c8"})
+        ));
+
+        List<String> values = new ArrayList<>();
+        List<Integer> keys = new ArrayList<>();
+        while (tree.advance()) {
+            keys.add(tree.key());
+            values.add(tree.value());
+        }
+
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8), keys);
+        assertEquals(Arrays.asList("a1", "b2", "c3", "a4", "b5", "c6", "a7", "c8"), values);
+    }
+
+    @Test
+    void testValueIsReadFromWinningCursor() {
+        // Values are long payload offsets; the tree never reads them itself
+        CountingCursor first = new CountingCursor(new Integer[]{1, 3}, new Long[]{100L, 300L});
+        CountingCursor second = new CountingCursor(new Integer[]{2}, new Long[]{200L});
+
+        KeyValueLoserTree<Integer, Long> tree = new KeyValueLoserTree<>(Arrays.asList(first, second));
+        int count = 0;
+        while (tree.advance()) {
+            count++;
+        }
+
+        assertEquals(3, count);
+        assertEquals(0, first.valueReads + second.valueReads);
+
+        tree = new KeyValueLoserTree<>(Arrays.asList(
+            new CountingCursor(new Integer[]{1, 3}, new Long[]{100L, 300L}),
+            new CountingCursor(new Integer[]{2}, new Long[]{200L})));
+        List<Long> offsets = new ArrayList<>();
+        List<Integer> sources = new ArrayList<>();
+        while (tree.advance()) {
+            offsets.add(tree.value());
+            sources.add(tree.source());
+        }
+        assertEquals(Arrays.asList(100L, 200L, 300L), offsets);
+        assertEquals(Arrays.asList(0, 1, 0), sources);
+    }
+
+    @Test
+    void testDuplicateKeysAndEmptySources() {
+        KeyValueLoserTree<Integer, String> tree = new KeyValueLoserTree<>(Arrays.asList(
+            KeyValueCursor.of(new Integer[]{1, 2}, new String[]{"x", "y"}),
+            KeyValueCursor.of(new Integer[0], new String[0]),
+            KeyValueCursor.of(new Integer[]{2, 2}, new String[]{"p", "q"})
+        ));
+
+        List<Integer> keys = new ArrayList<>();
+        Set<String> values = new HashSet<>();
+        while (tree.advance()) {
+            keys.add(tree.key());
+            values.add(tree.value());
+        }
+        assertEquals(Arrays.asList(1, 2, 2, 2), keys);
+        assertEquals(new HashSet<>(Arrays.asList("x", "y", "p", "q")), values);
+        assertFalse(tree.advance());
+        assertThrows(IllegalStateException.class, tree::value);
+    }
+
+    @Test
+    void testLargeKMatchesSortedOrder() {
+        Random random = new Random(11);
+        List<KeyValueCursor<Integer, Integer>> cursors = new ArrayList<>();
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Integer[] keys = new Integer[random.nextInt(50)];
+            for (int j = 0; j < keys.length; j++) {
+                keys[j] = random.nextInt(1000);
+            }
+            Arrays.sort(keys);
+            expected.addAll(Arrays.asList(keys));
+            cursors.add(KeyValueCursor.of(keys, keys));
+        }
+        Collections.sort(expected);
+
+        CountingMergeMetrics metrics = new CountingMergeMetrics(100);
+        KeyValueLoserTree<Integer, Integer> tree = new KeyValueLoserTree<>(cursors, metrics);
+        List<Integer> result = new ArrayList<>();
+        while (tree.advance()) {
+            assertEquals(tree.key(), tree.value());
+            result.add(tree.key());
+        }
+        assertEquals(expected, result);
+        assertEquals(expected.size(), metrics.totalPulls());
+        assertEquals(100, metrics.exhaustions());
+    }
+
+    @Test
+    void testInvalidArguments() {
+        assertThrows(NullPointerException.class, () -> new KeyValueLoserTree<Integer, String>(null));
+        assertThrows(IllegalArgumentException.class,
+            () -> new KeyValueLoserTree<Integer, String>(Collections.emptyList()));
+        assertThrows(IllegalArgumentException.class,
+            () -> KeyValueCursor.of(new Integer[1], new String[2]));
+        assertThrows(IllegalStateException.class, () -> new KeyValueLoserTree<>(Collections.singletonList(
+            KeyValueCursor.of(new Integer[]{1}, new String[]{"a"}))).key());
+    }
+
+    /**
+     * Cursor that counts how often its value is read.
+     */
+    private static class CountingCursor implements KeyValueCursor<Integer, Long> {
+        private final KeyValueCursor<Integer, Long> delegate;
+        int valueReads;
+
+        CountingCursor(Integer[] keys, Long[] values) {
+            this.delegate = KeyValueCursor.of(keys, values);
+        }
+
+        @Override
+        public boolean advance() {
+            return delegate.advance();
+        }
+
+        @Override
+        public Integer currentKey() {
+            return delegate.currentKey();
+        }
+
+        @Override
+        public Long currentValue() {
+            valueReads++;
+            return delegate.currentValue();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.research.iterator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for LatencyHistogram and LatencyTrackingIterator.
+ */
+class LatencyHistogramTest {
+
+    @Test
+    void testSmallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int v = 1; v <= 20; v++) {
+            histogram.record(v);
+        }
+
+        assertEquals(20, histogram.count());
+        assertEquals(10, histogram.percentile(0.50));
+        assertEquals(20, histogram.percentile(1.0));
+        assertEquals(1, histogram.min());
+        assertEquals(10.5, histogram.mean(), 1e-9);
+    }
+
+    @Test
+    void testPercentilesWithinRelativeError() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        long[] values = new long[100000];
+        Random random = new Random(42);
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (long) Math.exp(random.nextDouble() * 20);  // 1 ns .. ~0.5 s, log-uniform
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+
+        for (double q : new double[] {0.5, 0.9, 0.99, 0.999}) {
+            long exact = values[(int) Math.ceil(q * values.length) - 1];
+            long reported = histogram.percentile(q);
+            assertTrue(reported >= exact, "p" + q + " must not under-report");
+            assertTrue(reported <= exact * 1.04 + 1, "p" + q + " " + reported + " vs " + exact);
+        }
+        assertEquals(values[values.length - 1], histogram.max());
+    }
+
+    @Test
+    void testAddCombinesHistograms() {
+        LatencyHistogram a = new LatencyHistogram();
+        LatencyHistogram b = new LatencyHistogram();
+        a.record(5);
+        b.record(1000);
+        b.record(Long.MAX_VALUE);
+
+        a.add(b);
+
+        assertEquals(3, a.count());
+        assertEquals(5, a.min());
+        assertEquals(Long.MAX_VALUE, a.max());
+        assertEquals(Long.MAX_VALUE, a.percentile(1.0));
+    }
+
+    @Test
+    void testEmptyHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertEquals(0, histogram.percentile(0.99));
+        assertEquals(0, histogram.min());
+        assertEquals(0.0, histogram.mean());
+    }
+
+    @Test
+    void testTrackingIteratorRecordsEveryNext() {
+        LatencyHistogram nextLatency = new LatencyHistogram();
+        LatencyTrackingIterator<Integer> merged = new LatencyTrackingIterator<>(
+            () -> new LoserTreeIterator<>(Arrays.asList(
+                Arrays.asList(1, 3, 5).iterator(),
+                Arrays.asList(2, 4).iterator())),
+            nextLatency);
+
+        assertEquals(-1, merged.timeToFirstElementNanos());
+        List<Integer> result = new ArrayList<>();
+        merged.forEachRemaining(result::add);
+
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5), result);
+        assertEquals(5, nextLatency.count());
+        assertTrue(merged.timeToFirstElementNanos() >= merged.constructionNanos());
+    }
+}
@@ -21,6 +21,14 @@ class LinearScanIteratorTest extends CollatingIteratorTestBase {
         return new LinearScanIterator<>(iterators);
     }
 
+    @Override
+    protected <T extends Comparable<? super T>> Iterator<T> createIterator(
+        List<? extends Iterator<T>> iterators,
+        MergeMetrics metrics
+    ) {
+        return new LinearScanIterator<>(iterators, metrics);
+    }
+
     // Variant-specific tests (if any)
 
     @Test
@@ -3,6 +3,8 @@ package com.research.iterator;
 import org.junit.jupiter.api.Test;
 
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -21,6 +23,14 @@ class LoserTreeIteratorTest extends CollatingIteratorTestBase {
         return new LoserTreeIterator<>(iterators);
     }
 
+    @Override
+    protected <T extends Comparable<? super T>> Iterator<T> createIterator(
+        List<? extends Iterator<T>> iterators,
+        MergeMetrics metrics
+    ) {
+        return new LoserTreeIterator<>(iterators, metrics);
+    }
+
     // Variant-specific tests (if any)
 
     @Test
@@ -68,4 +78,230 @@ class LoserTreeIteratorTest extends CollatingIteratorTestBase {
 
         assertEquals(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12), result);
     }
+
+    @Test
+    void testArbitraryK() {
+        // Flat-array layout must handle non-power-of-two k (leaves at uneven depths)
+        Random random = new Random(42);
+        for (int k = 1; k <= 40; k++) {
+            List<Iterator<Integer>> iterators = new ArrayList<>();
+            List<Integer> expected = new ArrayList<>();
+            for (int i = 0; i < k; i++) {
+                List<Integer> values = new ArrayList<>();
+                int size = random.nextInt(20);
+                for (int j = 0; j < size; j++) {
+                    values.add(random.nextInt(50));
+                }
+                Collections.sort(values);
+                expected.addAll(values);
+                iterators.add(values.iterator());
+            }
+            Collections.sort(expected);
+
+            List<Integer> result = new ArrayList<>();
+            new LoserTreeIterator<>(iterators).forEachRemaining(result::add);
+            assertEquals(expected, result, "k=" + k);
+        }
+    }
+
+    @Test
+    void testComparisonsPerElementAreLogK() {
+        int k = 1000;
+        int perSource = 100;
+        List<Iterator<Integer>> iterators = new ArrayList<>();
+        for (int i = 0; i < k; i++) {
+            List<Integer> values = new ArrayList<>();
+            for (int j = 0; j < perSource; j++) {
+                values.add(j * k + i);
+            }
+            iterators.add(values.iterator());
+        }
+
+        CountingMergeMetrics metrics = new CountingMergeMetrics(k);
+        Iterator<Integer> merged = new LoserTreeIterator<>(iterators, metrics);
+        while (merged.hasNext()) {
+            merged.next();
+        }
+
+        // Build: k-1 comparisons; each replay: at most ceil(log2 k) + 1 = 11
+        long elements = (long) k * perSource;
+        assertTrue(metrics.comparisons() <= (k - 1) + elements * 11,
+            "comparisons=" + metrics.comparisons());
+    }
+
+    @Test
+    void testNextGroupDrainsEqualKeysAcrossSources() {
+        LoserTreeIterator<Integer> merged = new LoserTreeIterator<>(Arrays.asList(
+            Arrays.asList(1, 2, 2, 2, 5).iterator(),
+            Arrays.asList(2, 3).iterator(),
+            Arrays.asList(1, 4).iterator(),
+            Arrays.asList(2, 2, 5).iterator()
+        ));
+
+        List<Integer> group = new ArrayList<>();
+        BitSet contributors = new BitSet();
+        assertEquals(2, merged.nextGroup(group::add, contributors));
+        assertEquals(Arrays.asList(1, 1), group);
+        assertEquals(BitSet.valueOf(new long[]{0b0101}), contributors);
+
+        group.clear();
+        assertEquals(6, merged.nextGroup(group::add, contributors));
+        assertEquals(Arrays.asList(2, 2, 2, 2, 2, 2), group);
+        assertEquals(BitSet.valueOf(new long[]{0b1011}), contributors);
+
+        // Groups and next() interleave
+        assertEquals(3, merged.next());
+        assertEquals(1, merged.nextGroup(group::add));
+        assertEquals(2, merged.nextGroup(group::add, contributors));
+        assertEquals(BitSet.valueOf(new long[]{0b1001}), contributors);
+        assertFalse(merged.hasNext());
+        assertThrows(NoSuchElementException.class, () -> merged.nextGroup(group::add));
+    }
+
+    @Test
+    void testNextGroupReplaysOncePerContributingSource() {
+        int k = 8;
+        int keys = 100;
+        int duplicates = 10;
+        Random random = new Random(42);
+        List<List<Integer>> lists = new ArrayList<>();
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < k; i++) {
+            List<Integer> values = new ArrayList<>();
+            for (int key = 0; key < keys; key++) {
+                for (int d = random.nextInt(duplicates); d > 0; d--) {
+                    values.add(key);
+                }
+            }
+            expected.addAll(values);
+            lists.add(values);
+        }
+        Collections.sort(expected);
+
+        CountingMergeMetrics metrics = new CountingMergeMetrics(k);
+        LoserTreeIterator<Integer> merged = new LoserTreeIterator<>(iterators(lists), metrics);
+        List<Integer> result = new ArrayList<>();
+        BitSet contributors = new BitSet();
+        long contributions = 0;
+        while (merged.hasNext()) {
+            int before = result.size();
+            merged.nextGroup(result::add, contributors);
+            for (int i = before; i < result.size(); i++) {
+                assertEquals(result.get(before), result.get(i));
+            }
+            contributions += contributors.cardinality();
+        }
+
+        assertEquals(expected, result);
+        assertEquals(contributions, metrics.replays());
+        assertTrue(metrics.replays() < expected.size() / 3,
+            "replays=" + metrics.replays() + " elements=" + expected.size());
+    }
+
+    private static List<Iterator<Integer>> iterators(List<List<Integer>> lists) {
+        List<Iterator<Integer>> iterators = new ArrayList<>();
+        for (List<Integer> list : lists) {
+            iterators.add(list.iterator());
+        }
+        return iterators;
+    }
+
+    @Test
+    void testConcurrentFirstFetch() {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Iterator<Integer>> iterators = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                iterators.add(new SlowFirstIterator(Arrays.asList(i, i + 8, i + 16), 100));
+            }
+
+            long start = System.nanoTime();
+            LoserTreeIterator<Integer> merged = new LoserTreeIterator<>(iterators, MergeMetrics.NONE, executor);
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+            // Serial fetch would take 8 x 100 ms
+            assertTrue(elapsedMillis < 500, "construction took " + elapsedMillis + " ms");
+
+            List<Integer> result = new ArrayList<>();
+            merged.forEachRemaining(result::add);
+            List<Integer> expected = new ArrayList<>();
+            for (int i = 0; i < 24; i++) {
+                expected.add(i);
+            }
+            assertEquals(expected, result);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testConcurrentFirstFetchRecordsMetrics() {
+        CountingMergeMetrics metrics = new CountingMergeMetrics(3);
+        LoserTreeIterator<Integer> merged = new LoserTreeIterator<>(Arrays.asList(
+            Arrays.asList(1, 4).iterator(),
+            Collections.<Integer>emptyIterator(),
+            Arrays.asList(2).iterator()
+        ), metrics, Runnable::run);
+
+        assertEquals(2, metrics.totalPulls());
+        assertEquals(1, metrics.exhaustions());
+
+        List<Integer> result = new ArrayList<>();
+        merged.forEachRemaining(result::add);
+        assertEquals(Arrays.asList(1, 2, 4), result);
+        assertEquals(3, metrics.totalPulls());
+        assertEquals(3, metrics.exhaustions());
+    }
+
+    @Test
+    void testConcurrentFirstFetchPropagatesSourceFailure() {
+        Iterator<Integer> failing = new Iterator<Integer>() {
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public Integer next() {
+                throw new IllegalStateException("source failed");
+            }
+        };
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () ->
+            new LoserTreeIterator<>(Arrays.asList(Arrays.asList(1).iterator(), failing),
+                MergeMetrics.NONE, Runnable::run));
+        assertEquals("source failed", e.getMessage());
+    }
+
+    /**
+     * Iterator whose first next() sleeps, simulating a high-latency source.
+     */
+    private static class SlowFirstIterator implements Iterator<Integer> {
+        private final Iterator<Integer> delegate;
+        private final long delayMillis;
+        private boolean first = true;
+
+        SlowFirstIterator(List<Integer> values, long delayMillis) {
+            this.delegate = values.iterator();
+            this.delayMillis = delayMillis;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return delegate.hasNext();
+        }
+
+        @Override
+        public Integer next() {
+            if (first) {
+                first = false;
+                try {
+                    Thread.sleep(delayMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return delegate.next();
+        }
+    }
 }
@@ -0,0 +1,224 @@
+package com.research.iterator;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the JFR events emitted by all three engines.
+ *
+ * Records a single JFR session, runs each engine over a source that stalls
+ * once, and checks the recorded build, exhaustion and stall events. Also
+ * checks the pull total and the periodic throughput sample.
+ */
+class MergeEventsTest {
+
+    private static final Map<String, Function<List<Iterator<Integer>>, Iterator<Integer>>> ENGINES =
+        new LinkedHashMap<>();
+
+    static {
+        ENGINES.put("LinearScan", LinearScanIterator::new);
+        ENGINES.put("HeapBased", HeapBasedIterator::new);
+        ENGINES.put("LoserTree", LoserTreeIterator::new);
+    }
+
+    @Test
+    void testEventsRecordedForEachEngine(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("merge.jfr");
+
+        try (Recording recording = new Recording()) {
+            recording.enable(MergeBuildEvent.class);
+            recording.enable(SourceExhaustedEvent.class);
+            recording.enable(SourceStallEvent.class).withThreshold(Duration.ofMillis(20));
+            recording.start();
+
+            for (Function<List<Iterator<Integer>>, Iterator<Integer>> engine : ENGINES.values()) {
+                List<Iterator<Integer>> sources = Arrays.asList(
+                    Arrays.asList(1, 4).iterator(),
+                    new StallingIterator(Arrays.asList(2, 5, 6), 1, 50),
+                    Arrays.asList(3).iterator()
+                );
+                Iterator<Integer> merged = engine.apply(sources);
+                while (merged.hasNext()) {
+                    merged.next();
+                }
+            }
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+
+        for (String engine : ENGINES.keySet()) {
+            List<RecordedEvent> builds = eventsFor(events, "com.research.iterator.MergeBuild", engine);
+            assertEquals(1, builds.size(), engine);
+            assertEquals(3, builds.get(0).getInt("k"), engine);
+
+            List<RecordedEvent> exhausted = eventsFor(events, "com.research.iterator.SourceExhausted", engine);
+            assertEquals(3, exhausted.size(), engine);
+
+            List<RecordedEvent> stalls = eventsFor(events, "com.research.iterator.SourceStall", engine);
+            assertEquals(1, stalls.size(), engine);
+            assertEquals(1, stalls.get(0).getInt("sourceIndex"), engine);
+        }
+    }
+
+    @Test
+    void testTwoLevelMergeReportsOriginalSourceIndices(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("two-level.jfr");
+
+        try (Recording recording = new Recording()) {
+            recording.enable(MergeBuildEvent.class);
+            recording.enable(SourceExhaustedEvent.class);
+            recording.enable(SourceStallEvent.class).withThreshold(Duration.ofMillis(20));
+            recording.start();
+
+            // Groups of two: sources 0-1, 2-3 and 4; source 3 stalls once
+            List<Iterator<Integer>> sources = Arrays.asList(
+                Arrays.asList(1, 6).iterator(),
+                Arrays.asList(2).iterator(),
+                Arrays.asList(3, 7).iterator(),
+                new StallingIterator(Arrays.asList(4, 8), 1, 50),
+                Arrays.asList(5).iterator()
+            );
+            Iterator<Integer> merged = new TwoLevelMergeIterator<>(sources, 2, 4, MergeMetrics.NONE);
+            while (merged.hasNext()) {
+                merged.next();
+            }
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+
+        List<RecordedEvent> builds = eventsFor(events, "com.research.iterator.MergeBuild", "TwoLevelMerge");
+        assertEquals(1, builds.size());
+        assertEquals(5, builds.get(0).getInt("k"));
+        assertTrue(eventsFor(events, "com.research.iterator.MergeBuild", "LoserTree").isEmpty());
+
+        Set<Integer> exhausted = eventsFor(events, "com.research.iterator.SourceExhausted", "TwoLevelMerge")
+            .stream().map(e -> e.getInt("sourceIndex")).collect(Collectors.toSet());
+        assertEquals(new HashSet<>(Arrays.asList(0, 1, 2, 3, 4)), exhausted);
+
+        List<RecordedEvent> stalls = eventsFor(events, "com.research.iterator.SourceStall", "TwoLevelMerge");
+        assertEquals(1, stalls.size());
+        assertEquals(3, stalls.get(0).getInt("sourceIndex"));
+    }
+
+    @Test
+    void testEnginesRunWithoutRecording() {
+        for (Function<List<Iterator<Integer>>, Iterator<Integer>> engine : ENGINES.values()) {
+            Iterator<Integer> merged = engine.apply(Arrays.asList(
+                Arrays.asList(1, 3).iterator(),
+                Arrays.asList(2).iterator()
+            ));
+            List<Integer> result = new ArrayList<>();
+            merged.forEachRemaining(result::add);
+            assertEquals(Arrays.asList(1, 2, 3), result);
+        }
+    }
+
+    @Test
+    void testDrainedMergePublishesEveryPull() {
+        int n = 3 * MergeEvents.PULL_BATCH + 17;
+        for (Function<List<Iterator<Integer>>, Iterator<Integer>> engine : ENGINES.values()) {
+            List<Integer> evens = new ArrayList<>();
+            List<Integer> odds = new ArrayList<>();
+            for (int i = 0; i < n; i++) {
+                (i % 2 == 0 ? evens : odds).add(i);
+            }
+            long before = MergeEvents.totalPulled();
+            Iterator<Integer> merged = engine.apply(Arrays.asList(evens.iterator(), odds.iterator()));
+            while (merged.hasNext()) {
+                merged.next();
+            }
+            assertEquals(n, MergeEvents.totalPulled() - before);
+        }
+    }
+
+    @Test
+    void testThroughputSampleRecordsPulls(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("throughput.jfr");
+        int n = 2 * MergeEvents.PULL_BATCH;
+
+        try (Recording recording = new Recording()) {
+            recording.enable(MergeThroughputEvent.class).withPeriod(Duration.ofMillis(50));
+            recording.start();
+
+            List<Integer> values = new ArrayList<>();
+            for (int i = 0; i < n; i++) {
+                values.add(i);
+            }
+            Iterator<Integer> merged = new LoserTreeIterator<>(Collections.singletonList(values.iterator()));
+            while (merged.hasNext()) {
+                merged.next();
+            }
+            // Let at least one sample follow the drain
+            Thread.sleep(300);
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> samples = RecordingFile.readAllEvents(file).stream()
+            .filter(e -> e.getEventType().getName().equals("com.research.iterator.MergeThroughput"))
+            .collect(Collectors.toList());
+        assertTrue(samples.size() >= 2, "samples: " + samples.size());
+        // Samples cover every pull since the previous one, so earlier tests' pulls may be included
+        long sampled = samples.stream().mapToLong(e -> e.getLong("elements")).sum();
+        assertTrue(sampled >= n, "sampled " + sampled + " of " + n);
+        assertTrue(samples.stream().allMatch(e -> e.getDouble("elementsPerSecond") >= 0));
+    }
+
+    private static List<RecordedEvent> eventsFor(List<RecordedEvent> events, String name, String engine) {
+        return events.stream()
+            .filter(e -> e.getEventType().getName().equals(name))
+            .filter(e -> engine.equals(e.getString("engine")))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Iterator whose next() sleeps once, at a given position, to simulate a slow source.
+     */
+    private static class StallingIterator implements Iterator<Integer> {
+        private final Iterator<Integer> delegate;
+        private final int stallAt;
+        private final long stallMillis;
+        private int position;
+
+        StallingIterator(List<Integer> values, int stallAt, long stallMillis) {
+            this.delegate = values.iterator();
+            this.stallAt = stallAt;
+            this.stallMillis = stallMillis;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return delegate.hasNext();
+        }
+
+        @Override
+        public Integer next() {
+            if (position++ == stallAt) {
+                try {
+                    Thread.sleep(stallMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return delegate.next();
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.research.iterator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the Merges entry points and the primitive engines
+ * (IntArrayLoserTree, LongArrayLoserTree) over arrays and batch sources.
+ */
+class MergesTest {
+
+    @Test
+    void testIntArraysAgainstSort() {
+        Random random = new Random(48);
+        for (int k : new int[]{1, 2, 3, 10, 64, 100}) {
+            int[][] arrays = new int[k][];
+            List<Integer> expected = new ArrayList<>();
+            for (int i = 0; i < k; i++) {
+                arrays[i] = random.ints(random.nextInt(50), -1000, 1000).sorted().toArray();
+                for (int value : arrays[i]) {
+                    expected.add(value);
+                }
+            }
+            Collections.sort(expected);
+
+            List<Integer> result = new ArrayList<>();
+            Merges.merge(arrays).forEachRemaining((int value) -> result.add(value));
+            assertEquals(expected, result, "k=" + k);
+        }
+    }
+
+    @Test
+    void testLongArraysAgainstSort() {
+        Random random = new Random(480);
+        for (int k : new int[]{1, 2, 3, 10, 64, 100}) {
+            long[][] arrays = new long[k][];
+            List<Long> expected = new ArrayList<>();
+            for (int i = 0; i < k; i++) {
+                arrays[i] = random.longs(random.nextInt(50)).sorted().toArray();
+                for (long value : arrays[i]) {
+                    expected.add(value);
+                }
+            }
+            Collections.sort(expected);
+
+            List<Long> result = new ArrayList<>();
+            Merges.merge(arrays).forEachRemaining((long value) -> result.add(value));
+            assertEquals(expected, result, "k=" + k);
+        }
+    }
+
+    @Test
+    void testPrimitiveExtremesAndEmptyArrays() {
+        PrimitiveIterator.OfInt ints = Merges.merge(
+            new int[]{Integer.MIN_VALUE, 0},
+            new int[0],
+            new int[]{-1, Integer.MAX_VALUE}
+        );
+        assertEquals(Integer.MIN_VALUE, ints.nextInt());
+        assertEquals(-1, ints.nextInt());
+        assertEquals(0, ints.nextInt());
+        assertEquals(Integer.MAX_VALUE, ints.nextInt());
+        assertFalse(ints.hasNext());
+        assertThrows(NoSuchElementException.class, ints::nextInt);
+
+        PrimitiveIterator.OfLong longs = Merges.merge(new long[0], new long[]{Long.MAX_VALUE, Long.MAX_VALUE});
+        assertEquals(Long.MAX_VALUE, longs.nextLong());
+        assertEquals(Long.MAX_VALUE, longs.nextLong());
+        assertFalse(longs.hasNext());
+
+        assertFalse(Merges.merge(new int[0], new int[0]).hasNext());
+    }
+
+    @Test
+    void testPrimitiveMetrics() {
+        CountingMergeMetrics metrics = new CountingMergeMetrics(3);
+        IntArrayLoserTree merged = new IntArrayLoserTree(
+            new int[][]{{1, 4, 7}, {}, {2, 5}}, metrics);
+
+        int count = 0;
+        while (merged.hasNext()) {
+            merged.nextInt();
+            count++;
+        }
+
+        assertEquals(5, count);
+        assertEquals(3, metrics.pulls(0));
+        assertEquals(0, metrics.pulls(1));
+        assertEquals(2, metrics.pulls(2));
+        assertEquals(3, metrics.exhaustions());
+        assertTrue(metrics.replays() >= count);
+        assertTrue(metrics.buildNanos() > 0);
+    }
+
+    @Test
+    void testPrimitiveBatchSources() {
+        Random random = new Random(49);
+        for (int batchSize : new int[]{1, 2, 7, 256}) {
+            int k = 10;
+            int[][] arrays = new int[k][];
+            List<BatchSource.OfInt> ints = new ArrayList<>();
+            List<BatchSource.OfLong> longs = new ArrayList<>();
+            for (int i = 0; i < k; i++) {
+                arrays[i] = random.ints(random.nextInt(100), -500, 500).sorted().toArray();
+                ints.add(BatchSource.OfInt.of(Arrays.stream(arrays[i]).iterator()));
+                longs.add(BatchSource.OfLong.of(Arrays.stream(arrays[i]).asLongStream().iterator()));
+            }
+
+            List<Integer> expected = new ArrayList<>();
+            Merges.merge(arrays).forEachRemaining((int value) -> expected.add(value));
+
+            List<Integer> fromInts = new ArrayList<>();
+            new IntArrayLoserTree(ints, batchSize, MergeMetrics.NONE)
+                .forEachRemaining((int value) -> fromInts.add(value));
+            assertEquals(expected, fromInts, "batchSize=" + batchSize);
+
+            List<Integer> fromLongs = new ArrayList<>();
+            new LongArrayLoserTree(longs, batchSize, MergeMetrics.NONE)
+                .forEachRemaining((long value) -> fromLongs.add((int) value));
+            assertEquals(expected, fromLongs, "batchSize=" + batchSize);
+        }
+    }
+
+    @Test
+    void testPrimitiveBatchMetrics() {
+        CountingMergeMetrics metrics = new CountingMergeMetrics(3);
+        IntArrayLoserTree merged = new IntArrayLoserTree(Arrays.asList(
+            BatchSource.OfInt.of(Arrays.stream(new int[]{1, 4, 7}).iterator()),
+            BatchSource.OfInt.of(Arrays.stream(new int[0]).iterator()),
+            BatchSource.OfInt.of(Arrays.stream(new int[]{2, 5}).iterator())
+        ), 2, metrics);
+
+        int count = 0;
+        while (merged.hasNext()) {
+            merged.nextInt();
+            count++;
+        }
+
+        assertEquals(5, count);
+        assertEquals(3, metrics.pulls(0));
+        assertEquals(0, metrics.pulls(1));
+        assertEquals(2, metrics.pulls(2));
+        assertEquals(3, metrics.exhaustions());
+    }
+
+    @Test
+    void testObjectArraysAndLists() {
+        List<String> result = new ArrayList<>();
+        Merges.merge(new String[]{"apple", "melon"}, new String[]{"banana", "zucchini"}, new String[0])
+            .forEachRemaining(result::add);
+        assertEquals(Arrays.asList("apple", "banana", "melon", "zucchini"), result);
+
+        result.clear();
+        Merges.merge(Arrays.asList(Arrays.asList("b", "d"), new ArrayList<>(Arrays.asList("a", "c"))))
+            .forEachRemaining(result::add);
+        assertEquals(Arrays.asList("a", "b", "c", "d"), result);
+    }
+
+    @Test
+    void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> Merges.merge(new int[0][]));
+        assertThrows(IllegalArgumentException.class, () -> Merges.merge(new int[]{1}, null));
+        assertThrows(NullPointerException.class, () -> Merges.merge((long[][]) null));
+        assertThrows(IllegalArgumentException.class, () -> Merges.merge(new long[]{1}, null));
+        assertThrows(IllegalArgumentException.class, () -> Merges.merge(new Integer[0][]));
+        assertThrows(IllegalArgumentException.class, () -> Merges.merge(new Integer[]{1}, null));
+        assertThrows(IllegalArgumentException.class,
+            () -> Merges.merge(Collections.singletonList(new LinkedList<>(Arrays.asList(1, 2)))));
+        assertThrows(IllegalArgumentException.class, () -> new IntArrayLoserTree(
+            Collections.<BatchSource.OfInt>emptyList()));
+        assertThrows(IllegalArgumentException.class, () -> new LongArrayLoserTree(
+            Collections.singletonList(buffer -> 0), 0, MergeMetrics.NONE));
+        assertThrows(UnsupportedOperationException.class, () -> Merges.merge(new int[]{1}).remove());
+    }
+}
@@ -0,0 +1,202 @@
+package com.research.iterator;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for OffHeapLoserTree (fixed-width binary keys in a direct buffer).
+ */
+class OffHeapLoserTreeTest {
+
+    @Test
+    void testMergesUnsignedLexicographically() {
+        for (int keyWidth : new int[]{1, 5, 8, 12, 16, 24, 31, 32}) {
+            for (int k : new int[]{1, 2, 3, 7, 64}) {
+                assertMergeSorted(keyWidth, k, new Random(keyWidth * 31L + k));
+            }
+        }
+    }
+
+    @Test
+    void testHighBitBytesSortAfterLowBitBytes() {
+        // Signed comparison would put 0x80 before 0x7F
+        byte[] low = new byte[16];
+        byte[] high = new byte[16];
+        low[0] = 0x7F;
+        high[0] = (byte) 0x80;
+
+        OffHeapLoserTree tree = new OffHeapLoserTree(16, Arrays.asList(
+            new ArrayKeySource(16, Collections.singletonList(high)),
+            new ArrayKeySource(16, Collections.singletonList(low))
+        ));
+
+        assertTrue(tree.advance());
+        assertEquals(1, tree.source());
+        assertEquals(0x7FL << 56, tree.word(0));
+        assertTrue(tree.advance());
+        assertEquals(0, tree.source());
+        assertFalse(tree.advance());
+    }
+
+    @Test
+    void testEmptySources() {
+        OffHeapLoserTree tree = new OffHeapLoserTree(16, Arrays.asList(
+            new ArrayKeySource(16, Collections.emptyList()),
+            new ArrayKeySource(16, Collections.emptyList())
+        ));
+
+        assertFalse(tree.advance());
+        assertFalse(tree.advance());
+        assertThrows(IllegalStateException.class, tree::source);
+    }
+
+    @Test
+    void testKeyAccessBeforeAdvance() {
+        OffHeapLoserTree tree = new OffHeapLoserTree(8, Collections.singletonList(
+            new ArrayKeySource(8, Collections.singletonList(new byte[8]))
+        ));
+
+        assertThrows(IllegalStateException.class, () -> tree.word(0));
+        assertTrue(tree.advance());
+        assertThrows(IndexOutOfBoundsException.class, () -> tree.word(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> tree.copyKey(new byte[4], 0));
+    }
+
+    @Test
+    void testTrailingBytesDecideOrderAndPadLastWord() {
+        // Equal first word; the unsigned tail byte 0x80 must sort after 0x7F
+        byte[] low = new byte[10];
+        byte[] high = new byte[10];
+        low[9] = 0x7F;
+        high[9] = (byte) 0x80;
+        OffHeapLoserTree tree = new OffHeapLoserTree(10, Arrays.asList(
+            new ArrayKeySource(10, Collections.singletonList(high)),
+            new ArrayKeySource(10, Collections.singletonList(low))
+        ));
+
+        assertTrue(tree.advance());
+        assertEquals(1, tree.source());
+        assertEquals(0L, tree.word(0));
+        assertEquals(0x007FL << 48, tree.word(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> tree.word(2));
+        assertTrue(tree.advance());
+        assertEquals(0, tree.source());
+        assertEquals(0x0080L << 48, tree.word(1));
+        assertFalse(tree.advance());
+    }
+
+    @Test
+    void testInvalidArguments() {
+        FixedWidthKeySource empty = (slots, offset) -> false;
+
+        assertThrows(IllegalArgumentException.class,
+            () -> new OffHeapLoserTree(-8, Collections.singletonList(empty)));
+        assertThrows(IllegalArgumentException.class,
+            () -> new OffHeapLoserTree(0, Collections.singletonList(empty)));
+        assertThrows(IllegalArgumentException.class,
+            () -> new OffHeapLoserTree(16, Collections.emptyList()));
+        assertThrows(IllegalArgumentException.class,
+            () -> new OffHeapLoserTree(16, Arrays.asList(empty, null)));
+        assertThrows(NullPointerException.class,
+            () -> new OffHeapLoserTree(16, null));
+    }
+
+    @Test
+    void testMetricsCountLogKComparisons() {
+        int k = 256;
+        int keyWidth = 16;
+        Random random = new Random(7);
+        List<FixedWidthKeySource> sources = new ArrayList<>();
+        int total = 0;
+        for (int i = 0; i < k; i++) {
+            List<byte[]> keys = sortedKeys(keyWidth, 50, random);
+            total += keys.size();
+            sources.add(new ArrayKeySource(keyWidth, keys));
+        }
+
+        CountingMergeMetrics metrics = new CountingMergeMetrics(k);
+        OffHeapLoserTree tree = new OffHeapLoserTree(keyWidth, sources, metrics);
+        int count = 0;
+        while (tree.advance()) {
+            count++;
+        }
+
+        assertEquals(total, count);
+        assertEquals(total, metrics.totalPulls());
+        assertEquals(k, metrics.exhaustions());
+        // Build: k-1 comparisons; each replay: log2 k = 8
+        assertTrue(metrics.comparisons() <= (k - 1) + (long) total * 8,
+            "comparisons=" + metrics.comparisons());
+    }
+
+    private static void assertMergeSorted(int keyWidth, int k, Random random) {
+        List<FixedWidthKeySource> sources = new ArrayList<>();
+        List<byte[]> expected = new ArrayList<>();
+        for (int i = 0; i < k; i++) {
+            List<byte[]> keys = sortedKeys(keyWidth, random.nextInt(30), random);
+            expected.addAll(keys);
+            sources.add(new ArrayKeySource(keyWidth, keys));
+        }
+        expected.sort(Arrays::compareUnsigned);
+
+        OffHeapLoserTree tree = new OffHeapLoserTree(keyWidth, sources);
+        List<byte[]> result = new ArrayList<>();
+        while (tree.advance()) {
+            byte[] key = new byte[keyWidth];
+            tree.copyKey(key, 0);
+            result.add(key);
+        }
+
+        assertEquals(expected.size(), result.size(), "keyWidth=" + keyWidth + " k=" + k);
+        for (int i = 0; i < expected.size(); i++) {
+            assertArrayEquals(expected.get(i), result.get(i), "keyWidth=" + keyWidth + " k=" + k + " i=" + i);
+        }
+    }
+
+    /**
+     * Random keys sharing a few prefix patterns, so comparisons reach later words.
+     */
+    private static List<byte[]> sortedKeys(int keyWidth, int count, Random random) {
+        List<byte[]> keys = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            byte[] key = new byte[keyWidth];
+            random.nextBytes(key);
+            int sharedPrefix = random.nextInt(keyWidth);
+            for (int b = 0; b < sharedPrefix; b++) {
+                key[b] = (byte) 0xA5;
+            }
+            keys.add(key);
+        }
+        keys.sort(Arrays::compareUnsigned);
+        return keys;
+    }
+
+    /**
+     * Source over pre-sorted keys, written into the slot with absolute puts.
+     */
+    private static class ArrayKeySource implements FixedWidthKeySource {
+        private final int keyWidth;
+        private final Iterator<byte[]> keys;
+
+        ArrayKeySource(int keyWidth, List<byte[]> keys) {
+            this.keyWidth = keyWidth;
+            this.keys = keys.iterator();
+        }
+
+        @Override
+        public boolean fill(ByteBuffer slots, int offset) {
+            if (!keys.hasNext()) {
+                return false;
+            }
+            byte[] key = keys.next();
+            for (int i = 0; i < keyWidth; i++) {
+                slots.put(offset + i, key[i]);
+            }
+            return true;
+        }
+    }
+}
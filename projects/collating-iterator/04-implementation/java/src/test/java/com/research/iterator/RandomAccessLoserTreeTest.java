@@ -0,0 +1,73 @@
+package com.research.iterator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for RandomAccessLoserTree (cursor-based merge of random-access lists).
+ *
+ * Inherits all shared tests from CollatingIteratorTestBase; each source
+ * iterator is materialized into an ArrayList first.
+ * Adds RandomAccess and in-place tests.
+ */
+class RandomAccessLoserTreeTest extends CollatingIteratorTestBase {
+
+    @Override
+    protected <T extends Comparable<? super T>> Iterator<T> createIterator(
+        List<? extends Iterator<T>> iterators
+    ) {
+        return createIterator(iterators, MergeMetrics.NONE);
+    }
+
+    @Override
+    protected <T extends Comparable<? super T>> Iterator<T> createIterator(
+        List<? extends Iterator<T>> iterators,
+        MergeMetrics metrics
+    ) {
+        return new RandomAccessLoserTree<>(iterators == null ? null : toLists(iterators), metrics);
+    }
+
+    private static <T> List<List<T>> toLists(List<? extends Iterator<T>> iterators) {
+        List<List<T>> lists = new ArrayList<>();
+        for (Iterator<T> iterator : iterators) {
+            if (iterator == null) {
+                lists.add(null);
+                continue;
+            }
+            List<T> list = new ArrayList<>();
+            iterator.forEachRemaining(list::add);
+            lists.add(list);
+        }
+        return lists;
+    }
+
+    @Test
+    void testRejectsSequentialLists() {
+        List<List<Integer>> lists = Arrays.asList(
+            new ArrayList<>(Arrays.asList(1, 3)),
+            new LinkedList<>(Arrays.asList(2, 4))
+        );
+
+        assertThrows(IllegalArgumentException.class, () -> new RandomAccessLoserTree<>(lists));
+    }
+
+    @Test
+    void testMixedListClassesReadInPlace() {
+        Integer[] array = {1, 4, 7};
+        List<List<Integer>> lists = Arrays.asList(
+            Arrays.asList(array),
+            new ArrayList<>(Arrays.asList(2, 5, 8)),
+            Collections.unmodifiableList(Arrays.asList(3, 6, 9)),
+            Collections.<Integer>emptyList()
+        );
+
+        List<Integer> result = new ArrayList<>();
+        new RandomAccessLoserTree<>(lists).forEachRemaining(result::add);
+
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8, 9), result);
+        assertArrayEquals(new Integer[]{1, 4, 7}, array);
+    }
+}
@@ -0,0 +1,130 @@
+package com.research.iterator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for RangePartitionedMerge (one independent merge per key range).
+ */
+class RangePartitionedMergeTest {
+
+    private static List<Integer> drain(Iterator<Integer> iterator) {
+        List<Integer> result = new ArrayList<>();
+        iterator.forEachRemaining(result::add);
+        return result;
+    }
+
+    @Test
+    void testPartitionsFollowBoundaries() {
+        RangePartitionedMerge<Integer> merge = new RangePartitionedMerge<>(
+            Arrays.asList(
+                Arrays.asList(1, 4, 7, 10),
+                Arrays.asList(2, 5, 5, 8),
+                Arrays.asList(3, 6, 9)),
+            Arrays.asList(5, 8),
+            LoserTreeIterator::new);
+
+        assertEquals(3, merge.partitionCount());
+        assertEquals(Arrays.asList(1, 2, 3, 4), drain(merge.partition(0)));
+        assertEquals(Arrays.asList(5, 5, 6, 7), drain(merge.partition(1)));
+        assertEquals(Arrays.asList(8, 9, 10), drain(merge.partition(2)));
+        assertEquals(4, merge.partitionSize(1));
+    }
+
+    @Test
+    void testEveryEngineConcatenatesToFullMerge() {
+        Random random = new Random(40);
+        List<List<Integer>> sources = new ArrayList<>();
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            List<Integer> source = new ArrayList<>();
+            for (int j = random.nextInt(200); j > 0; j--) {
+                source.add(random.nextInt(1000));
+            }
+            Collections.sort(source);
+            expected.addAll(source);
+            sources.add(source);
+        }
+        Collections.sort(expected);
+        // Includes boundaries below, between and above all keys
+        List<Integer> boundaries = Arrays.asList(-5, 100, 101, 500, 999, 2000);
+
+        List<Function<List<Iterator<Integer>>, Iterator<Integer>>> engines = Arrays.asList(
+            LinearScanIterator::new, HeapBasedIterator::new, LoserTreeIterator::new);
+        for (Function<List<Iterator<Integer>>, Iterator<Integer>> engine : engines) {
+            RangePartitionedMerge<Integer> merge = new RangePartitionedMerge<>(sources, boundaries, engine);
+            List<Integer> result = new ArrayList<>();
+            for (int p = 0; p < merge.partitionCount(); p++) {
+                List<Integer> partition = drain(merge.partition(p));
+                assertEquals(merge.partitionSize(p), partition.size());
+                for (int value : partition) {
+                    assertTrue(p == 0 || value >= boundaries.get(p - 1));
+                    assertTrue(p == boundaries.size() || value < boundaries.get(p));
+                }
+                result.addAll(partition);
+            }
+            assertEquals(expected, result);
+        }
+    }
+
+    @Test
+    void testPartitionsDrainInParallel() throws Exception {
+        int k = 16;
+        List<List<Integer>> sources = new ArrayList<>();
+        for (int i = 0; i < k; i++) {
+            List<Integer> source = new ArrayList<>();
+            for (int j = 0; j < 5000; j++) {
+                source.add(j * k + i);
+            }
+            sources.add(source);
+        }
+        RangePartitionedMerge<Integer> merge = new RangePartitionedMerge<>(
+            sources, Arrays.asList(20000, 40000, 60000), LoserTreeIterator::new);
+
+        ExecutorService executor = Executors.newFixedThreadPool(merge.partitionCount());
+        try {
+            List<Future<List<Integer>>> outputs = new ArrayList<>();
+            for (int p = 0; p < merge.partitionCount(); p++) {
+                int partition = p;
+                outputs.add(executor.submit(() -> drain(merge.partition(partition))));
+            }
+            int next = 0;
+            for (Future<List<Integer>> output : outputs) {
+                for (int value : output.get(30, TimeUnit.SECONDS)) {
+                    assertEquals(next++, value);
+                }
+            }
+            assertEquals(k * 5000, next);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testInvalidArguments() {
+        List<List<Integer>> sources = Collections.singletonList(Arrays.asList(1, 2, 3));
+        List<Integer> boundaries = Collections.singletonList(2);
+        assertThrows(NullPointerException.class,
+            () -> new RangePartitionedMerge<>(null, boundaries, LoserTreeIterator::new));
+        assertThrows(NullPointerException.class,
+            () -> new RangePartitionedMerge<>(sources, null, LoserTreeIterator::new));
+        assertThrows(NullPointerException.class, () -> new RangePartitionedMerge<>(sources, boundaries, null));
+        assertThrows(IllegalArgumentException.class,
+            () -> new RangePartitionedMerge<>(Collections.<List<Integer>>emptyList(), boundaries, LoserTreeIterator::new));
+        assertThrows(IllegalArgumentException.class,
+            () -> new RangePartitionedMerge<>(Collections.singletonList(new LinkedList<>(Arrays.asList(1, 2))),
+                boundaries, LoserTreeIterator::new));
+        assertThrows(IllegalArgumentException.class,
+            () -> new RangePartitionedMerge<>(sources, Arrays.asList(3, 3), LoserTreeIterator::new));
+
+        RangePartitionedMerge<Integer> merge = new RangePartitionedMerge<>(sources, boundaries, LoserTreeIterator::new);
+        assertThrows(IndexOutOfBoundsException.class, () -> merge.partition(2));
+        assertEquals(Arrays.asList(1, 2, 3), drain(new RangePartitionedMerge<>(
+            sources, Collections.<Integer>emptyList(), LoserTreeIterator::new).partition(0)));
+    }
+}
@@ -0,0 +1,163 @@
+package com.research.iterator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for SortMergeJoin (streaming inner / left outer / full outer join).
+ */
+class SortMergeJoinTest {
+
+    /** Right rows are "key:tag" strings. */
+    private static final Function<String, Integer> RIGHT_KEY = s -> Integer.parseInt(s.substring(0, s.indexOf(':')));
+
+    private static List<String> join(List<Integer> left, List<String> right, SortMergeJoin.Type type) {
+        SortMergeJoin<Integer, String, Integer> join = new SortMergeJoin<>(
+            left.iterator(), Function.identity(), right.iterator(), RIGHT_KEY, Comparator.naturalOrder(), type);
+        List<String> rows = new ArrayList<>();
+        join.forEachRemaining(row -> rows.add(row.toString()));
+        return rows;
+    }
+
+    @Test
+    void testJoinTypesWithDuplicateGroups() {
+        List<Integer> left = Arrays.asList(1, 2, 2, 4, 6);
+        List<String> right = Arrays.asList("2:a", "2:b", "3:c", "4:d", "7:e");
+
+        assertEquals(Arrays.asList("(2, 2:a)", "(2, 2:b)", "(2, 2:a)", "(2, 2:b)", "(4, 4:d)"),
+            join(left, right, SortMergeJoin.Type.INNER));
+        assertEquals(Arrays.asList("(1, null)", "(2, 2:a)", "(2, 2:b)", "(2, 2:a)", "(2, 2:b)", "(4, 4:d)",
+                "(6, null)"),
+            join(left, right, SortMergeJoin.Type.LEFT_OUTER));
+        assertEquals(Arrays.asList("(1, null)", "(2, 2:a)", "(2, 2:b)", "(2, 2:a)", "(2, 2:b)", "(null, 3:c)",
+                "(4, 4:d)", "(6, null)", "(null, 7:e)"),
+            join(left, right, SortMergeJoin.Type.FULL_OUTER));
+    }
+
+    @Test
+    void testEmptySides() {
+        List<Integer> none = Collections.emptyList();
+        assertEquals(Collections.emptyList(), join(none, Arrays.asList("1:a"), SortMergeJoin.Type.LEFT_OUTER));
+        assertEquals(Arrays.asList("(null, 1:a)"), join(none, Arrays.asList("1:a"), SortMergeJoin.Type.FULL_OUTER));
+        assertEquals(Arrays.asList("(1, null)"),
+            join(Arrays.asList(1), Collections.<String>emptyList(), SortMergeJoin.Type.LEFT_OUTER));
+        assertEquals(Collections.emptyList(),
+            join(Arrays.asList(1), Collections.<String>emptyList(), SortMergeJoin.Type.INNER));
+    }
+
+    @Test
+    void testJoinOfMergedInputsMatchesNestedLoop() {
+        Random random = new Random(41);
+        List<List<Integer>> leftSegments = new ArrayList<>();
+        List<List<Integer>> rightSegments = new ArrayList<>();
+        List<Integer> allLeft = new ArrayList<>();
+        List<Integer> allRight = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            leftSegments.add(sortedRandom(random, allLeft));
+            rightSegments.add(sortedRandom(random, allRight));
+        }
+        Collections.sort(allLeft);
+        Collections.sort(allRight);
+
+        for (SortMergeJoin.Type type : SortMergeJoin.Type.values()) {
+            SortMergeJoin<Integer, Integer, Integer> join = SortMergeJoin.of(
+                new LoserTreeIterator<>(iterators(leftSegments)),
+                new LoserTreeIterator<>(iterators(rightSegments)), type);
+            List<String> rows = new ArrayList<>();
+            join.forEachRemaining(row -> rows.add(row.toString()));
+            assertEquals(nestedLoopJoin(allLeft, allRight, type), rows, type.name());
+        }
+    }
+
+    @Test
+    void testBuffersOnlyCurrentRightGroup() {
+        // An unbounded right side: the join must not read ahead of the current group
+        Iterator<String> right = new Iterator<String>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public String next() {
+                int key = next++ / 3;
+                return key + ":" + next;
+            }
+        };
+        SortMergeJoin<Integer, String, Integer> join = new SortMergeJoin<>(
+            Arrays.asList(1, 1, 5).iterator(), Function.identity(), right, RIGHT_KEY,
+            Comparator.naturalOrder(), SortMergeJoin.Type.INNER);
+
+        List<String> rows = new ArrayList<>();
+        for (int i = 0; i < 9; i++) {
+            rows.add(join.next().toString());
+        }
+        assertEquals(Arrays.asList("(1, 1:4)", "(1, 1:5)", "(1, 1:6)", "(1, 1:4)", "(1, 1:5)", "(1, 1:6)",
+            "(5, 5:16)", "(5, 5:17)", "(5, 5:18)"), rows);
+        assertFalse(join.hasNext(), "left is exhausted, so an inner join ends");
+    }
+
+    @Test
+    void testInvalidArguments() {
+        Iterator<Integer> empty = Collections.emptyIterator();
+        assertThrows(NullPointerException.class, () -> SortMergeJoin.of(null, empty, SortMergeJoin.Type.INNER));
+        assertThrows(NullPointerException.class, () -> SortMergeJoin.of(empty, null, SortMergeJoin.Type.INNER));
+        assertThrows(NullPointerException.class, () -> SortMergeJoin.of(empty, empty, null));
+        SortMergeJoin<Integer, Integer, Integer> join = SortMergeJoin.of(empty, empty, SortMergeJoin.Type.FULL_OUTER);
+        assertFalse(join.hasNext());
+        assertThrows(NoSuchElementException.class, join::next);
+        assertThrows(UnsupportedOperationException.class, join::remove);
+    }
+
+    private static List<Integer> sortedRandom(Random random, List<Integer> all) {
+        List<Integer> segment = new ArrayList<>();
+        for (int j = random.nextInt(40); j > 0; j--) {
+            segment.add(random.nextInt(60));
+        }
+        Collections.sort(segment);
+        all.addAll(segment);
+        return segment;
+    }
+
+    private static List<Iterator<Integer>> iterators(List<List<Integer>> segments) {
+        List<Iterator<Integer>> iterators = new ArrayList<>();
+        for (List<Integer> segment : segments) {
+            iterators.add(segment.iterator());
+        }
+        return iterators;
+    }
+
+    /**
+     * Reference join in key order: for each key, left x right pairs (left-major),
+     * or the unmatched rows the join type keeps.
+     */
+    private static List<String> nestedLoopJoin(List<Integer> left, List<Integer> right, SortMergeJoin.Type type) {
+        TreeSet<Integer> keys = new TreeSet<>(left);
+        keys.addAll(right);
+        List<String> rows = new ArrayList<>();
+        for (int key : keys) {
+            int leftCount = Collections.frequency(left, key);
+            int rightCount = Collections.frequency(right, key);
+            if (leftCount > 0 && rightCount > 0) {
+                for (int l = 0; l < leftCount * rightCount; l++) {
+                    rows.add("(" + key + ", " + key + ")");
+                }
+            } else if (leftCount > 0 && type != SortMergeJoin.Type.INNER) {
+                for (int l = 0; l < leftCount; l++) {
+                    rows.add("(" + key + ", null)");
+                }
+            } else if (rightCount > 0 && type == SortMergeJoin.Type.FULL_OUTER) {
+                for (int r = 0; r < rightCount; r++) {
+                    rows.add("(null, " + key + ")");
+                }
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,119 @@
+package com.research.iterator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for SpecializedMerges and LoserTreeKernel (per-type kernel copies).
+ *
+ * Inherits all shared tests from CollatingIteratorTestBase, keyed on Object.
+ * Adds specialization tests.
+ */
+class SpecializedMergesTest extends CollatingIteratorTestBase {
+
+    @Override
+    protected <T extends Comparable<? super T>> Iterator<T> createIterator(
+        List<? extends Iterator<T>> iterators
+    ) {
+        return createIterator(iterators, MergeMetrics.NONE);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected <T extends Comparable<? super T>> Iterator<T> createIterator(
+        List<? extends Iterator<T>> iterators,
+        MergeMetrics metrics
+    ) {
+        return SpecializedMerges.merge((Class<T>) (Class<?>) Object.class, null, iterators, metrics);
+    }
+
+    @Test
+    void testOneKernelClassPerElementType() {
+        Iterator<Integer> ints = SpecializedMerges.merge(Integer.class, Arrays.asList(
+            Arrays.asList(1, 3).iterator(), Arrays.asList(2).iterator()));
+        Iterator<Integer> moreInts = SpecializedMerges.merge(Integer.class, Arrays.asList(
+            Arrays.asList(5).iterator()));
+        Iterator<String> strings = SpecializedMerges.merge(String.class, Arrays.asList(
+            Arrays.asList("a", "c").iterator(), Arrays.asList("b").iterator()));
+
+        // Same kernel bytecode, distinct classes, so distinct JIT profiles
+        assertEquals(LoserTreeKernel.class.getName(), ints.getClass().getName());
+        assertNotSame(LoserTreeKernel.class, ints.getClass());
+        assertSame(ints.getClass(), moreInts.getClass());
+        assertNotSame(ints.getClass(), strings.getClass());
+        assertNotSame(ints.getClass().getClassLoader(), strings.getClass().getClassLoader());
+
+        List<Object> merged = new ArrayList<>();
+        ints.forEachRemaining(merged::add);
+        strings.forEachRemaining(merged::add);
+        assertEquals(Arrays.asList(1, 2, 3, "a", "b", "c"), merged);
+    }
+
+    @Test
+    void testComparatorClassIsPartOfTheKey() {
+        // Key is used by no other test, so both of its kernels are defined here
+        int before = SpecializedMerges.kernelCount();
+        Comparator<Key> descending = Comparator.reverseOrder();
+        Iterator<Key> natural = SpecializedMerges.merge(Key.class, Arrays.asList(
+            Arrays.asList(new Key(1), new Key(4)).iterator(), Arrays.asList(new Key(2), new Key(3)).iterator()));
+        Iterator<Key> reversed = SpecializedMerges.merge(Key.class, descending, Arrays.asList(
+            Arrays.asList(new Key(4), new Key(1)).iterator(), Arrays.asList(new Key(3), new Key(2)).iterator()),
+            MergeMetrics.NONE);
+
+        assertNotSame(natural.getClass(), reversed.getClass());
+        assertEquals(before + 2, SpecializedMerges.kernelCount());
+
+        List<Integer> result = new ArrayList<>();
+        reversed.forEachRemaining(key -> result.add(key.value));
+        assertEquals(Arrays.asList(4, 3, 2, 1), result);
+    }
+
+    @Test
+    void testDrainedMergePublishesEveryPull() {
+        int n = 2 * MergeEvents.PULL_BATCH + 5;
+        List<Integer> evens = new ArrayList<>();
+        List<Integer> odds = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            (i % 2 == 0 ? evens : odds).add(i);
+        }
+        long before = MergeEvents.totalPulled();
+        Iterator<Integer> merged = SpecializedMerges.merge(Integer.class,
+            Arrays.asList(evens.iterator(), odds.iterator()));
+        while (merged.hasNext()) {
+            merged.next();
+        }
+        assertEquals(n, MergeEvents.totalPulled() - before);
+    }
+
+    @Test
+    void testRepeatedPairReusesItsKernel() {
+        Comparator<Short> descending = Comparator.reverseOrder();
+        Iterator<Short> first = SpecializedMerges.merge(Short.class, descending, Arrays.asList(
+            Arrays.asList((short) 2).iterator()), MergeMetrics.NONE);
+        int defined = SpecializedMerges.kernelCount();
+        Iterator<Short> second = SpecializedMerges.merge(Short.class, descending, Arrays.asList(
+            Arrays.asList((short) 1).iterator()), MergeMetrics.NONE);
+
+        assertSame(first.getClass(), second.getClass());
+        assertEquals(defined, SpecializedMerges.kernelCount());
+    }
+
+    /**
+     * Element type private to this test, so no other test defines its kernels.
+     */
+    private static final class Key implements Comparable<Key> {
+        final int value;
+
+        Key(int value) {
+            this.value = value;
+        }
+
+        @Override
+        public int compareTo(Key other) {
+            return Integer.compare(value, other.value);
+        }
+    }
+}
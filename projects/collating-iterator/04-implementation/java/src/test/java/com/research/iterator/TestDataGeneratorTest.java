@@ -0,0 +1,96 @@
+package com.research.iterator;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for TestDataGenerator's streaming, exhaustion and caching paths.
+ */
+class TestDataGeneratorTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"random", "clustered", "sequential", "alternating", "reverse_sequential", "duplicates"})
+    void testStreamsAreSortedWithRequestedCounts(String pattern) {
+        int[][] data = new TestDataGenerator().generateArrays(7, 10000, "skewed", pattern, "random");
+
+        assertEquals(7, data.length);
+        assertEquals(10000, Arrays.stream(data).mapToInt(a -> a.length).sum());
+        for (int[] values : data) {
+            for (int j = 1; j < values.length; j++) {
+                assertTrue(values[j - 1] <= values[j], pattern + " not sorted at " + j);
+            }
+        }
+    }
+
+    @Test
+    void testStreamsAreReproducible() {
+        int[][] first = new TestDataGenerator(7).generateArrays(5, 5000, "uniform", "random", "simultaneous");
+        int[][] second = new TestDataGenerator(7).generateArrays(5, 5000, "uniform", "random", "simultaneous");
+
+        assertTrue(Arrays.deepEquals(first, second));
+    }
+
+    @Test
+    void testSequentialExhaustionOrder() {
+        int[][] data = new TestDataGenerator().generateArrays(8, 80000, "uniform", "random", "sequential");
+
+        for (int i = 1; i < data.length; i++) {
+            int previousLast = data[i - 1][data[i - 1].length - 1];
+            int last = data[i][data[i].length - 1];
+            assertTrue(previousLast < last, "source " + i + " must outlast source " + (i - 1));
+        }
+    }
+
+    @Test
+    void testEarlyExhaustionLeavesOneLongTail() {
+        int[][] data = new TestDataGenerator().generateArrays(10, 100000, "uniform", "random", "early");
+
+        int others = 0;
+        for (int i = 0; i < 9; i++) {
+            others = Math.max(others, data[i][data[i].length - 1]);
+        }
+        int tailStart = others;
+        int[] tail = data[9];
+        long beyond = Arrays.stream(tail).filter(v -> v > tailStart).count();
+        assertTrue(beyond > tail.length * 0.8, "last source should run on alone for most of its values");
+    }
+
+    @Test
+    void testCacheRoundTrip(@TempDir Path dir) throws Exception {
+        TestDataGenerator generator = new TestDataGenerator(11);
+        int[][] generated = generator.generateArrays(4, 3000, "power_law", "clustered", "random", dir);
+
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(1, files.count());
+        }
+        String key = generator.cacheKey(4, 3000, "power_law", "clustered", "random");
+        int[][] cached = new DatasetCache(dir).getOrCreate(key,
+            () -> { throw new AssertionError("should be served from cache"); });
+        assertTrue(Arrays.deepEquals(generated, cached));
+    }
+
+    @Test
+    void testUnversionedCacheFileIsNotServed(@TempDir Path dir) throws Exception {
+        TestDataGenerator generator = new TestDataGenerator(11);
+        String key = generator.cacheKey(4, 300, "uniform", "random", "random");
+        Files.write(dir.resolve(key + ".bin"), new byte[] {1, 2, 3});
+
+        int[][] generated = generator.generateArrays(4, 300, "uniform", "random", "random", dir);
+        assertTrue(Arrays.deepEquals(generator.generateArrays(4, 300, "uniform", "random", "random"), generated));
+    }
+
+    @Test
+    void testUnknownExhaustionRejected() {
+        assertThrows(IllegalArgumentException.class,
+            () -> new TestDataGenerator().stream(3, 10, "uniform", "random", "never"));
+    }
+}
@@ -0,0 +1,51 @@
+package com.research.iterator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for TwoLevelMergeIterator (group trees drained into buffers, merged by a top tree).
+ *
+ * Inherits all shared tests from CollatingIteratorTestBase.
+ * Adds group and buffer boundary tests.
+ */
+class TwoLevelMergeIteratorTest extends CollatingIteratorTestBase {
+
+    @Override
+    protected <T extends Comparable<? super T>> Iterator<T> createIterator(
+        List<? extends Iterator<T>> iterators
+    ) {
+        // Small groups and buffers so the shared tests cross both levels
+        return new TwoLevelMergeIterator<>(iterators, 2, 2, MergeMetrics.NONE);
+    }
+
+    @Override
+    protected <T extends Comparable<? super T>> Iterator<T> createIterator(
+        List<? extends Iterator<T>> iterators,
+        MergeMetrics metrics
+    ) {
+        return new TwoLevelMergeIterator<>(iterators, 2, 2, metrics);
+    }
+
+    @Test
+    void testGroupAndBufferSizesAgainstSort() {
+        for (int groupSize : new int[]{1, 3, 64, 1000}) {
+            for (int bufferSize : new int[]{1, 7, 256}) {
+                assertMergesLikeSort("group=" + groupSize + " buffer=" + bufferSize, new int[]{1, 5, 64, 65, 300}, 50,
+                    (iterators, metrics) -> new TwoLevelMergeIterator<>(iterators, groupSize, bufferSize, metrics));
+            }
+        }
+    }
+
+    @Test
+    void testInvalidSizes() {
+        List<Iterator<Integer>> iterators = Collections.singletonList(Arrays.asList(1).iterator());
+        assertThrows(IllegalArgumentException.class,
+            () -> new TwoLevelMergeIterator<>(iterators, 0, 1, MergeMetrics.NONE));
+        assertThrows(IllegalArgumentException.class,
+            () -> new TwoLevelMergeIterator<>(iterators, 1, 0, MergeMetrics.NONE));
+    }
+}
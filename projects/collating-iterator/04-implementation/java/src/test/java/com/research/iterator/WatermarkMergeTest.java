@@ -0,0 +1,165 @@
+package com.research.iterator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for WatermarkMerge and QueueWatermarkSource (live streams with watermarks).
+ */
+class WatermarkMergeTest {
+
+    private static QueueWatermarkSource<Long> source(long... values) {
+        QueueWatermarkSource<Long> source = new QueueWatermarkSource<>(new LinkedBlockingQueue<>());
+        for (long value : values) {
+            source.queue().add(value);
+        }
+        return source;
+    }
+
+    private static List<Long> pollAvailable(WatermarkMerge<Long> merge) throws InterruptedException {
+        List<Long> result = new ArrayList<>();
+        Long value;
+        while ((value = merge.poll(0, TimeUnit.MILLISECONDS)) != null) {
+            result.add(value);
+        }
+        return result;
+    }
+
+    @Test
+    void testIdleSourceAdvancingWatermarkDoesNotBlock() throws Exception {
+        QueueWatermarkSource<Long> busy = source(1, 3, 5, 7);
+        QueueWatermarkSource<Long> idle = source();
+        WatermarkMerge<Long> merge = new WatermarkMerge<>(Arrays.asList(busy, idle), Long::longValue);
+
+        // The idle source has no data and no watermark: nothing can be emitted yet
+        assertNull(merge.poll(20, TimeUnit.MILLISECONDS));
+        assertEquals(4, merge.buffered());
+
+        idle.advanceWatermark(6);
+        assertEquals(Arrays.asList(1L, 3L, 5L), pollAvailable(merge));
+        assertEquals(6, merge.watermark());
+
+        idle.queue().add(6L);
+        idle.advanceWatermark(100);
+        // Busy's own highest timestamp (7) now holds the watermark
+        assertEquals(Collections.singletonList(6L), pollAvailable(merge));
+
+        busy.close();
+        idle.close();
+        assertEquals(Collections.singletonList(7L), pollAvailable(merge));
+        assertTrue(merge.isFinished());
+        assertNull(merge.poll(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testBoundedDisorderIsReordered() throws Exception {
+        QueueWatermarkSource<Long> first = source(10, 7, 12, 9, 20);
+        QueueWatermarkSource<Long> second = source(8, 11, 15);
+        WatermarkMerge<Long> merge = new WatermarkMerge<>(Arrays.asList(first, second), Long::longValue, 5);
+
+        // Watermark is min(20, 15) - 5 = 10
+        assertEquals(Arrays.asList(7L, 8L, 9L), pollAvailable(merge));
+
+        // Within the disorder bound, but behind output already emitted: dropped
+        first.queue().add(8L);
+        first.close();
+        second.close();
+        assertEquals(Arrays.asList(10L, 11L, 12L, 15L, 20L), pollAvailable(merge));
+        assertEquals(1, merge.lateDropped());
+        assertTrue(merge.isFinished());
+    }
+
+    @Test
+    void testBacklogBeyondDrainLimitIsNotOvertaken() throws Exception {
+        // More queued than one refresh drains, published before the final watermark
+        long[] backlog = new long[2000];
+        for (int i = 0; i < backlog.length; i++) {
+            backlog[i] = i;
+        }
+        QueueWatermarkSource<Long> deep = source(backlog);
+        QueueWatermarkSource<Long> shallow = source(1500, 1999);
+        deep.close();
+        shallow.close();
+        WatermarkMerge<Long> merge = new WatermarkMerge<>(Arrays.asList(deep, shallow), Long::longValue);
+
+        List<Long> result = new ArrayList<>();
+        Long value;
+        while (!merge.isFinished()) {
+            if ((value = merge.poll(100, TimeUnit.MILLISECONDS)) != null) {
+                result.add(value);
+            }
+        }
+
+        List<Long> expected = new ArrayList<>();
+        for (long t : backlog) {
+            expected.add(t);
+        }
+        expected.add(1500L);
+        expected.add(1999L);
+        Collections.sort(expected);
+        assertEquals(expected, result);
+        assertEquals(0, merge.lateDropped());
+    }
+
+    @Test
+    void testLiveProducersWithPauses() throws Exception {
+        int k = 4;
+        int perSource = 500;
+        List<QueueWatermarkSource<Long>> sources = new ArrayList<>();
+        for (int i = 0; i < k; i++) {
+            sources.add(new QueueWatermarkSource<>(new ArrayBlockingQueue<>(16)));
+        }
+        WatermarkMerge<Long> merge = new WatermarkMerge<>(sources, Long::longValue);
+
+        ExecutorService producers = Executors.newFixedThreadPool(k);
+        try {
+            for (int i = 0; i < k; i++) {
+                QueueWatermarkSource<Long> source = sources.get(i);
+                long offset = i;
+                Random random = new Random(43 + i);
+                producers.submit(() -> {
+                    for (long j = 0; j < perSource; j++) {
+                        source.queue().put(j * k + offset);
+                        if (random.nextInt(100) == 0) {
+                            Thread.sleep(2);
+                        }
+                    }
+                    source.close();
+                    return null;
+                });
+            }
+
+            List<Long> result = new ArrayList<>();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+            while (!merge.isFinished() && System.nanoTime() < deadline) {
+                Long value = merge.poll(10, TimeUnit.MILLISECONDS);
+                if (value != null) {
+                    result.add(value);
+                }
+            }
+
+            assertTrue(merge.isFinished());
+            assertEquals(k * perSource, result.size());
+            for (int i = 0; i < result.size(); i++) {
+                assertEquals(i, result.get(i));
+            }
+        } finally {
+            producers.shutdownNow();
+        }
+    }
+
+    @Test
+    void testInvalidArguments() {
+        List<QueueWatermarkSource<Long>> sources = Collections.singletonList(source());
+        assertThrows(NullPointerException.class, () -> new WatermarkMerge<Long>(null, Long::longValue));
+        assertThrows(NullPointerException.class, () -> new WatermarkMerge<>(sources, null));
+        assertThrows(NullPointerException.class, () -> new QueueWatermarkSource<Long>(null));
+        assertThrows(IllegalArgumentException.class,
+            () -> new WatermarkMerge<>(Collections.<QueueWatermarkSource<Long>>emptyList(), Long::longValue));
+        assertThrows(IllegalArgumentException.class, () -> new WatermarkMerge<>(sources, Long::longValue, -1));
+    }
+}